@@ -1,6 +1,7 @@
 package com.constructpro.config;
 
 import com.constructpro.dto.response.MessageResponse;
+import com.constructpro.exception.TaskConflictException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -62,6 +63,13 @@ public class GlobalExceptionHandler {
             .body(new MessageResponse("Invalid request: " + ex.getMessage()));
     }
 
+    @ExceptionHandler(TaskConflictException.class)
+    public ResponseEntity<?> handleTaskConflictException(TaskConflictException ex, WebRequest request) {
+        log.warn("Conflicting task update for request: {} - {}", request.getDescription(false), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .body(new MessageResponse("Conflict: " + ex.getMessage()));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<?> handleRuntimeException(RuntimeException ex, WebRequest request) {
         log.error("Runtime error for request: {} - {}", request.getDescription(false), ex.getMessage(), ex);
@@ -1,12 +1,165 @@
 package com.constructpro.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Named, bounded thread pools, one per kind of background work, so a slow scan cannot starve
+ * request fan-out or notification writes and no queue can grow without limit.
+ * Pool sizes and queue depths come from app.executors.*; every pool drains its queue on shutdown.
+ * Actuator publishes executor.active, executor.queued and executor.pool.size for each pool by bean
+ * name, and each pool also records how long tasks wait in the queue and how long they run.
+ */
 @Configuration
 @EnableScheduling
 @EnableAsync
-public class SchedulingConfig {
-    // Spring will automatically handle the scheduling and async execution
+@RequiredArgsConstructor
+@Slf4j
+public class SchedulingConfig implements AsyncConfigurer {
+
+    // Request-time fan-out and the default for @Async without a qualifier
+    public static final String APPLICATION_EXECUTOR = "applicationTaskExecutor";
+    // Long-running scans started by scheduled triggers or at startup
+    public static final String SCHEDULED_JOB_EXECUTOR = "scheduledJobExecutor";
+    // Writing and pushing notifications in bulk
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+    // Encoding uploaded media
+    public static final String MEDIA_EXECUTOR = "mediaExecutor";
+    // Writing server-sent events to connected clients
+    public static final String STREAM_EXECUTOR = "streamExecutor";
+
+    private static final int SHUTDOWN_DRAIN_SECONDS = 30;
+
+    private final MeterRegistry meterRegistry;
+
+    // Looked up on first use; the executor beans are defined by this configuration itself
+    private final BeanFactory beanFactory;
+
+    @Bean(name = APPLICATION_EXECUTOR)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(
+            @Value("${app.executors.application.core-size:8}") int coreSize,
+            @Value("${app.executors.application.max-size:16}") int maxSize,
+            @Value("${app.executors.application.queue-capacity:200}") int queueCapacity) {
+        // A saturated pool makes the calling request do the work itself rather than fail
+        return executor(APPLICATION_EXECUTOR, "app-", coreSize, maxSize, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Bean(name = SCHEDULED_JOB_EXECUTOR)
+    public ThreadPoolTaskExecutor scheduledJobExecutor(
+            @Value("${app.executors.scheduled-jobs.core-size:2}") int coreSize,
+            @Value("${app.executors.scheduled-jobs.max-size:4}") int maxSize,
+            @Value("${app.executors.scheduled-jobs.queue-capacity:20}") int queueCapacity) {
+        // A scan that cannot be queued is skipped; the next trigger picks the work up again
+        return executor(SCHEDULED_JOB_EXECUTOR, "job-", coreSize, maxSize, queueCapacity, discardAndCount(SCHEDULED_JOB_EXECUTOR));
+    }
+
+    @Bean(name = NOTIFICATION_EXECUTOR)
+    public ThreadPoolTaskExecutor notificationExecutor(
+            @Value("${app.executors.notifications.core-size:2}") int coreSize,
+            @Value("${app.executors.notifications.max-size:4}") int maxSize,
+            @Value("${app.executors.notifications.queue-capacity:100}") int queueCapacity) {
+        return executor(NOTIFICATION_EXECUTOR, "notify-", coreSize, maxSize, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Bean(name = MEDIA_EXECUTOR)
+    public ThreadPoolTaskExecutor mediaExecutor(
+            @Value("${app.executors.media.core-size:2}") int coreSize,
+            @Value("${app.executors.media.max-size:4}") int maxSize,
+            @Value("${app.executors.media.queue-capacity:50}") int queueCapacity) {
+        return executor(MEDIA_EXECUTOR, "media-", coreSize, maxSize, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Bean(name = STREAM_EXECUTOR)
+    public ThreadPoolTaskExecutor streamExecutor(
+            @Value("${app.executors.stream.core-size:4}") int coreSize,
+            @Value("${app.executors.stream.max-size:8}") int maxSize,
+            @Value("${app.executors.stream.queue-capacity:10000}") int queueCapacity) {
+        // At most one queued write per connection, so a queue as deep as app.stream.max-connections
+        // never fills; a rejected write is left buffered and retried by the stream registry
+        return executor(STREAM_EXECUTOR, "stream-", coreSize, maxSize, queueCapacity, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Scheduler threads only trigger work; anything long runs on the scheduled job executor
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${app.executors.scheduler.pool-size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduler-");
+        scheduler.setErrorHandler(e -> log.error("Scheduled task failed", e));
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(SHUTDOWN_DRAIN_SECONDS);
+        return scheduler;
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return beanFactory.getBean(APPLICATION_EXECUTOR, Executor.class);
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (e, method, params) -> log.error("Async method {} failed", method.getName(), e);
+    }
+
+    private ThreadPoolTaskExecutor executor(String name, String threadPrefix, int coreSize, int maxSize,
+                                            int queueCapacity, RejectedExecutionHandler rejectionHandler) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(Math.max(coreSize, maxSize));
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadPrefix);
+        executor.setRejectedExecutionHandler(rejectionHandler);
+        executor.setTaskDecorator(timed(name));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(SHUTDOWN_DRAIN_SECONDS);
+        return executor;
+    }
+
+    private TaskDecorator timed(String name) {
+        Timer waiting = Timer.builder("executor.task.wait").tag("name", name).register(meterRegistry);
+        Timer running = Timer.builder("executor.task.duration").tag("name", name).register(meterRegistry);
+
+        return task -> {
+            long submitted = System.nanoTime();
+            return () -> {
+                long started = System.nanoTime();
+                waiting.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    running.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            };
+        };
+    }
+
+    private RejectedExecutionHandler discardAndCount(String name) {
+        Counter rejected = Counter.builder("executor.rejected").tag("name", name).register(meterRegistry);
+
+        return (task, pool) -> {
+            rejected.increment();
+            log.warn("Executor {} is saturated ({} queued); dropping task", name, pool.getQueue().size());
+        };
+    }
 }
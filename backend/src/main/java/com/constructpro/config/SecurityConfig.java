@@ -1,6 +1,7 @@
 package com.constructpro.config;
 
 import com.constructpro.security.*;
+import jakarta.servlet.DispatcherType;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -103,6 +104,8 @@ public class SecurityConfig {
 			.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 			.exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
 			.authorizeHttpRequests(auth -> auth
+				// Completing or timing out an event stream re-dispatches a request that was already authorized
+				.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
 				.requestMatchers("/api/auth/**").permitAll()
 				.requestMatchers("/api/ping").permitAll()
 				.requestMatchers("/api/demo").permitAll()
@@ -0,0 +1,54 @@
+package com.constructpro.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Moves the pooled id sequences past ids that were assigned while the tables used identity columns.
+ * Without this, the first batch of sequence ids on an existing PostgreSQL database collides with old rows.
+ */
+@Component
+@Order(0)
+@RequiredArgsConstructor
+@Slf4j
+public class SequenceInitializer implements CommandLineRunner {
+
+    // Must match the allocationSize of the @SequenceGenerator mappings
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCE_TABLES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCE_TABLES.put("tasks_seq", "tasks");
+        SEQUENCE_TABLES.put("task_updates_seq", "task_updates");
+        SEQUENCE_TABLES.put("notifications_seq", "notifications");
+        SEQUENCE_TABLES.put("building_contractors_seq", "building_contractors");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        String databaseProduct = jdbcTemplate.execute(
+            (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+
+        if (!"PostgreSQL".equalsIgnoreCase(databaseProduct)) {
+            return;
+        }
+
+        SEQUENCE_TABLES.forEach((sequence, table) -> {
+            Long value = jdbcTemplate.queryForObject(String.format(
+                "SELECT setval('%s', GREATEST((SELECT last_value FROM %s), (SELECT COALESCE(MAX(id), 0) FROM %s) + %d))",
+                sequence, sequence, table, ALLOCATION_SIZE), Long.class);
+            log.debug("Sequence {} aligned with table {} at {}", sequence, table, value);
+        });
+    }
+}
@@ -1,18 +1,23 @@
 package com.constructpro.controller;
 
 import com.constructpro.dto.request.SignupRequest;
+import com.constructpro.dto.response.JobStatusResponse;
 import com.constructpro.dto.response.MessageResponse;
 import com.constructpro.entity.User;
+import com.constructpro.event.UserChangedEvent;
 import com.constructpro.repository.UserRepository;
+import com.constructpro.service.JobLeaseService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,7 +28,9 @@ import java.util.Optional;
 public class AdminController {
     
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final PasswordEncoder encoder;
+    private final JobLeaseService jobLeaseService;
     
     @GetMapping("/builders")
     @PreAuthorize("hasRole('ADMIN')")
@@ -79,6 +86,7 @@ public class AdminController {
 			}
 
 			userRepository.save(admin);
+			eventPublisher.publishEvent(new UserChangedEvent(admin));
 
 			return ResponseEntity.status(HttpStatus.CREATED)
 								 .body(new MessageResponse("Admin account created successfully!"));
@@ -114,6 +122,7 @@ public class AdminController {
             }
             
             userRepository.save(builder);
+            eventPublisher.publishEvent(new UserChangedEvent(builder));
             
             return ResponseEntity.status(HttpStatus.CREATED)
                 .body(new MessageResponse("Builder account created successfully!"));
@@ -156,6 +165,7 @@ public class AdminController {
             }
             
             userRepository.save(builder);
+            eventPublisher.publishEvent(new UserChangedEvent(builder));
             
             return ResponseEntity.ok(new MessageResponse("Builder account updated successfully!"));
             
@@ -179,6 +189,7 @@ public class AdminController {
             User builder = builderOpt.get();
             builder.setIsActive(active);
             userRepository.save(builder);
+            eventPublisher.publishEvent(new UserChangedEvent(builder));
             
             String status = active ? "activated" : "deactivated";
             return ResponseEntity.ok(new MessageResponse("Builder account " + status + " successfully!"));
@@ -206,9 +217,11 @@ public class AdminController {
                 // For now, we'll soft delete by deactivating
                 builder.setIsActive(false);
                 userRepository.save(builder);
+                eventPublisher.publishEvent(new UserChangedEvent(builder));
                 return ResponseEntity.ok(new MessageResponse("Builder account deactivated successfully!"));
             } else {
                 userRepository.delete(builder);
+                eventPublisher.publishEvent(new UserChangedEvent(builder, true));
                 return ResponseEntity.ok(new MessageResponse("Builder account deleted successfully!"));
             }
             
@@ -266,4 +279,21 @@ public class AdminController {
                 .body(new MessageResponse("Error: Failed to fetch user counts"));
         }
     }
+    
+    @GetMapping("/jobs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getScheduledJobs() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<JobStatusResponse> jobs = jobLeaseService.getLeases().stream()
+                .map(lease -> JobStatusResponse.fromLease(lease, now))
+                .toList();
+            
+            return ResponseEntity.ok(jobs);
+        } catch (Exception e) {
+            log.error("Error fetching scheduled jobs", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to fetch scheduled jobs"));
+        }
+    }
 }
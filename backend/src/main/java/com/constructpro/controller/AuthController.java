@@ -2,14 +2,17 @@ package com.constructpro.controller;
 
 import com.constructpro.dto.request.LoginRequest;
 import com.constructpro.dto.request.SignupRequest;
+import com.constructpro.dto.request.TimezoneRequest;
 import com.constructpro.dto.response.JwtResponse;
 import com.constructpro.dto.response.MessageResponse;
 import com.constructpro.entity.User;
+import com.constructpro.event.UserChangedEvent;
 import com.constructpro.repository.UserRepository;
 import com.constructpro.security.JwtUtils;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,7 +22,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -29,6 +34,7 @@ public class AuthController {
     
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final PasswordEncoder encoder;
     private final JwtUtils jwtUtils;
 
@@ -116,6 +122,9 @@ public class AuthController {
             if (signUpRequest.getPhoneNumber() != null) {
                 user.setPhoneNumber(signUpRequest.getPhoneNumber());
             }
+            if (signUpRequest.getTimezone() != null && !signUpRequest.getTimezone().isBlank()) {
+                user.setTimezone(ZoneId.of(signUpRequest.getTimezone()).getId());
+            }
             
             // Contractor-specific fields
             if (role == User.Role.CONTRACTOR) {
@@ -125,9 +134,13 @@ public class AuthController {
             }
             
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user));
             
             return ResponseEntity.ok(new MessageResponse("Contractor registered successfully!"));
             
+        } catch (DateTimeException e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error: Invalid timezone"));
         } catch (Exception e) {
             log.error("Registration failed for user: {}", signUpRequest.getEmail(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -230,6 +243,9 @@ public class AuthController {
             if (signUpRequest.getPhoneNumber() != null) {
                 user.setPhoneNumber(signUpRequest.getPhoneNumber());
             }
+            if (signUpRequest.getTimezone() != null && !signUpRequest.getTimezone().isBlank()) {
+                user.setTimezone(ZoneId.of(signUpRequest.getTimezone()).getId());
+            }
             
             // Contractor-specific fields
             if (role == User.Role.CONTRACTOR) {
@@ -239,10 +255,14 @@ public class AuthController {
             }
             
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user));
             
             String roleName = role.name().toLowerCase();
             return ResponseEntity.ok(new MessageResponse(roleName.substring(0, 1).toUpperCase() + roleName.substring(1) + " registered successfully!"));
             
+        } catch (DateTimeException e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error: Invalid timezone"));
         } catch (Exception e) {
             log.error("Role-based registration failed for user: {}", signUpRequest.getEmail(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -269,4 +289,34 @@ public class AuthController {
             user.getRole().name()
         ));
     }
+    
+    @PutMapping("/me/timezone")
+    public ResponseEntity<?> updateTimezone(@Valid @RequestBody TimezoneRequest request, Authentication authentication) {
+        // /api/auth/** is open, so authentication is checked here as in /me
+        if (authentication == null || !(authentication.getPrincipal() instanceof User)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new MessageResponse("Error: User not authenticated"));
+        }
+        
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            String zoneId = ZoneId.of(request.getTimezone()).getId();
+            
+            User user = userRepository.findById(currentUser.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+            user.setTimezone(zoneId);
+            userRepository.save(user);
+            currentUser.setTimezone(zoneId);
+            eventPublisher.publishEvent(new UserChangedEvent(user));
+            
+            return ResponseEntity.ok(new MessageResponse("Timezone updated to " + zoneId));
+        } catch (DateTimeException e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error: Invalid timezone"));
+        } catch (Exception e) {
+            log.error("Error updating timezone", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to update timezone"));
+        }
+    }
 }
@@ -1,11 +1,15 @@
 package com.constructpro.controller;
 
+import com.constructpro.dto.request.BuildingContractorBatchRequest;
+import com.constructpro.dto.response.BuildingContractorBatchResponse;
 import com.constructpro.dto.response.MessageResponse;
 import com.constructpro.entity.BuildingContractor;
 import com.constructpro.entity.User;
 import com.constructpro.service.BuildingContractorService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -45,6 +49,27 @@ public class BuildingContractorController {
         }
     }
 
+    @PostMapping("/assign-batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'BUILDER')")
+    public ResponseEntity<?> assignContractorsBatch(
+            @Valid @RequestBody BuildingContractorBatchRequest request,
+            @AuthenticationPrincipal User currentUser) {
+        
+        try {
+            BuildingContractorBatchResponse response = buildingContractorService.assignContractorsBatch(
+                request.getAssignments(), currentUser);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error batch assigning contractors: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to assign contractors"));
+        }
+    }
+
     @DeleteMapping("/unassign")
     @PreAuthorize("hasAnyRole('ADMIN', 'BUILDER')")
     public ResponseEntity<MessageResponse> unassignContractorFromBuilding(
@@ -1,21 +1,35 @@
 package com.constructpro.controller;
 
+import com.constructpro.dto.request.AnnouncementRequest;
 import com.constructpro.dto.request.BuildingCreateRequest;
+import com.constructpro.dto.response.BuildingDashboardResponse;
 import com.constructpro.dto.response.BuildingResponse;
+import com.constructpro.dto.response.DailyDigestResponse;
 import com.constructpro.dto.response.MessageResponse;
+import com.constructpro.dto.response.NearbyBuildingResponse;
 import com.constructpro.entity.Building;
+import com.constructpro.entity.BuildingTaskCounters;
+import com.constructpro.entity.DailyDigest;
 import com.constructpro.entity.User;
+import com.constructpro.service.BuildingDashboardService;
 import com.constructpro.service.BuildingService;
+import com.constructpro.service.BuildingTaskCountersService;
+import com.constructpro.service.DailyDigestService;
+import com.constructpro.service.GeoPoint;
+import com.constructpro.service.ProjectAccessIndex;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -24,7 +38,16 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BuildingController {
     
+    private static final int MAX_NEARBY_RESULTS = 100;
+    
     private final BuildingService buildingService;
+    private final BuildingTaskCountersService buildingTaskCountersService;
+    private final BuildingDashboardService buildingDashboardService;
+    private final DailyDigestService dailyDigestService;
+    private final ProjectAccessIndex projectAccessIndex;
+    
+    @Value("${app.buildings.nearby.max-radius-km:200}")
+    private double maxNearbyRadiusKm;
     
     @PostMapping
     @PreAuthorize("hasRole('BUILDER')")
@@ -51,9 +74,7 @@ public class BuildingController {
             User currentUser = (User) authentication.getPrincipal();
             
             List<Building> buildings = buildingService.getBuildingsByUser(currentUser);
-            List<BuildingResponse> responses = buildings.stream()
-                .map(BuildingResponse::fromBuilding)
-                .collect(Collectors.toList());
+            List<BuildingResponse> responses = toResponses(buildings);
             
             return ResponseEntity.ok(responses);
         } catch (Exception e) {
@@ -62,6 +83,75 @@ public class BuildingController {
         }
     }
     
+    @GetMapping("/dashboard")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('BUILDER') or hasRole('CONTRACTOR')")
+    public ResponseEntity<?> getDashboard(Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            BuildingDashboardResponse dashboard = buildingDashboardService.getDashboard(currentUser);
+            
+            return ResponseEntity.ok(dashboard);
+        } catch (Exception e) {
+            log.error("Error building dashboard", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to load dashboard"));
+        }
+    }
+    
+    @GetMapping("/dashboard/digest")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('BUILDER')")
+    public ResponseEntity<?> getDailyDigest(@RequestParam(required = false) DailyDigest.Scope scope,
+                                            Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            
+            return dailyDigestService.getLatestDigest(currentUser, scope)
+                .<ResponseEntity<?>>map(digest -> ResponseEntity.ok(DailyDigestResponse.fromDigest(digest)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new MessageResponse("Error: No digest has been generated yet")));
+        } catch (Exception e) {
+            log.error("Error fetching daily digest", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to load daily digest"));
+        }
+    }
+    
+    @GetMapping("/nearby")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('BUILDER') or hasRole('CONTRACTOR')")
+    public ResponseEntity<?> getNearbyBuildings(@RequestParam double lat,
+                                                @RequestParam double lng,
+                                                @RequestParam(defaultValue = "25") double radiusKm,
+                                                @RequestParam(defaultValue = "20") int limit,
+                                                Authentication authentication) {
+        try {
+            if (!GeoPoint.isValid(lat, lng)) {
+                return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: Latitude must be between -90 and 90 and longitude between -180 and 180"));
+            }
+            if (radiusKm <= 0 || radiusKm > maxNearbyRadiusKm) {
+                return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: Radius must be greater than 0 and at most " + maxNearbyRadiusKm + " km"));
+            }
+            
+            User currentUser = (User) authentication.getPrincipal();
+            int size = Math.max(1, Math.min(limit, MAX_NEARBY_RESULTS));
+            List<BuildingService.NearbyBuilding> nearby = buildingService.getNearbyBuildings(
+                currentUser, new GeoPoint(lat, lng), radiusKm, size);
+            
+            List<BuildingResponse> buildings = toResponses(nearby.stream().map(BuildingService.NearbyBuilding::building).toList());
+            List<NearbyBuildingResponse> responses = new ArrayList<>(nearby.size());
+            for (int i = 0; i < nearby.size(); i++) {
+                responses.add(new NearbyBuildingResponse(buildings.get(i), nearby.get(i).distanceKm()));
+            }
+            
+            return ResponseEntity.ok(responses);
+        } catch (Exception e) {
+            log.error("Error fetching nearby buildings", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to fetch nearby buildings"));
+        }
+    }
+    
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('BUILDER') or hasRole('CONTRACTOR')")
     public ResponseEntity<?> getBuildingById(@PathVariable Long id, Authentication authentication) {
@@ -73,17 +163,13 @@ public class BuildingController {
             
             // Check if contractor has access to this building
             if (currentUser.getRole() == User.Role.CONTRACTOR) {
-                List<Building> contractorBuildings = buildingService.getBuildingsByContractor(currentUser);
-                boolean hasAccess = contractorBuildings.stream()
-                    .anyMatch(b -> b.getId().equals(id));
-                
-                if (!hasAccess) {
+                if (!projectAccessIndex.isAssignedToBuilding(currentUser, id)) {
                     return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(new MessageResponse("Access denied: You are not assigned to this building"));
                 }
             }
             
-            return ResponseEntity.ok(BuildingResponse.fromBuilding(building));
+            return ResponseEntity.ok(toResponse(building));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -102,7 +188,7 @@ public class BuildingController {
             User currentUser = (User) authentication.getPrincipal();
             Building building = buildingService.updateBuilding(id, request, currentUser);
             
-            return ResponseEntity.ok(BuildingResponse.fromBuilding(building));
+            return ResponseEntity.ok(toResponse(building));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -113,6 +199,29 @@ public class BuildingController {
         }
     }
     
+    @PostMapping("/{id}/announce")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('BUILDER')")
+    public ResponseEntity<?> announce(@PathVariable Long id,
+                                      @Valid @RequestBody AnnouncementRequest request,
+                                      Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            int recipients = buildingService.announce(id, request.getTitle(), request.getMessage(), currentUser);
+            
+            return ResponseEntity.ok(new MessageResponse("Announcement sent to " + recipients + " recipients"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error sending building announcement", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to send announcement"));
+        }
+    }
+    
     @PatchMapping("/{id}/status")
     @PreAuthorize("hasRole('BUILDER')")
     public ResponseEntity<?> updateBuildingStatus(@PathVariable Long id, 
@@ -130,7 +239,7 @@ public class BuildingController {
             }
             
             Building building = buildingService.updateBuildingStatus(id, projectStatus, currentUser);
-            return ResponseEntity.ok(BuildingResponse.fromBuilding(building));
+            return ResponseEntity.ok(toResponse(building));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -165,9 +274,7 @@ public class BuildingController {
             User currentUser = (User) authentication.getPrincipal();
             List<Building> buildings = buildingService.getBuildingsByContractor(currentUser);
             
-            List<BuildingResponse> responses = buildings.stream()
-                .map(BuildingResponse::fromBuilding)
-                .collect(Collectors.toList());
+            List<BuildingResponse> responses = toResponses(buildings);
             
             return ResponseEntity.ok(responses);
         } catch (Exception e) {
@@ -181,9 +288,7 @@ public class BuildingController {
     public ResponseEntity<List<BuildingResponse>> getOverdueBuildings() {
         try {
             List<Building> buildings = buildingService.getOverdueBuildings();
-            List<BuildingResponse> responses = buildings.stream()
-                .map(BuildingResponse::fromBuilding)
-                .collect(Collectors.toList());
+            List<BuildingResponse> responses = toResponses(buildings);
             
             return ResponseEntity.ok(responses);
         } catch (Exception e) {
@@ -197,9 +302,7 @@ public class BuildingController {
     public ResponseEntity<List<BuildingResponse>> getActiveBuildingsOrderByDeadline() {
         try {
             List<Building> buildings = buildingService.getActiveBuildingsOrderByDeadline();
-            List<BuildingResponse> responses = buildings.stream()
-                .map(BuildingResponse::fromBuilding)
-                .collect(Collectors.toList());
+            List<BuildingResponse> responses = toResponses(buildings);
             
             return ResponseEntity.ok(responses);
         } catch (Exception e) {
@@ -213,9 +316,7 @@ public class BuildingController {
     public ResponseEntity<List<BuildingResponse>> searchBuildings(@RequestParam String q) {
         try {
             List<Building> buildings = buildingService.searchBuildings(q);
-            List<BuildingResponse> responses = buildings.stream()
-                .map(BuildingResponse::fromBuilding)
-                .collect(Collectors.toList());
+            List<BuildingResponse> responses = toResponses(buildings);
             
             return ResponseEntity.ok(responses);
         } catch (Exception e) {
@@ -244,4 +345,18 @@ public class BuildingController {
                 .body(new MessageResponse("Error: Failed to fetch building count"));
         }
     }
+    
+    private BuildingResponse toResponse(Building building) {
+        return BuildingResponse.fromBuilding(building, buildingTaskCountersService.getCounters(building.getId()));
+    }
+    
+    // One counters lookup for the whole list
+    private List<BuildingResponse> toResponses(List<Building> buildings) {
+        Map<Long, BuildingTaskCounters> counters = buildingTaskCountersService.getCounters(
+            buildings.stream().map(Building::getId).collect(Collectors.toList()));
+        
+        return buildings.stream()
+            .map(building -> BuildingResponse.fromBuilding(building, counters.get(building.getId())))
+            .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,147 @@
+package com.constructpro.controller;
+
+import com.constructpro.dto.request.BuildingLocationRequest;
+import com.constructpro.dto.response.LocationProgressResponse;
+import com.constructpro.dto.response.MessageResponse;
+import com.constructpro.entity.BuildingLocation;
+import com.constructpro.entity.User;
+import com.constructpro.service.BuildingLocationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/buildings/{buildingId}")
+@RequiredArgsConstructor
+@Slf4j
+public class BuildingLocationController {
+    
+    private final BuildingLocationService buildingLocationService;
+    
+    @GetMapping("/locations")
+    @PreAuthorize("hasAnyRole('ADMIN', 'BUILDER', 'CONTRACTOR')")
+    public ResponseEntity<?> getLocations(@PathVariable Long buildingId, Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            List<LocationProgressResponse> tree = buildingLocationService.getLocationTree(buildingId, currentUser);
+            
+            return ResponseEntity.ok(tree);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error fetching building locations", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to fetch building locations"));
+        }
+    }
+    
+    @PostMapping("/locations")
+    @PreAuthorize("hasRole('BUILDER')")
+    public ResponseEntity<?> createLocation(@PathVariable Long buildingId,
+                                            @Valid @RequestBody BuildingLocationRequest request,
+                                            Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            BuildingLocation location = buildingLocationService.createLocation(buildingId, request, currentUser);
+            
+            return ResponseEntity.ok(LocationProgressResponse.fromLocation(location));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error creating building location", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to create location"));
+        }
+    }
+    
+    @PostMapping("/locations/floors")
+    @PreAuthorize("hasRole('BUILDER')")
+    public ResponseEntity<?> generateFloors(@PathVariable Long buildingId, Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            List<LocationProgressResponse> floors = buildingLocationService.generateFloors(buildingId, currentUser)
+                .stream()
+                .map(LocationProgressResponse::fromLocation)
+                .toList();
+            
+            return ResponseEntity.ok(floors);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error generating building floors", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to generate floors"));
+        }
+    }
+    
+    @DeleteMapping("/locations/{locationId}")
+    @PreAuthorize("hasRole('BUILDER')")
+    public ResponseEntity<?> deleteLocation(@PathVariable Long buildingId,
+                                            @PathVariable Long locationId,
+                                            Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            buildingLocationService.deleteLocation(buildingId, locationId, currentUser);
+            
+            return ResponseEntity.ok(new MessageResponse("Location deleted successfully"));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error deleting building location", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to delete location"));
+        }
+    }
+    
+    @GetMapping("/floors")
+    @PreAuthorize("hasAnyRole('ADMIN', 'BUILDER', 'CONTRACTOR')")
+    public ResponseEntity<?> getFloors(@PathVariable Long buildingId, Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            
+            return ResponseEntity.ok(buildingLocationService.getFloors(buildingId, currentUser));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error fetching building floors", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to fetch floors"));
+        }
+    }
+    
+    @GetMapping("/floors/{floorNumber}/progress")
+    @PreAuthorize("hasAnyRole('ADMIN', 'BUILDER', 'CONTRACTOR')")
+    public ResponseEntity<?> getFloorProgress(@PathVariable Long buildingId,
+                                              @PathVariable Integer floorNumber,
+                                              Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            
+            return ResponseEntity.ok(buildingLocationService.getFloorProgress(buildingId, floorNumber, currentUser));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error fetching floor progress", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to fetch floor progress"));
+        }
+    }
+}
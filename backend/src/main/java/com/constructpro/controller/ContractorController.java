@@ -0,0 +1,41 @@
+package com.constructpro.controller;
+
+import com.constructpro.dto.response.ContractorSuggestion;
+import com.constructpro.dto.response.MessageResponse;
+import com.constructpro.service.ContractorSuggestIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/contractors")
+@RequiredArgsConstructor
+@Slf4j
+public class ContractorController {
+
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private final ContractorSuggestIndex contractorSuggestIndex;
+
+    @GetMapping("/suggest")
+    @PreAuthorize("hasAnyRole('ADMIN', 'BUILDER')")
+    public ResponseEntity<?> suggestContractors(@RequestParam(defaultValue = "") String prefix,
+                                                @RequestParam(required = false) String specialization,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        try {
+            int size = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+            List<ContractorSuggestion> suggestions = contractorSuggestIndex.suggest(prefix, specialization, size);
+
+            return ResponseEntity.ok(suggestions);
+        } catch (Exception e) {
+            log.error("Error suggesting contractors", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to suggest contractors"));
+        }
+    }
+}
@@ -6,11 +6,13 @@ import com.constructpro.entity.User;
 import com.constructpro.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -84,10 +86,12 @@ public class NotificationController {
     }
     
     @PatchMapping("/mark-all-read")
-    public ResponseEntity<?> markAllNotificationsAsRead(Authentication authentication) {
+    public ResponseEntity<?> markAllNotificationsAsRead(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime readUpTo,
+            Authentication authentication) {
         try {
             User currentUser = (User) authentication.getPrincipal();
-            notificationService.markAllAsRead(currentUser);
+            notificationService.markAllAsRead(currentUser, readUpTo);
             
             return ResponseEntity.ok(new MessageResponse("All notifications marked as read"));
         } catch (Exception e) {
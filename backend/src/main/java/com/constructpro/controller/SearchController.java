@@ -0,0 +1,70 @@
+package com.constructpro.controller;
+
+import com.constructpro.dto.response.MessageResponse;
+import com.constructpro.dto.response.SearchResponse;
+import com.constructpro.entity.User;
+import com.constructpro.service.SearchIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@Slf4j
+public class SearchController {
+
+    private final SearchIndexService searchIndexService;
+
+    @GetMapping
+    public ResponseEntity<?> search(@RequestParam String q,
+                                    @RequestParam(required = false) String type,
+                                    @RequestParam(defaultValue = "1") int page,
+                                    @RequestParam(defaultValue = "20") int limit,
+                                    @RequestParam(defaultValue = "false") boolean exactTotal,
+                                    Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+
+            SearchIndexService.DocumentType documentType = null;
+            if (type != null) {
+                try {
+                    documentType = SearchIndexService.DocumentType.valueOf(type.toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest()
+                        .body(new MessageResponse("Error: Invalid search type"));
+                }
+            }
+
+            SearchResponse response = searchIndexService.search(q, documentType, currentUser, page, limit, exactTotal);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error searching", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Search failed"));
+        }
+    }
+
+    @PostMapping("/reindex")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> reindex() {
+        try {
+            Map<String, Long> counts = searchIndexService.reindexAll();
+            return ResponseEntity.ok(counts);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error rebuilding search index", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to rebuild search index"));
+        }
+    }
+}
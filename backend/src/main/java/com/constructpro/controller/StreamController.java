@@ -0,0 +1,47 @@
+package com.constructpro.controller;
+
+import com.constructpro.dto.response.MessageResponse;
+import com.constructpro.entity.User;
+import com.constructpro.service.EventStreamRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+@Slf4j
+public class StreamController {
+
+    private final EventStreamRegistry eventStreams;
+
+    /**
+     * Server-sent events for the current user: "notification", "unread-count" and "task".
+     * The first event is the current unread count.
+     */
+    @GetMapping
+    public ResponseEntity<?> openStream(Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            SseEmitter emitter = eventStreams.connect(currentUser);
+
+            return ResponseEntity.ok()
+                .header("Cache-Control", "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error opening event stream", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to open event stream"));
+        }
+    }
+}
@@ -1,17 +1,26 @@
 package com.constructpro.controller;
 
 import com.constructpro.dto.request.TaskCreateRequest;
+import com.constructpro.dto.request.TaskImportRow;
 import com.constructpro.dto.response.MessageResponse;
+import com.constructpro.dto.response.TaskImportResponse;
+import com.constructpro.dto.response.TaskStatsResponse;
 import com.constructpro.entity.Building;
 import com.constructpro.entity.Task;
 import com.constructpro.entity.TaskUpdate;
 import com.constructpro.entity.User;
+import com.constructpro.exception.TaskConflictException;
 import com.constructpro.service.BuildingService;
+import com.constructpro.service.TaskImportParser;
+import com.constructpro.service.TaskImportService;
 import com.constructpro.service.TaskService;
+import com.constructpro.service.TaskStatsService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -28,6 +37,9 @@ public class TaskController {
     
     private final TaskService taskService;
     private final BuildingService buildingService;
+    private final TaskImportService taskImportService;
+    private final TaskImportParser taskImportParser;
+    private final TaskStatsService taskStatsService;
     
     @PostMapping
     @PreAuthorize("hasRole('BUILDER')")
@@ -47,6 +59,28 @@ public class TaskController {
         }
     }
     
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('BUILDER')")
+    public ResponseEntity<?> importTasks(HttpServletRequest request, Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            
+            List<TaskImportRow> rows = taskImportParser.parse(request.getInputStream(), request.getContentType());
+            TaskImportResponse response = taskImportService.importTasks(rows, currentUser);
+            
+            if (!response.getErrors().isEmpty()) {
+                return ResponseEntity.badRequest().body(response);
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error importing tasks", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to import tasks"));
+        }
+    }
+    
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('BUILDER') or hasRole('CONTRACTOR')")
     public ResponseEntity<?> getTaskById(@PathVariable Long id, Authentication authentication) {
@@ -101,6 +135,20 @@ public class TaskController {
         }
     }
     
+    @GetMapping("/my-tasks/ready")
+    @PreAuthorize("hasRole('CONTRACTOR')")
+    public ResponseEntity<List<Task>> getMyReadyTasks(Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            List<Task> tasks = taskService.getReadyTasksByContractor(currentUser);
+            
+            return ResponseEntity.ok(tasks);
+        } catch (Exception e) {
+            log.error("Error fetching ready contractor tasks", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     @GetMapping("/building/{buildingId}")
     @PreAuthorize("hasRole('BUILDER')")
     public ResponseEntity<List<Task>> getTasksByBuilding(@PathVariable Long buildingId) {
@@ -169,6 +217,8 @@ public class TaskController {
             
             Task task = taskService.updateTaskProgress(id, progress, notes, currentUser);
             return ResponseEntity.ok(task);
+        } catch (TaskConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: " + e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
         } catch (Exception e) {
@@ -189,6 +239,8 @@ public class TaskController {
             
             Task task = taskService.markTaskAsCompleted(id, completionNotes, currentUser);
             return ResponseEntity.ok(task);
+        } catch (TaskConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: " + e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
         } catch (Exception e) {
@@ -206,6 +258,8 @@ public class TaskController {
             Task task = taskService.approveTask(id, currentUser);
             
             return ResponseEntity.ok(task);
+        } catch (TaskConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: " + e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
         } catch (Exception e) {
@@ -231,6 +285,8 @@ public class TaskController {
             
             Task task = taskService.rejectTask(id, rejectionReason, currentUser);
             return ResponseEntity.ok(task);
+        } catch (TaskConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: " + e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
         } catch (Exception e) {
@@ -258,6 +314,8 @@ public class TaskController {
             
             Task task = taskService.updateTaskStatus(id, taskStatus, currentUser);
             return ResponseEntity.ok(task);
+        } catch (TaskConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: " + e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
         } catch (Exception e) {
@@ -327,6 +385,21 @@ public class TaskController {
         }
     }
     
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('BUILDER') or hasRole('CONTRACTOR')")
+    public ResponseEntity<?> getTaskStats(Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            TaskStatsResponse stats = taskStatsService.getStats(currentUser);
+            
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            log.error("Error fetching task stats", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to fetch task stats"));
+        }
+    }
+    
     @GetMapping("/stats/count-by-status")
     @PreAuthorize("hasRole('BUILDER')")
     public ResponseEntity<?> getTaskCountByStatus(@RequestParam String status) {
@@ -339,7 +412,7 @@ public class TaskController {
                     .body(new MessageResponse("Error: Invalid status value"));
             }
             
-            long count = taskService.getTaskCountByStatus(taskStatus);
+            long count = taskStatsService.getGlobalStats().getByStatus().get(taskStatus.name());
             return ResponseEntity.ok(count);
         } catch (Exception e) {
             log.error("Error fetching task count", e);
@@ -0,0 +1,114 @@
+package com.constructpro.controller;
+
+import com.constructpro.dto.request.TaskTemplateRequest;
+import com.constructpro.dto.request.TemplateExpansionRequest;
+import com.constructpro.dto.response.MessageResponse;
+import com.constructpro.dto.response.TemplateExpansionResponse;
+import com.constructpro.entity.TaskTemplate;
+import com.constructpro.entity.User;
+import com.constructpro.service.TaskTemplateService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/task-templates")
+@RequiredArgsConstructor
+@Slf4j
+public class TaskTemplateController {
+
+    private final TaskTemplateService taskTemplateService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('BUILDER')")
+    public ResponseEntity<?> createTemplate(@Valid @RequestBody TaskTemplateRequest request,
+                                            Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            TaskTemplate template = taskTemplateService.createTemplate(request, currentUser);
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(template);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error creating task template", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to create task template"));
+        }
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('BUILDER')")
+    public ResponseEntity<?> getMyTemplates(Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            List<TaskTemplate> templates = taskTemplateService.getTemplatesByUser(currentUser);
+
+            return ResponseEntity.ok(templates);
+        } catch (Exception e) {
+            log.error("Error fetching task templates", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to fetch task templates"));
+        }
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('BUILDER')")
+    public ResponseEntity<?> getTemplate(@PathVariable Long id, Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            TaskTemplate template = taskTemplateService.getTemplate(id, currentUser);
+
+            return ResponseEntity.ok(template);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error fetching task template", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to fetch task template"));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('BUILDER')")
+    public ResponseEntity<?> deleteTemplate(@PathVariable Long id, Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            taskTemplateService.deleteTemplate(id, currentUser);
+
+            return ResponseEntity.ok(new MessageResponse("Task template deleted successfully"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error deleting task template", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to delete task template"));
+        }
+    }
+
+    @PostMapping("/{id}/expand")
+    @PreAuthorize("hasRole('BUILDER')")
+    public ResponseEntity<?> expandTemplate(@PathVariable Long id,
+                                            @Valid @RequestBody TemplateExpansionRequest request,
+                                            Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            TemplateExpansionResponse response = taskTemplateService.expandTemplate(id, request, currentUser);
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error expanding task template", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error: Failed to expand task template"));
+        }
+    }
+}
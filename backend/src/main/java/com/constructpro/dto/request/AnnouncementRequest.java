@@ -0,0 +1,17 @@
+package com.constructpro.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class AnnouncementRequest {
+    
+    @NotBlank(message = "Title is required")
+    @Size(max = 200, message = "Title must not exceed 200 characters")
+    private String title;
+    
+    @NotBlank(message = "Message is required")
+    @Size(max = 5000, message = "Message must not exceed 5000 characters")
+    private String message;
+}
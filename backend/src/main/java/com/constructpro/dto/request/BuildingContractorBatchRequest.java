@@ -0,0 +1,27 @@
+package com.constructpro.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BuildingContractorBatchRequest {
+    
+    @NotEmpty(message = "At least one assignment is required")
+    @Valid
+    private List<Assignment> assignments = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    public static class Assignment {
+        private Long buildingId;
+        private Long contractorId;
+        private String roleInProject;
+        private String notes;
+    }
+}
@@ -0,0 +1,20 @@
+package com.constructpro.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class BuildingLocationRequest {
+    
+    // Omit for a top-level location, normally a floor
+    private Long parentId;
+    
+    @NotBlank(message = "Location type is required")
+    private String type;
+    
+    @NotBlank(message = "Location name is required")
+    private String name;
+    
+    // Required for floors; zones and units take the floor of their parent
+    private Integer floorNumber;
+}
@@ -31,6 +31,10 @@ public class SignupRequest {
     @Size(max = 20, message = "Phone number must not exceed 20 characters")
     private String phoneNumber;
     
+    // IANA zone id for deadline reminders; the server's zone is used when omitted
+    @Size(max = 50, message = "Timezone must not exceed 50 characters")
+    private String timezone;
+    
     // Contractor-specific fields
     @Size(max = 100, message = "Specialization must not exceed 100 characters")
     private String specialization;
@@ -39,5 +39,8 @@ public class TaskCreateRequest {
     @NotNull(message = "Contractor ID is required")
     private Long contractorId;
     
+    // Optional floor, zone or unit of the building
+    private Long locationId;
+    
     private String[] dependencyTaskIds;
 }
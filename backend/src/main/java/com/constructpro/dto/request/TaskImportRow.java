@@ -0,0 +1,41 @@
+package com.constructpro.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class TaskImportRow {
+    
+    // Client-side key other rows in the same file can depend on
+    private String ref;
+    
+    private String name;
+    
+    private String description;
+    
+    private String type;
+    
+    private String priority;
+    
+    private Integer estimatedDurationDays;
+    
+    private BigDecimal estimatedCost;
+    
+    private LocalDate startDate;
+    
+    private LocalDate deadline;
+    
+    private Long buildingId;
+    
+    private Long contractorId;
+    
+    // Refs of rows in the same file, or ids of existing tasks
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    private List<String> dependsOn = new ArrayList<>();
+}
@@ -0,0 +1,59 @@
+package com.constructpro.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class TaskTemplateRequest {
+    
+    @NotBlank(message = "Template name is required")
+    private String name;
+    
+    private String description;
+    
+    @Valid
+    @NotEmpty(message = "Template must contain at least one item")
+    private List<Item> items = new ArrayList<>();
+    
+    @Data
+    public static class Item {
+        
+        @NotBlank(message = "Item key is required")
+        private String key;
+        
+        @NotBlank(message = "Item name is required")
+        private String name;
+        
+        private String description;
+        
+        @NotBlank(message = "Task type is required")
+        private String type;
+        
+        private String priority;
+        
+        @NotNull(message = "Start offset is required")
+        @PositiveOrZero(message = "Start offset must not be negative")
+        private Integer startOffsetDays;
+        
+        @NotNull(message = "Duration is required")
+        @Positive(message = "Duration must be positive")
+        private Integer durationDays;
+        
+        private BigDecimal estimatedCost;
+        
+        // Keys of other items in the same template; "dependsOn": null means none
+        @JsonSetter(nulls = Nulls.AS_EMPTY)
+        private List<String> dependsOn = new ArrayList<>();
+    }
+}
@@ -0,0 +1,41 @@
+package com.constructpro.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class TemplateExpansionRequest {
+    
+    @NotNull(message = "Building ID is required")
+    private Long buildingId;
+    
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+    
+    // Floor range; defaults to 1..building.totalFloors. Ignored when units are given.
+    private Integer fromFloor;
+    private Integer toFloor;
+    
+    // Optional unit labels to expand across instead of floors
+    private List<String> units;
+    
+    // Days between the start of consecutive floors or units
+    @PositiveOrZero(message = "Floor offset must not be negative")
+    private Integer floorOffsetDays = 0;
+    
+    // Make each item depend on the same item of the previous floor or unit
+    private boolean chainFloors;
+    
+    // Default contractor, and per task type overrides; "contractorsByType": null means none
+    private Long contractorId;
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    private Map<String, Long> contractorsByType = new HashMap<>();
+}
@@ -0,0 +1,14 @@
+package com.constructpro.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class TimezoneRequest {
+    
+    // IANA zone id, for example "America/Chicago"
+    @NotBlank(message = "Timezone is required")
+    @Size(max = 50, message = "Timezone must not exceed 50 characters")
+    private String timezone;
+}
@@ -0,0 +1,27 @@
+package com.constructpro.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BuildingContractorBatchResponse {
+    private int assigned;
+    private int failed;
+    private List<ItemResult> results = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private Long buildingId;
+        private Long contractorId;
+        private boolean success;
+        private Long assignmentId;
+        private String message;
+    }
+}
@@ -0,0 +1,43 @@
+package com.constructpro.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class BuildingDashboardResponse {
+    private int totalBuildings;
+    private long totalTasks;
+    private long overdueTasks;
+    private long unreadNotifications;
+    private List<BuildingSummary> buildings = new ArrayList<>();
+    private LocalDateTime generatedAt;
+    
+    @Data
+    @NoArgsConstructor
+    public static class BuildingSummary {
+        private Long id;
+        private String name;
+        private String status;
+        private LocalDate expectedCompletionDate;
+        private boolean overdue;
+        private long totalTasks;
+        private long overdueTasks;
+        private int completionPercentage;
+        private Map<String, Long> taskCountsByStatus;
+        private long mediaCount;
+        private long unreadNotifications;
+        private LocalDateTime latestActivityAt;
+        private BigDecimal estimatedBudget;
+        private BigDecimal actualCost;
+        private BigDecimal taskEstimatedCost;
+        private BigDecimal taskActualCost;
+    }
+}
@@ -1,12 +1,15 @@
 package com.constructpro.dto.response;
 
 import com.constructpro.entity.Building;
+import com.constructpro.entity.BuildingTaskCounters;
 import com.constructpro.entity.User;
 import lombok.Data;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Data
 public class BuildingResponse {
@@ -18,6 +21,8 @@ public class BuildingResponse {
     private String state;
     private String postalCode;
     private String country;
+    private Double latitude;
+    private Double longitude;
     private String type;
     private String status;
     private Integer totalFloors;
@@ -32,6 +37,15 @@ public class BuildingResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    // Task progress, from the building's task counters
+    private Long totalTasks;
+    private Long completedTasks;
+    private Long overdueTasks;
+    private Integer completionPercentage;
+    private Map<String, Long> taskCountsByStatus;
+    private BigDecimal taskEstimatedCost;
+    private BigDecimal taskActualCost;
+    
     @Data
     public static class UserSummary {
         private Long id;
@@ -63,6 +77,8 @@ public class BuildingResponse {
         response.setState(building.getState());
         response.setPostalCode(building.getPostalCode());
         response.setCountry(building.getCountry());
+        response.setLatitude(building.getLatitude());
+        response.setLongitude(building.getLongitude());
         response.setType(building.getType().name());
         response.setStatus(building.getStatus().name());
         response.setTotalFloors(building.getTotalFloors());
@@ -78,4 +94,23 @@ public class BuildingResponse {
         response.setUpdatedAt(building.getUpdatedAt());
         return response;
     }
+    
+    public static BuildingResponse fromBuilding(Building building, BuildingTaskCounters counters) {
+        BuildingResponse response = fromBuilding(building);
+        if (counters == null) {
+            counters = new BuildingTaskCounters(building.getId());
+        }
+        
+        response.setTotalTasks(counters.getTotalTasks());
+        response.setCompletedTasks(counters.getFinishedTasks());
+        response.setOverdueTasks(counters.getOverdueTasks());
+        response.setCompletionPercentage(counters.getCompletionPercentage());
+        response.setTaskEstimatedCost(counters.getEstimatedCost());
+        response.setTaskActualCost(counters.getActualCost());
+        
+        Map<String, Long> countsByStatus = new LinkedHashMap<>();
+        counters.getCountsByStatus().forEach((status, count) -> countsByStatus.put(status.name(), count));
+        response.setTaskCountsByStatus(countsByStatus);
+        return response;
+    }
 }
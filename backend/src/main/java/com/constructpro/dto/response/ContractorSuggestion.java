@@ -0,0 +1,17 @@
+package com.constructpro.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContractorSuggestion {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String specialization;
+    private int activeTaskCount;
+}
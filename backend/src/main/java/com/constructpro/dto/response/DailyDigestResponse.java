@@ -0,0 +1,43 @@
+package com.constructpro.dto.response;
+
+import com.constructpro.entity.DailyDigest;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class DailyDigestResponse {
+    private LocalDate digestDate;
+    private DailyDigest.Scope scope;
+    private long buildings;
+    private long openTasks;
+    private long overdueTasks;
+    private long dueThisWeek;
+    private long pendingApprovals;
+    private long stalledTasks;
+    private long overBudgetTasks;
+    private BigDecimal estimatedCost;
+    private BigDecimal actualCost;
+    private BigDecimal budgetDrift;
+    private LocalDateTime generatedAt;
+    
+    public static DailyDigestResponse fromDigest(DailyDigest digest) {
+        DailyDigestResponse response = new DailyDigestResponse();
+        response.setDigestDate(digest.getDigestDate());
+        response.setScope(digest.getScope());
+        response.setBuildings(digest.getBuildings());
+        response.setOpenTasks(digest.getOpenTasks());
+        response.setOverdueTasks(digest.getOverdueTasks());
+        response.setDueThisWeek(digest.getDueThisWeek());
+        response.setPendingApprovals(digest.getPendingApprovals());
+        response.setStalledTasks(digest.getStalledTasks());
+        response.setOverBudgetTasks(digest.getOverBudgetTasks());
+        response.setEstimatedCost(digest.getEstimatedCost());
+        response.setActualCost(digest.getActualCost());
+        response.setBudgetDrift(digest.getBudgetDrift());
+        response.setGeneratedAt(digest.getCreatedAt());
+        return response;
+    }
+}
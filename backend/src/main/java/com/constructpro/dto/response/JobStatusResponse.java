@@ -0,0 +1,39 @@
+package com.constructpro.dto.response;
+
+import com.constructpro.entity.JobLease;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class JobStatusResponse {
+    private String jobName;
+    private String leaseOwner;
+    private LocalDateTime leaseAcquiredAt;
+    private LocalDateTime leaseExpiresAt;
+    private boolean running;
+    private String lastRunNode;
+    private LocalDateTime lastStartedAt;
+    private LocalDateTime lastFinishedAt;
+    private Long lastDurationMs;
+    private String lastOutcome;
+    private long runCount;
+    
+    public static JobStatusResponse fromLease(JobLease lease, LocalDateTime now) {
+        JobStatusResponse response = new JobStatusResponse();
+        response.setJobName(lease.getJobName());
+        response.setLeaseOwner(lease.getOwner());
+        response.setLeaseAcquiredAt(lease.getAcquiredAt());
+        response.setLeaseExpiresAt(lease.getExpiresAt());
+        // Taken after the last recorded finish and not yet expired
+        response.setRunning(lease.getAcquiredAt() != null && lease.getExpiresAt().isAfter(now)
+            && (lease.getLastFinishedAt() == null || lease.getAcquiredAt().isAfter(lease.getLastFinishedAt())));
+        response.setLastRunNode(lease.getLastRunNode());
+        response.setLastStartedAt(lease.getLastStartedAt());
+        response.setLastFinishedAt(lease.getLastFinishedAt());
+        response.setLastDurationMs(lease.getLastDurationMs());
+        response.setLastOutcome(lease.getLastOutcome() != null ? lease.getLastOutcome().name() : null);
+        response.setRunCount(lease.getRunCount());
+        return response;
+    }
+}
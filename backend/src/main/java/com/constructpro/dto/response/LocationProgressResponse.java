@@ -0,0 +1,47 @@
+package com.constructpro.dto.response;
+
+import com.constructpro.entity.BuildingLocation;
+import com.constructpro.entity.TaskRollup;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class LocationProgressResponse {
+    private Long id;
+    private Long parentId;
+    private String type;
+    private String name;
+    private Integer floorNumber;
+    private int depth;
+    private long totalTasks;
+    private long finishedTasks;
+    private long cancelledTasks;
+    private long overdueTasks;
+    private int completionPercentage;
+    private BigDecimal estimatedCost;
+    private BigDecimal actualCost;
+    private List<LocationProgressResponse> children = new ArrayList<>();
+    
+    public static LocationProgressResponse fromLocation(BuildingLocation location) {
+        TaskRollup rollup = location.getRollup();
+        
+        LocationProgressResponse response = new LocationProgressResponse();
+        response.setId(location.getId());
+        response.setParentId(location.getParentId());
+        response.setType(location.getType().name());
+        response.setName(location.getName());
+        response.setFloorNumber(location.getFloorNumber());
+        response.setDepth(location.getDepth());
+        response.setTotalTasks(rollup.getTotalTasks());
+        response.setFinishedTasks(rollup.getFinishedTasks());
+        response.setCancelledTasks(rollup.getCancelledTasks());
+        response.setOverdueTasks(rollup.getOverdueTasks());
+        response.setCompletionPercentage(rollup.getCompletionPercentage());
+        response.setEstimatedCost(rollup.getEstimatedCost());
+        response.setActualCost(rollup.getActualCost());
+        return response;
+    }
+}
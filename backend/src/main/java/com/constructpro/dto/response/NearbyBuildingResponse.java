@@ -0,0 +1,13 @@
+package com.constructpro.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyBuildingResponse {
+    private BuildingResponse building;
+    private double distanceKm;
+}
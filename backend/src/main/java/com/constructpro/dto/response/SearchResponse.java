@@ -0,0 +1,31 @@
+package com.constructpro.dto.response;
+
+import com.constructpro.dto.PaginationInfo;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResponse {
+    private List<Hit> results = new ArrayList<>();
+    private PaginationInfo pagination;
+    // False when the pagination total is a lower bound
+    private boolean totalExact = true;
+    private long tookMs;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        private String type;
+        private String id;
+        private String title;
+        private String subtitle;
+        private float score;
+    }
+}
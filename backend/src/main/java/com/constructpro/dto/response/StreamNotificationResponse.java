@@ -0,0 +1,34 @@
+package com.constructpro.dto.response;
+
+import com.constructpro.entity.Notification;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A new notification as pushed over the event stream, with related entities reduced to their ids
+ */
+@Data
+public class StreamNotificationResponse {
+    private Long id;
+    private String type;
+    private String title;
+    private String message;
+    private String actionUrl;
+    private Long relatedTaskId;
+    private Long relatedBuildingId;
+    private LocalDateTime createdAt;
+    
+    public static StreamNotificationResponse fromNotification(Notification notification) {
+        StreamNotificationResponse response = new StreamNotificationResponse();
+        response.setId(notification.getId());
+        response.setType(notification.getType().name());
+        response.setTitle(notification.getTitle());
+        response.setMessage(notification.getMessage());
+        response.setActionUrl(notification.getActionUrl());
+        response.setRelatedTaskId(notification.getRelatedTask() != null ? notification.getRelatedTask().getId() : null);
+        response.setRelatedBuildingId(notification.getRelatedBuilding() != null ? notification.getRelatedBuilding().getId() : null);
+        response.setCreatedAt(notification.getCreatedAt());
+        return response;
+    }
+}
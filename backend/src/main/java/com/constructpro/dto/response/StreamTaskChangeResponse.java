@@ -0,0 +1,29 @@
+package com.constructpro.dto.response;
+
+import com.constructpro.event.TaskSnapshot;
+import lombok.Data;
+
+/**
+ * A task created, deleted or moved to another status, as pushed over the event stream
+ */
+@Data
+public class StreamTaskChangeResponse {
+    private Long taskId;
+    private Long buildingId;
+    private String previousStatus;
+    private String status;
+    private Integer progressPercentage;
+    private boolean deleted;
+    
+    public static StreamTaskChangeResponse fromSnapshots(TaskSnapshot before, TaskSnapshot after) {
+        TaskSnapshot current = after != null ? after : before;
+        StreamTaskChangeResponse response = new StreamTaskChangeResponse();
+        response.setTaskId(current.id());
+        response.setBuildingId(current.buildingId());
+        response.setPreviousStatus(before != null ? before.status().name() : null);
+        response.setStatus(after != null ? after.status().name() : null);
+        response.setProgressPercentage(after != null ? after.progressPercentage() : null);
+        response.setDeleted(after == null);
+        return response;
+    }
+}
@@ -0,0 +1,31 @@
+package com.constructpro.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class TaskImportResponse {
+    private int imported;
+    private List<Long> taskIds = new ArrayList<>();
+    private Map<String, Long> taskIdsByRef = new LinkedHashMap<>();
+    private List<RowError> errors = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String ref;
+        private String message;
+    }
+    
+    public void addError(int row, String ref, String message) {
+        errors.add(new RowError(row, ref, message));
+    }
+}
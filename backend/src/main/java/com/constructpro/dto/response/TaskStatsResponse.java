@@ -0,0 +1,35 @@
+package com.constructpro.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class TaskStatsResponse {
+    private String scope;
+    private long total;
+    private long overdue;
+    private Map<String, Long> byStatus = new LinkedHashMap<>();
+    private Map<String, Long> byPriority = new LinkedHashMap<>();
+    private Map<String, Long> byType = new LinkedHashMap<>();
+    private List<Group> groups = new ArrayList<>();
+    private LocalDateTime generatedAt;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Group {
+        private String status;
+        private String priority;
+        private String type;
+        private long count;
+        private long overdue;
+    }
+}
@@ -0,0 +1,18 @@
+package com.constructpro.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TemplateExpansionResponse {
+    private Long templateId;
+    private Long buildingId;
+    private int locations;
+    private int created;
+    private List<Long> taskIds;
+}
@@ -0,0 +1,80 @@
+package com.constructpro.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * One run of a chunked batch job: its checkpoint and counters, committed with every chunk so an
+ * interrupted run can resume after its last committed chunk
+ */
+@Entity
+@Table(name = "batch_job_runs", indexes = {
+    @Index(name = "idx_batch_job_runs_job", columnList = "job_name, id")
+})
+@Data
+@NoArgsConstructor
+public class BatchJobRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "batch_job_runs_seq")
+    @SequenceGenerator(name = "batch_job_runs_seq", sequenceName = "batch_job_runs_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private RunStatus status;
+
+    // Key of the last item in the last committed chunk
+    @Column(name = "checkpoint", nullable = false)
+    private long checkpoint;
+
+    @Column(name = "items_read", nullable = false)
+    private long itemsRead;
+
+    @Column(name = "items_written", nullable = false)
+    private long itemsWritten;
+
+    @Column(name = "chunks", nullable = false)
+    private long chunks;
+
+    // Starts at 1; incremented each time a failed or interrupted run is resumed
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // Failed attempts since the checkpoint last moved; at the limit the next attempt skips bad items
+    @ColumnDefault("0")
+    @Column(name = "failures_at_checkpoint", nullable = false)
+    private int failuresAtCheckpoint;
+
+    // Items whose write kept failing and were stepped over
+    @ColumnDefault("0")
+    @Column(name = "items_skipped", nullable = false)
+    private long itemsSkipped;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum RunStatus {
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        // Left unfinished by an earlier trigger and superseded by a fresh run
+        ABANDONED
+    }
+}
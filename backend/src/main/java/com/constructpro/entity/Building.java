@@ -22,8 +22,15 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
+@NamedEntityGraph(name = Building.WITH_USERS, attributeNodes = {
+    @NamedAttributeNode("createdBy"),
+    @NamedAttributeNode("projectManager")
+})
 public class Building {
     
+    // Loads the users that BuildingResponse summarizes in the same statement as the buildings
+    public static final String WITH_USERS = "Building.withUsers";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -51,6 +58,13 @@ public class Building {
     @Column(name = "country")
     private String country;
     
+    // WGS84 coordinates, entered by the builder or looked up from the postal code
+    @Column(name = "latitude")
+    private Double latitude;
+    
+    @Column(name = "longitude")
+    private Double longitude;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private BuildingType type;
@@ -106,31 +120,13 @@ public class Building {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
-    // Helper methods
-    public int getCompletionPercentage() {
-        if (tasks.isEmpty()) {
-            return 0;
-        }
-        
-        long completedTasks = tasks.stream()
-                .filter(task -> task.getStatus() == Task.TaskStatus.COMPLETED)
-                .count();
-        
-        return (int) ((completedTasks * 100.0) / tasks.size());
-    }
-    
+    // Helper methods (task totals live in BuildingTaskCounters so these never load the tasks collection)
     public boolean isOverdue() {
         return expectedCompletionDate != null && 
                LocalDate.now().isAfter(expectedCompletionDate) && 
                status != ProjectStatus.COMPLETED;
     }
     
-    public long getOverdueTasks() {
-        return tasks.stream()
-                .filter(Task::isOverdue)
-                .count();
-    }
-    
     public enum BuildingType {
         RESIDENTIAL, COMMERCIAL, INDUSTRIAL, MIXED_USE, INFRASTRUCTURE
     }
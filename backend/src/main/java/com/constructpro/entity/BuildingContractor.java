@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class BuildingContractor {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "building_contractors_seq")
+    @SequenceGenerator(name = "building_contractors_seq", sequenceName = "building_contractors_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,99 @@
+package com.constructpro.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A floor, zone or unit inside a building. Locations form a tree under the building and each
+ * one keeps the task totals of its whole subtree, so a floor's progress is read from one row.
+ */
+@Entity
+@Table(name = "building_locations", indexes = {
+    @Index(name = "idx_building_locations_floor", columnList = "building_id, floor_number"),
+    @Index(name = "idx_building_locations_path", columnList = "path")
+})
+@Data
+@NoArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class BuildingLocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "building_locations_seq")
+    @SequenceGenerator(name = "building_locations_seq", sequenceName = "building_locations_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "building_id", nullable = false)
+    @JsonIgnore
+    private Building building;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id")
+    @JsonIgnore
+    private BuildingLocation parent;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LocationType type;
+
+    @Column(nullable = false)
+    private String name;
+
+    // Floor the location is on; set on floors and copied to everything beneath them
+    @Column(name = "floor_number")
+    private Integer floorNumber;
+
+    // Ids from the root down to this location, e.g. "/12/40/", so ancestors are known without walking parents
+    @Column(nullable = false)
+    private String path = "/";
+
+    @Column(nullable = false)
+    private int depth;
+
+    @Embedded
+    private TaskRollup rollup = new TaskRollup();
+
+    // Day the overdue count was computed for; tasks become overdue without being written
+    @Column(name = "overdue_as_of")
+    private LocalDate overdueAsOf;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Helper methods
+    public Long getParentId() {
+        return parent != null ? parent.getId() : null;
+    }
+
+    // Ids from the root down to and including this location
+    public List<Long> getPathIds() {
+        return parsePath(path);
+    }
+
+    public static List<Long> parsePath(String path) {
+        List<Long> ids = new ArrayList<>();
+        for (String part : path.split("/")) {
+            if (!part.isEmpty()) {
+                ids.add(Long.valueOf(part));
+            }
+        }
+        return ids;
+    }
+
+    public enum LocationType {
+        FLOOR, ZONE, UNIT
+    }
+}
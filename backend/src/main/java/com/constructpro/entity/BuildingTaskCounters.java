@@ -0,0 +1,131 @@
+package com.constructpro.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Task totals for one building, maintained incrementally as tasks change so building
+ * lists can show progress without loading every task
+ */
+@Entity
+@Table(name = "building_task_counters")
+@Data
+@NoArgsConstructor
+public class BuildingTaskCounters {
+
+    @Id
+    @Column(name = "building_id")
+    private Long buildingId;
+
+    @Column(name = "total_tasks", nullable = false)
+    private long totalTasks;
+
+    @Column(name = "assigned_tasks", nullable = false)
+    private long assignedTasks;
+
+    @Column(name = "in_progress_tasks", nullable = false)
+    private long inProgressTasks;
+
+    @Column(name = "completed_tasks", nullable = false)
+    private long completedTasks;
+
+    @Column(name = "approved_tasks", nullable = false)
+    private long approvedTasks;
+
+    @Column(name = "rejected_tasks", nullable = false)
+    private long rejectedTasks;
+
+    @Column(name = "on_hold_tasks", nullable = false)
+    private long onHoldTasks;
+
+    @Column(name = "cancelled_tasks", nullable = false)
+    private long cancelledTasks;
+
+    @Column(name = "overdue_tasks", nullable = false)
+    private long overdueTasks;
+
+    // Day the overdue count was computed for; tasks become overdue without being written
+    @Column(name = "overdue_as_of")
+    private LocalDate overdueAsOf;
+
+    // Sum of task progress, counting completed and approved tasks as 100 and skipping cancelled ones
+    @Column(name = "progress_points", nullable = false)
+    private long progressPoints;
+
+    @Column(name = "estimated_cost", nullable = false)
+    private BigDecimal estimatedCost = BigDecimal.ZERO;
+
+    @Column(name = "actual_cost", nullable = false)
+    private BigDecimal actualCost = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public BuildingTaskCounters(Long buildingId) {
+        this.buildingId = buildingId;
+    }
+
+    // Helper methods
+    public int getCompletionPercentage() {
+        long countedTasks = totalTasks - cancelledTasks;
+        if (countedTasks <= 0) {
+            return 0;
+        }
+        return (int) Math.min(100, progressPoints / countedTasks);
+    }
+
+    public long getFinishedTasks() {
+        return completedTasks + approvedTasks;
+    }
+
+    public Map<Task.TaskStatus, Long> getCountsByStatus() {
+        Map<Task.TaskStatus, Long> counts = new EnumMap<>(Task.TaskStatus.class);
+        for (Task.TaskStatus status : Task.TaskStatus.values()) {
+            counts.put(status, getCount(status));
+        }
+        return counts;
+    }
+
+    public long getCount(Task.TaskStatus status) {
+        return switch (status) {
+            case ASSIGNED -> assignedTasks;
+            case IN_PROGRESS -> inProgressTasks;
+            case COMPLETED -> completedTasks;
+            case APPROVED -> approvedTasks;
+            case REJECTED -> rejectedTasks;
+            case ON_HOLD -> onHoldTasks;
+            case CANCELLED -> cancelledTasks;
+        };
+    }
+
+    public void adjustCount(Task.TaskStatus status, long delta) {
+        switch (status) {
+            case ASSIGNED -> assignedTasks += delta;
+            case IN_PROGRESS -> inProgressTasks += delta;
+            case COMPLETED -> completedTasks += delta;
+            case APPROVED -> approvedTasks += delta;
+            case REJECTED -> rejectedTasks += delta;
+            case ON_HOLD -> onHoldTasks += delta;
+            case CANCELLED -> cancelledTasks += delta;
+        }
+        totalTasks += delta;
+    }
+
+    public void reset() {
+        for (Task.TaskStatus status : Task.TaskStatus.values()) {
+            adjustCount(status, -getCount(status));
+        }
+        totalTasks = 0;
+        overdueTasks = 0;
+        progressPoints = 0;
+        estimatedCost = BigDecimal.ZERO;
+        actualCost = BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,93 @@
+package com.constructpro.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of one recipient's projects on one day, written by the daily digest job so the
+ * dashboard can show it without recomputing. {@link Scope#OWN} digests cover the buildings the
+ * recipient created or manages; admins also get an {@link Scope#ALL_BUILDINGS} rollup of every
+ * building.
+ */
+@Entity
+@Table(name = "daily_digests", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_daily_digests_user_date_scope", columnNames = {"user_id", "digest_date", "scope"})
+}, indexes = {
+    @Index(name = "idx_daily_digests_date", columnList = "digest_date")
+})
+@Data
+@NoArgsConstructor
+public class DailyDigest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_digests_seq")
+    @SequenceGenerator(name = "daily_digests_seq", sequenceName = "daily_digests_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "digest_date", nullable = false)
+    private LocalDate digestDate;
+
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'OWN'")
+    @Column(name = "scope", nullable = false, length = 20)
+    private Scope scope = Scope.OWN;
+
+    // Buildings with at least one task that is not cancelled
+    @Column(name = "buildings", nullable = false)
+    private long buildings;
+
+    @Column(name = "open_tasks", nullable = false)
+    private long openTasks;
+
+    @Column(name = "overdue_tasks", nullable = false)
+    private long overdueTasks;
+
+    // Open tasks due from the digest date through the following six days
+    @Column(name = "due_this_week", nullable = false)
+    private long dueThisWeek;
+
+    // Completed tasks waiting for approval
+    @Column(name = "pending_approvals", nullable = false)
+    private long pendingApprovals;
+
+    // In-progress tasks not updated within the stalled threshold
+    @Column(name = "stalled_tasks", nullable = false)
+    private long stalledTasks;
+
+    @Column(name = "over_budget_tasks", nullable = false)
+    private long overBudgetTasks;
+
+    @Column(name = "estimated_cost", nullable = false)
+    private BigDecimal estimatedCost = BigDecimal.ZERO;
+
+    @Column(name = "actual_cost", nullable = false)
+    private BigDecimal actualCost = BigDecimal.ZERO;
+
+    // Actual minus estimated cost over the tasks that have an actual cost recorded
+    @Column(name = "budget_drift", nullable = false)
+    private BigDecimal budgetDrift = BigDecimal.ZERO;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Helper methods
+    public boolean needsAttention() {
+        return overdueTasks > 0 || dueThisWeek > 0 || pendingApprovals > 0 || stalledTasks > 0 || overBudgetTasks > 0;
+    }
+
+    public enum Scope {
+        // Buildings the recipient created or manages
+        OWN,
+        // Every building, for admins
+        ALL_BUILDINGS
+    }
+}
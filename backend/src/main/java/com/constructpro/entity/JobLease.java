@@ -0,0 +1,80 @@
+package com.constructpro.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease on a cluster-wide scheduled job, plus a record of its last run. The node named in
+ * {@code owner} may run the job until {@code expiresAt}; after that any node may take it over.
+ */
+@Entity
+@Table(name = "job_leases")
+@Data
+@NoArgsConstructor
+public class JobLease implements Persistable<String> {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "owner", length = 200)
+    private String owner;
+
+    @Column(name = "acquired_at")
+    private LocalDateTime acquiredAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "last_run_node", length = 200)
+    private String lastRunNode;
+
+    @Column(name = "last_started_at")
+    private LocalDateTime lastStartedAt;
+
+    @Column(name = "last_finished_at")
+    private LocalDateTime lastFinishedAt;
+
+    @Column(name = "last_duration_ms")
+    private Long lastDurationMs;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_outcome", length = 20)
+    private RunOutcome lastOutcome;
+
+    @Column(name = "run_count", nullable = false)
+    private long runCount;
+
+    // Lets save() insert instead of merging, so two nodes creating the same lease collide on the key
+    @Transient
+    @JsonIgnore
+    private boolean created;
+
+    public JobLease(String jobName, LocalDateTime expiresAt) {
+        this.jobName = jobName;
+        this.expiresAt = expiresAt;
+        this.created = true;
+    }
+
+    @Override
+    @JsonIgnore
+    public String getId() {
+        return jobName;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return created;
+    }
+
+    public enum RunOutcome {
+        SUCCEEDED,
+        FAILED
+    }
+}
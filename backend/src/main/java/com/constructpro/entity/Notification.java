@@ -11,7 +11,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,7 +21,8 @@ import java.time.LocalDateTime;
 public class Notification {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -91,11 +94,14 @@ public class Notification {
         TASK_APPROVED,
         TASK_REJECTED,
         TASK_OVERDUE,
+        TASK_UNBLOCKED,
         DEADLINE_REMINDER,
         NEW_BUILDING_CREATED,
         CONTRACTOR_ASSIGNED,
         SYSTEM_UPDATE,
         APPROVAL_REQUEST,
-        PROGRESS_UPDATE
+        PROGRESS_UPDATE,
+        DAILY_DIGEST,
+        BUILDING_ANNOUNCEMENT
     }
 }
@@ -0,0 +1,34 @@
+package com.constructpro.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user's "read up to" watermark. Notifications created at or before {@code readUpTo} count as
+ * read whatever their own flag says, so marking everything read is a single-row write. The
+ * per-notification flag still records notifications read one at a time, and compaction later
+ * copies the watermark onto the rows it covers.
+ */
+@Entity
+@Table(name = "notification_read_states")
+@Data
+@NoArgsConstructor
+public class NotificationReadState {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "read_up_to", nullable = false)
+    private LocalDateTime readUpTo;
+
+    // Watermark already copied onto the notification rows; null until the first compaction
+    @Column(name = "compacted_up_to")
+    private LocalDateTime compactedUpTo;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,7 @@
 package com.constructpro.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -13,6 +15,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,9 +28,14 @@ import java.util.List;
 public class Task {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
     
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+    
     @NotBlank(message = "Task name is required")
     @Column(nullable = false)
     private String name;
@@ -86,6 +94,12 @@ public class Task {
     @JoinColumn(name = "building_id", nullable = false)
     private Building building;
     
+    // Optional floor, zone or unit within the building
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "location_id")
+    @JsonIgnore
+    private BuildingLocation location;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_contractor_id", nullable = false)
     private User assignedContractor;
@@ -119,8 +133,18 @@ public class Task {
     private LocalDateTime updatedAt;
     
     // Helper methods
+    @JsonProperty("locationId")
+    public Long getLocationId() {
+        return location != null ? location.getId() : null;
+    }
+    
     public boolean isOverdue() {
-        return LocalDate.now().isAfter(deadline) && 
+        return isOverdue(ZoneId.systemDefault());
+    }
+    
+    // Overdue by the calendar of the given zone, such as the assigned contractor's
+    public boolean isOverdue(ZoneId zone) {
+        return LocalDate.now(zone).isAfter(deadline) && 
                status != TaskStatus.COMPLETED && 
                status != TaskStatus.APPROVED;
     }
@@ -130,10 +154,14 @@ public class Task {
     }
     
     public long getDaysOverdue() {
-        if (!isOverdue()) {
+        return getDaysOverdue(ZoneId.systemDefault());
+    }
+    
+    public long getDaysOverdue(ZoneId zone) {
+        if (!isOverdue(zone)) {
             return 0;
         }
-        return deadline.until(LocalDate.now()).getDays();
+        return deadline.until(LocalDate.now(zone)).getDays();
     }
     
     public boolean canStart() {
@@ -0,0 +1,52 @@
+package com.constructpro.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Ledger of deadline notifications already sent. One row per task and transition records the
+ * deadline it fired for, so each transition is sent once per deadline, however often it is checked.
+ */
+@Entity
+@Table(name = "task_deadline_events")
+@IdClass(TaskDeadlineEvent.Key.class)
+@Data
+@NoArgsConstructor
+public class TaskDeadlineEvent {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transition", length = 20)
+    private Transition transition;
+
+    @Column(name = "deadline", nullable = false)
+    private LocalDate deadline;
+
+    @Column(name = "fired_at", nullable = false)
+    private LocalDateTime firedAt;
+
+    public enum Transition {
+        DUE_IN_3_DAYS,
+        DUE_IN_1_DAY,
+        DUE_TODAY,
+        OVERDUE
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long taskId;
+        private Transition transition;
+    }
+}
@@ -0,0 +1,65 @@
+package com.constructpro.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Task totals summed over a subtree of building locations
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+public class TaskRollup {
+
+    @Column(name = "total_tasks", nullable = false)
+    private long totalTasks;
+
+    // Completed or approved
+    @Column(name = "finished_tasks", nullable = false)
+    private long finishedTasks;
+
+    @Column(name = "cancelled_tasks", nullable = false)
+    private long cancelledTasks;
+
+    @Column(name = "overdue_tasks", nullable = false)
+    private long overdueTasks;
+
+    // Same weighting as BuildingTaskCounters.progressPoints
+    @Column(name = "progress_points", nullable = false)
+    private long progressPoints;
+
+    @Column(name = "estimated_cost", nullable = false)
+    private BigDecimal estimatedCost = BigDecimal.ZERO;
+
+    @Column(name = "actual_cost", nullable = false)
+    private BigDecimal actualCost = BigDecimal.ZERO;
+
+    // Helper methods
+    public int getCompletionPercentage() {
+        long countedTasks = totalTasks - cancelledTasks;
+        if (countedTasks <= 0) {
+            return 0;
+        }
+        return (int) Math.min(100, progressPoints / countedTasks);
+    }
+
+    public void add(TaskRollup other, boolean includeOverdue) {
+        totalTasks += other.totalTasks;
+        finishedTasks += other.finishedTasks;
+        cancelledTasks += other.cancelledTasks;
+        progressPoints += other.progressPoints;
+        estimatedCost = estimatedCost.add(other.estimatedCost);
+        actualCost = actualCost.add(other.actualCost);
+        if (includeOverdue) {
+            overdueTasks += other.overdueTasks;
+        }
+    }
+
+    public boolean isEmpty() {
+        return totalTasks == 0;
+    }
+}
@@ -0,0 +1,72 @@
+package com.constructpro.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "task_template_items")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTemplateItem {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "template_id", nullable = false)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private TaskTemplate template;
+    
+    // Key used by other items of the same template to declare dependencies
+    @NotBlank(message = "Item key is required")
+    @Column(name = "item_key", nullable = false)
+    private String key;
+    
+    // May contain {floor}, replaced by the floor number or unit label on expansion
+    @NotBlank(message = "Item name is required")
+    @Column(nullable = false)
+    private String name;
+    
+    @Column(columnDefinition = "TEXT")
+    private String description;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Task.TaskType type;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Task.Priority priority = Task.Priority.MEDIUM;
+    
+    // Days after the start of the floor or unit
+    @Column(name = "start_offset_days", nullable = false)
+    private Integer startOffsetDays = 0;
+    
+    @Column(name = "duration_days", nullable = false)
+    private Integer durationDays = 1;
+    
+    @Column(name = "estimated_cost")
+    private BigDecimal estimatedCost;
+    
+    @Column(nullable = false)
+    private Integer position = 0;
+    
+    @ElementCollection
+    @CollectionTable(name = "task_template_item_dependencies", joinColumns = @JoinColumn(name = "template_item_id"))
+    @Column(name = "depends_on_key")
+    private List<String> dependsOn = new ArrayList<>();
+}
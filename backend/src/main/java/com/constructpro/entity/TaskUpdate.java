@@ -21,7 +21,8 @@ import java.util.List;
 public class TaskUpdate {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_updates_seq")
+    @SequenceGenerator(name = "task_updates_seq", sequenceName = "task_updates_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -43,6 +44,13 @@ public class TaskUpdate {
     @Column(name = "progress_percentage")
     private Integer progressPercentage;
     
+    // Progress before the first of the merged updates, for coalesced progress entries
+    @Column(name = "previous_progress_percentage")
+    private Integer previousProgressPercentage;
+    
+    @Column(name = "coalesced_updates")
+    private Integer coalescedUpdates;
+    
     @Column(name = "hours_worked")
     private Double hoursWorked;
     
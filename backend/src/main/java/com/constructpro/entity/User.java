@@ -7,6 +7,7 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -14,7 +15,9 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Collection;
 import java.util.List;
 
@@ -79,6 +82,17 @@ public class User implements UserDetails {
     @Column(name = "certification_details", columnDefinition = "TEXT")
     private String certificationDetails;
     
+    // IANA zone id such as "Europe/Berlin"; reminders fall back to the server's zone when unset
+    @Column(name = "timezone", length = 50)
+    private String timezone;
+    
+    // Bumped whenever the buildings the user manages, is assigned to or has tasks in change, so
+    // every node can tell its cached access for the user is stale; written only by bulk update
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "access_version", nullable = false, insertable = false, updatable = false)
+    private long accessVersion;
+    
     // Constructor for basic user creation
     public User(String email, String password, String firstName, String lastName, Role role) {
         this.email = email;
@@ -131,6 +145,22 @@ public class User implements UserDetails {
         return firstName + " " + lastName;
     }
     
+    @JsonIgnore
+    public ZoneId getZoneId() {
+        return zoneOf(timezone);
+    }
+    
+    public static ZoneId zoneOf(String timezone) {
+        if (timezone == null || timezone.isBlank()) {
+            return ZoneId.systemDefault();
+        }
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            return ZoneId.systemDefault();
+        }
+    }
+    
     public enum Role {
         ADMIN,      // Manages Builder accounts (CRUD operations)
         BUILDER,    // Project Owner - creates buildings, assigns contractors, manages tasks
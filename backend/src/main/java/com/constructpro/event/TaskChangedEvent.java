@@ -0,0 +1,13 @@
+package com.constructpro.event;
+
+/**
+ * Published when a task is created, changed or deleted. {@code before} is null for a new task
+ * and {@code after} is null for a deleted one. Listeners that keep derived state should react
+ * after commit.
+ */
+public record TaskChangedEvent(TaskSnapshot before, TaskSnapshot after) {
+    
+    public Long taskId() {
+        return after != null ? after.id() : before.id();
+    }
+}
@@ -0,0 +1,60 @@
+package com.constructpro.event;
+
+import com.constructpro.entity.Task;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The fields of a task that listeners aggregate on, captured before or after a change
+ */
+public record TaskSnapshot(
+    Long id,
+    Long buildingId,
+    Long buildingOwnerId,
+    Long locationId,
+    Long contractorId,
+    Task.TaskStatus status,
+    Task.Priority priority,
+    Task.TaskType type,
+    LocalDate deadline,
+    Integer progressPercentage,
+    BigDecimal estimatedCost,
+    BigDecimal actualCost
+) {
+    
+    public boolean isOverdue(LocalDate today) {
+        return deadline != null && deadline.isBefore(today)
+            && status != Task.TaskStatus.COMPLETED
+            && status != Task.TaskStatus.APPROVED
+            && status != Task.TaskStatus.CANCELLED;
+    }
+    
+    /**
+     * Contribution to the building's progress: finished tasks count in full, cancelled ones not at all
+     */
+    public long progressPoints() {
+        return switch (status) {
+            case COMPLETED, APPROVED -> 100;
+            case CANCELLED -> 0;
+            default -> progressPercentage != null ? progressPercentage : 0;
+        };
+    }
+    
+    public static TaskSnapshot of(Task task) {
+        return new TaskSnapshot(
+            task.getId(),
+            task.getBuilding().getId(),
+            task.getBuilding().getCreatedBy().getId(),
+            task.getLocation() != null ? task.getLocation().getId() : null,
+            task.getAssignedContractor().getId(),
+            task.getStatus(),
+            task.getPriority(),
+            task.getType(),
+            task.getDeadline(),
+            task.getProgressPercentage(),
+            task.getEstimatedCost(),
+            task.getActualCost()
+        );
+    }
+}
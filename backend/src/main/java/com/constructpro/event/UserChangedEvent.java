@@ -0,0 +1,13 @@
+package com.constructpro.event;
+
+import com.constructpro.entity.User;
+
+/**
+ * Published when a user account is created, updated, deactivated or deleted
+ */
+public record UserChangedEvent(User user, boolean deleted) {
+    
+    public UserChangedEvent(User user) {
+        this(user, false);
+    }
+}
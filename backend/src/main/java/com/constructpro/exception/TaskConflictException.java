@@ -0,0 +1,16 @@
+package com.constructpro.exception;
+
+/**
+ * Thrown when a task was changed by someone else between reading and writing it.
+ * Mapped to 409 Conflict so clients can reload the task and retry.
+ */
+public class TaskConflictException extends RuntimeException {
+    
+    public TaskConflictException(String message) {
+        super(message);
+    }
+    
+    public TaskConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
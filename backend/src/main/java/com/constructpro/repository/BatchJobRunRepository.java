@@ -0,0 +1,13 @@
+package com.constructpro.repository;
+
+import com.constructpro.entity.BatchJobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BatchJobRunRepository extends JpaRepository<BatchJobRun, Long> {
+    
+    Optional<BatchJobRun> findFirstByJobNameOrderByIdDesc(String jobName);
+}
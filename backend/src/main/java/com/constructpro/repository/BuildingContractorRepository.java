@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,4 +38,18 @@ public interface BuildingContractorRepository extends JpaRepository<BuildingCont
     long countActiveBuildingsByContractor(@Param("contractor") User contractor);
     
     boolean existsByBuildingAndContractorAndIsActiveTrue(Building building, User contractor);
+    
+    @Query("SELECT bc.building.id, bc.contractor.id FROM BuildingContractor bc WHERE bc.isActive = true AND bc.building.id IN :buildingIds")
+    List<Object[]> findActiveContractorIdsByBuildingIds(@Param("buildingIds") Collection<Long> buildingIds);
+    
+    @Query("SELECT bc.contractor.id FROM BuildingContractor bc WHERE bc.building.id = :buildingId AND bc.isActive = true")
+    List<Long> findActiveContractorIdsByBuildingId(@Param("buildingId") Long buildingId);
+    
+    @Query("SELECT bc.building.id FROM BuildingContractor bc WHERE bc.contractor.id = :contractorId AND bc.isActive = true")
+    List<Long> findActiveBuildingIdsByContractorId(@Param("contractorId") Long contractorId);
+    
+    @Query("SELECT bc.building.id, bc.contractor.id FROM BuildingContractor bc WHERE bc.isActive = true " +
+           "AND bc.building.id IN :buildingIds AND bc.contractor.id IN :contractorIds")
+    List<Object[]> findActivePairs(@Param("buildingIds") Collection<Long> buildingIds,
+                                   @Param("contractorIds") Collection<Long> contractorIds);
 }
@@ -0,0 +1,49 @@
+package com.constructpro.repository;
+
+import com.constructpro.entity.BuildingLocation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BuildingLocationRepository extends JpaRepository<BuildingLocation, Long> {
+    
+    List<BuildingLocation> findByBuildingIdOrderByDepthAscIdAsc(Long buildingId);
+    
+    // A floor and everything beneath it
+    List<BuildingLocation> findByBuildingIdAndFloorNumberOrderByDepthAscIdAsc(Long buildingId, Integer floorNumber);
+    
+    List<BuildingLocation> findByBuildingIdAndTypeOrderByFloorNumberAsc(Long buildingId, BuildingLocation.LocationType type);
+    
+    boolean existsByParentId(Long parentId);
+    
+    boolean existsByBuildingIdAndTypeAndFloorNumber(Long buildingId, BuildingLocation.LocationType type, Integer floorNumber);
+    
+    @Query("SELECT l.id, l.path FROM BuildingLocation l WHERE l.id IN :locationIds")
+    List<Object[]> findPaths(@Param("locationIds") Collection<Long> locationIds);
+    
+    // Rows are locked in id order so concurrent writers cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM BuildingLocation l WHERE l.id IN :locationIds ORDER BY l.id")
+    List<BuildingLocation> findAllByIdsForUpdate(@Param("locationIds") Collection<Long> locationIds);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM BuildingLocation l WHERE l.building.id IN :buildingIds ORDER BY l.id")
+    List<BuildingLocation> findAllByBuildingIdsForUpdate(@Param("buildingIds") Collection<Long> buildingIds);
+    
+    // One statement, so parent and child rows are removed together
+    @Modifying
+    @Query("DELETE FROM BuildingLocation l WHERE l.building.id = :buildingId")
+    void deleteAllByBuildingId(@Param("buildingId") Long buildingId);
+    
+    @Query("SELECT DISTINCT l.building.id FROM BuildingLocation l WHERE l.building.id > :afterId ORDER BY l.building.id")
+    List<Long> findBuildingIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -2,13 +2,17 @@ package com.constructpro.repository;
 
 import com.constructpro.entity.Building;
 import com.constructpro.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BuildingRepository extends JpaRepository<Building, Long> {
@@ -21,15 +25,18 @@ public interface BuildingRepository extends JpaRepository<Building, Long> {
     
     List<Building> findByType(Building.BuildingType type);
     
+    @EntityGraph(Building.WITH_USERS)
     @Query("SELECT b FROM Building b WHERE b.createdBy = :user OR b.projectManager = :user")
     List<Building> findBuildingsByUser(@Param("user") User user);
     
+    @EntityGraph(Building.WITH_USERS)
     @Query("SELECT b FROM Building b WHERE " +
            "LOWER(b.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(b.address) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(b.city) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<Building> searchBuildings(@Param("searchTerm") String searchTerm);
     
+    @EntityGraph(Building.WITH_USERS)
     @Query("SELECT b FROM Building b WHERE b.expectedCompletionDate < :currentDate AND b.status != 'COMPLETED'")
     List<Building> findOverdueBuildings(@Param("currentDate") LocalDate currentDate);
     
@@ -42,16 +49,40 @@ public interface BuildingRepository extends JpaRepository<Building, Long> {
     @Query("SELECT COUNT(b) FROM Building b WHERE b.status = :status")
     long countBuildingsByStatus(@Param("status") Building.ProjectStatus status);
     
-    @Query("SELECT b FROM Building b JOIN b.buildingContractors bc WHERE bc.contractor = :contractor AND bc.isActive = true")
+    @EntityGraph(Building.WITH_USERS)
+    @Query("SELECT DISTINCT b FROM Building b JOIN b.buildingContractors bc WHERE bc.contractor = :contractor AND bc.isActive = true")
     List<Building> findBuildingsByContractor(@Param("contractor") User contractor);
     
+    @EntityGraph(Building.WITH_USERS)
     @Query("SELECT b FROM Building b WHERE b.status IN ('PLANNING', 'IN_PROGRESS') ORDER BY b.expectedCompletionDate ASC")
     List<Building> findActiveBuildingsOrderByDeadline();
     
+    @EntityGraph(Building.WITH_USERS)
     @Query("SELECT b FROM Building b WHERE b.createdBy.role = 'ADMIN' ORDER BY b.createdAt DESC")
     List<Building> findAllBuildingsOrderByCreatedAt();
 
 	@Query(value = "SELECT AVG(EXTRACT(DAY FROM actual_completion_date - start_date)) FROM building WHERE actual_completion_date IS NOT NULL", nativeQuery = true)
 	Double getAverageProjectDuration();
-
+    
+    List<Building> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+    
+    @Query("SELECT b.id FROM Building b WHERE b.id > :afterId ORDER BY b.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT b.id FROM Building b WHERE NOT EXISTS " +
+           "(SELECT c FROM BuildingTaskCounters c WHERE c.buildingId = b.id) ORDER BY b.id")
+    List<Long> findIdsWithoutTaskCounters();
+    
+    @Query("SELECT b.createdBy.id FROM Building b WHERE b.id = :buildingId")
+    Optional<Long> findCreatorIdById(@Param("buildingId") Long buildingId);
+    
+    @Query("SELECT b.id FROM Building b WHERE b.projectManager.id = :userId")
+    List<Long> findIdsByProjectManagerId(@Param("userId") Long userId);
+    
+    @Query("SELECT b.id, b.latitude, b.longitude FROM Building b WHERE b.latitude IS NOT NULL AND b.longitude IS NOT NULL")
+    List<Object[]> findAllCoordinates();
+    
+    @EntityGraph(Building.WITH_USERS)
+    @Query("SELECT b FROM Building b WHERE b.id IN :ids")
+    List<Building> findAllWithUsersByIdIn(@Param("ids") Collection<Long> ids);
 }
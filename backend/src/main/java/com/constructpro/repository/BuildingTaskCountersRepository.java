@@ -0,0 +1,44 @@
+package com.constructpro.repository;
+
+import com.constructpro.entity.BuildingTaskCounters;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BuildingTaskCountersRepository extends JpaRepository<BuildingTaskCounters, Long> {
+    
+    /**
+     * Create empty rows for the buildings that have none. Rows created concurrently by another
+     * transaction are left alone, so callers can lock the rows afterwards either way.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO building_task_counters (building_id, total_tasks, assigned_tasks, in_progress_tasks, " +
+                   "completed_tasks, approved_tasks, rejected_tasks, on_hold_tasks, cancelled_tasks, overdue_tasks, " +
+                   "overdue_as_of, progress_points, estimated_cost, actual_cost, updated_at) " +
+                   "SELECT b.id, 0, 0, 0, 0, 0, 0, 0, 0, 0, :overdueAsOf, 0, 0, 0, :updatedAt FROM buildings b " +
+                   "WHERE b.id IN (:buildingIds) ORDER BY b.id " +
+                   "ON CONFLICT (building_id) DO NOTHING", nativeQuery = true)
+    int insertMissing(@Param("buildingIds") Collection<Long> buildingIds,
+                      @Param("overdueAsOf") LocalDate overdueAsOf,
+                      @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM BuildingTaskCounters c WHERE c.buildingId = :buildingId")
+    Optional<BuildingTaskCounters> findByIdForUpdate(@Param("buildingId") Long buildingId);
+    
+    // Rows are locked in id order so concurrent reconciliations cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM BuildingTaskCounters c WHERE c.buildingId IN :buildingIds ORDER BY c.buildingId")
+    List<BuildingTaskCounters> findAllByIdsForUpdate(@Param("buildingIds") Collection<Long> buildingIds);
+}
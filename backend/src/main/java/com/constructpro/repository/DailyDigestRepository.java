@@ -0,0 +1,58 @@
+package com.constructpro.repository;
+
+import com.constructpro.entity.DailyDigest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyDigestRepository extends JpaRepository<DailyDigest, Long> {
+    
+    /**
+     * Digest figures per recipient from one grouped pass over the tasks. Each building is joined to
+     * its creator, its project manager (once when they are the same user) and recipient 0, which
+     * collects the totals across all buildings. Cancelled tasks are left out. Columns: recipient id,
+     * buildings, open, overdue, due this week, pending approvals, stalled, over budget,
+     * estimated cost, actual cost, budget drift.
+     */
+    @Query(value = "SELECT r.user_id, COUNT(DISTINCT t.building_id), " +
+           "SUM(CASE WHEN t.status NOT IN ('COMPLETED', 'APPROVED') THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN t.status NOT IN ('COMPLETED', 'APPROVED') AND t.deadline < :today THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN t.status NOT IN ('COMPLETED', 'APPROVED') AND t.deadline BETWEEN :today AND :weekEnd THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN t.status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN t.status = 'IN_PROGRESS' AND COALESCE(t.updated_at, t.created_at) < :stalledBefore THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN t.actual_cost > t.estimated_cost THEN 1 ELSE 0 END), " +
+           "COALESCE(SUM(t.estimated_cost), 0), COALESCE(SUM(t.actual_cost), 0), " +
+           "COALESCE(SUM(CASE WHEN t.actual_cost IS NOT NULL THEN t.actual_cost - COALESCE(t.estimated_cost, 0) END), 0) " +
+           "FROM tasks t JOIN (" +
+           "SELECT b.id AS building_id, b.created_by_user_id AS user_id FROM buildings b " +
+           "UNION SELECT b.id, b.project_manager_id FROM buildings b WHERE b.project_manager_id IS NOT NULL " +
+           "UNION ALL SELECT b.id, 0 FROM buildings b" +
+           ") r ON r.building_id = t.building_id " +
+           "WHERE t.status <> 'CANCELLED' GROUP BY r.user_id", nativeQuery = true)
+    List<Object[]> summarizeByRecipient(@Param("today") LocalDate today,
+                                        @Param("weekEnd") LocalDate weekEnd,
+                                        @Param("stalledBefore") LocalDateTime stalledBefore);
+    
+    // Columns: user id, scope
+    @Query("SELECT d.userId, d.scope FROM DailyDigest d WHERE d.digestDate = :digestDate")
+    List<Object[]> findRecipientsByDigestDate(@Param("digestDate") LocalDate digestDate);
+    
+    Optional<DailyDigest> findFirstByUserIdAndScopeOrderByDigestDateDesc(Long userId, DailyDigest.Scope scope);
+    
+    // The unique key used to cover one digest per user and day, before digests had a scope
+    @Modifying
+    @Query(value = "ALTER TABLE daily_digests DROP CONSTRAINT IF EXISTS uk_daily_digests_user_date", nativeQuery = true)
+    void dropUserDateKey();
+    
+    @Modifying
+    @Query("DELETE FROM DailyDigest d WHERE d.digestDate < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDate cutoff);
+}
@@ -0,0 +1,35 @@
+package com.constructpro.repository;
+
+import com.constructpro.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+    
+    List<JobLease> findAllByOrderByJobNameAsc();
+    
+    /**
+     * Take the lease if it has expired or is already ours. A single conditional update, so of
+     * several nodes racing for the same lease exactly one sees a row count of 1.
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :node, l.acquiredAt = :now, l.expiresAt = :until " +
+           "WHERE l.jobName = :jobName AND (l.expiresAt < :now OR l.owner = :node)")
+    int acquire(@Param("jobName") String jobName,
+                @Param("node") String node,
+                @Param("now") LocalDateTime now,
+                @Param("until") LocalDateTime until);
+    
+    @Modifying
+    @Query("UPDATE JobLease l SET l.expiresAt = :until WHERE l.jobName IN :jobNames AND l.owner = :node")
+    int renew(@Param("jobNames") List<String> jobNames,
+              @Param("node") String node,
+              @Param("until") LocalDateTime until);
+}
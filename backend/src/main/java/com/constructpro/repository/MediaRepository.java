@@ -15,6 +15,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -140,4 +141,28 @@ public interface MediaRepository extends JpaRepository<Media, String> {
     
     @Query("DELETE FROM Media m WHERE m.uploadedAt < :cutoffDate")
     void deleteOldFiles(@Param("cutoffDate") LocalDateTime cutoffDate);
+    
+    // Keyset page of media search fields without loading file data:
+    // id, fileName, originalName, mimeType, uploader, building owner, task contractor, task building owner
+    @Query("SELECT m.id, m.fileName, m.originalName, m.mimeType, u.id, b.id, bo.id, bpm.id, tc.id, tbo.id, tbpm.id FROM Media m " +
+           "LEFT JOIN m.uploadedBy u LEFT JOIN m.building b LEFT JOIN b.createdBy bo LEFT JOIN b.projectManager bpm " +
+           "LEFT JOIN m.task t LEFT JOIN t.assignedContractor tc LEFT JOIN t.building tb LEFT JOIN tb.createdBy tbo " +
+           "LEFT JOIN tb.projectManager tbpm " +
+           "WHERE m.id > :afterId ORDER BY m.id ASC")
+    List<Object[]> findSearchBatchAfter(@Param("afterId") String afterId, Pageable pageable);
+    
+    // Same columns as findSearchBatchAfter, for media attached to a building directly or through one of its tasks
+    @Query("SELECT m.id, m.fileName, m.originalName, m.mimeType, u.id, b.id, bo.id, bpm.id, tc.id, tbo.id, tbpm.id FROM Media m " +
+           "LEFT JOIN m.uploadedBy u LEFT JOIN m.building b LEFT JOIN b.createdBy bo LEFT JOIN b.projectManager bpm " +
+           "LEFT JOIN m.task t LEFT JOIN t.assignedContractor tc LEFT JOIN t.building tb LEFT JOIN tb.createdBy tbo " +
+           "LEFT JOIN tb.projectManager tbpm " +
+           "WHERE (b.id = :buildingId OR tb.id = :buildingId) AND m.id > :afterId ORDER BY m.id ASC")
+    List<Object[]> findSearchBatchByBuildingAfter(@Param("buildingId") Long buildingId, @Param("afterId") String afterId,
+                                                  Pageable pageable);
+    
+    // Media attached to a building directly or through one of its tasks
+    @Query("SELECT COALESCE(m.building.id, t.building.id), COUNT(m), MAX(m.uploadedAt) FROM Media m LEFT JOIN m.task t " +
+           "WHERE m.building.id IN :buildingIds OR t.building.id IN :buildingIds " +
+           "GROUP BY COALESCE(m.building.id, t.building.id)")
+    List<Object[]> countMediaByBuildings(@Param("buildingIds") Collection<Long> buildingIds);
 }
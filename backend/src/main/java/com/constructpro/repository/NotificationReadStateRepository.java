@@ -0,0 +1,38 @@
+package com.constructpro.repository;
+
+import com.constructpro.entity.NotificationReadState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationReadStateRepository extends JpaRepository<NotificationReadState, Long> {
+    
+    /**
+     * Move the user's watermark forward to the given time, creating it if needed. Never moves it back.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notification_read_states (user_id, read_up_to, updated_at) " +
+                   "VALUES (:userId, :readUpTo, :updatedAt) " +
+                   "ON CONFLICT (user_id) DO UPDATE SET " +
+                   "read_up_to = GREATEST(notification_read_states.read_up_to, EXCLUDED.read_up_to), " +
+                   "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int advance(@Param("userId") Long userId, @Param("readUpTo") LocalDateTime readUpTo,
+                @Param("updatedAt") LocalDateTime updatedAt);
+    
+    // Keyset page of watermarks not yet copied onto their notification rows
+    @Query("SELECT s FROM NotificationReadState s WHERE s.userId > :afterUserId " +
+           "AND (s.compactedUpTo IS NULL OR s.compactedUpTo < s.readUpTo) ORDER BY s.userId ASC")
+    List<NotificationReadState> findPendingCompaction(@Param("afterUserId") Long afterUserId, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE NotificationReadState s SET s.compactedUpTo = :upTo WHERE s.userId = :userId " +
+           "AND (s.compactedUpTo IS NULL OR s.compactedUpTo < :upTo)")
+    int markCompacted(@Param("userId") Long userId, @Param("upTo") LocalDateTime upTo);
+}
@@ -11,7 +11,9 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
@@ -24,15 +26,28 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     
     List<Notification> findByType(Notification.NotificationType type);
     
-    @Query("SELECT n FROM Notification n WHERE n.user = :user AND n.isRead = false ORDER BY n.createdAt DESC")
+    // Unread means neither marked read on its own nor covered by the user's read watermark
+    @Query("SELECT n FROM Notification n LEFT JOIN NotificationReadState s ON s.userId = n.user.id " +
+           "WHERE n.user = :user AND n.isRead = false AND (s.readUpTo IS NULL OR n.createdAt > s.readUpTo) " +
+           "ORDER BY n.createdAt DESC")
     List<Notification> findUnreadNotificationsByUser(@Param("user") User user);
     
+    // Newest notification the user has that this transaction can see
+    @Query("SELECT MAX(n.createdAt) FROM Notification n WHERE n.user.id = :userId")
+    Optional<LocalDateTime> findLatestCreatedAtByUserId(@Param("userId") Long userId);
+    
     @Query("SELECT n FROM Notification n WHERE n.user = :user ORDER BY n.createdAt DESC")
     List<Notification> findRecentNotificationsByUser(@Param("user") User user, Pageable pageable);
     
-    @Query("SELECT COUNT(n) FROM Notification n WHERE n.user = :user AND n.isRead = false")
+    @Query("SELECT COUNT(n) FROM Notification n LEFT JOIN NotificationReadState s ON s.userId = n.user.id " +
+           "WHERE n.user = :user AND n.isRead = false AND (s.readUpTo IS NULL OR n.createdAt > s.readUpTo)")
     long countUnreadNotificationsByUser(@Param("user") User user);
     
+    @Query("SELECT n.user.id, COUNT(n) FROM Notification n LEFT JOIN NotificationReadState s ON s.userId = n.user.id " +
+           "WHERE n.user.id IN :userIds AND n.isRead = false AND (s.readUpTo IS NULL OR n.createdAt > s.readUpTo) " +
+           "GROUP BY n.user.id")
+    List<Object[]> countUnreadByUserIds(@Param("userIds") Collection<Long> userIds);
+    
     @Query("SELECT n FROM Notification n WHERE n.expiresAt IS NOT NULL AND n.expiresAt < :currentTime")
     List<Notification> findExpiredNotifications(@Param("currentTime") LocalDateTime currentTime);
     
@@ -48,8 +63,19 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
         @Param("since") LocalDateTime since
     );
     
+    // Copies a read watermark onto the rows it covers in one statement
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readUpTo " +
+           "WHERE n.user.id = :userId AND n.isRead = false AND n.createdAt <= :readUpTo")
+    int markReadUpTo(@Param("userId") Long userId, @Param("readUpTo") LocalDateTime readUpTo);
+    
     @Modifying
     @Transactional
     @Query("DELETE FROM Notification n WHERE n.isRead = true AND n.createdAt < :cutoffDate")
     void deleteOldReadNotifications(@Param("cutoffDate") LocalDateTime cutoffDate);
+    
+    @Query("SELECT n.relatedBuilding.id, COUNT(n) FROM Notification n LEFT JOIN NotificationReadState s ON s.userId = n.user.id " +
+           "WHERE n.user = :user AND n.isRead = false AND (s.readUpTo IS NULL OR n.createdAt > s.readUpTo) " +
+           "AND n.relatedBuilding.id IN :buildingIds GROUP BY n.relatedBuilding.id")
+    List<Object[]> countUnreadByBuildings(@Param("user") User user, @Param("buildingIds") Collection<Long> buildingIds);
 }
@@ -0,0 +1,52 @@
+package com.constructpro.repository;
+
+import com.constructpro.entity.TaskDeadlineEvent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface TaskDeadlineEventRepository extends JpaRepository<TaskDeadlineEvent, TaskDeadlineEvent.Key> {
+    
+    /**
+     * Claim a transition for a deadline. Returns 1 when this call recorded it, or 0 when it
+     * had already fired for the same deadline.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_deadline_events (task_id, transition, deadline, fired_at) " +
+                   "VALUES (:taskId, :transition, :deadline, :firedAt) " +
+                   "ON CONFLICT (task_id, transition) DO UPDATE SET deadline = EXCLUDED.deadline, fired_at = EXCLUDED.fired_at " +
+                   "WHERE task_deadline_events.deadline <> EXCLUDED.deadline", nativeQuery = true)
+    int claim(@Param("taskId") Long taskId,
+              @Param("transition") String transition,
+              @Param("deadline") LocalDate deadline,
+              @Param("firedAt") LocalDateTime firedAt);
+    
+    @Query("SELECT e.transition FROM TaskDeadlineEvent e WHERE e.taskId = :taskId AND e.deadline = :deadline")
+    List<TaskDeadlineEvent.Transition> findFiredTransitions(@Param("taskId") Long taskId, @Param("deadline") LocalDate deadline);
+    
+    List<TaskDeadlineEvent> findByTaskIdIn(Collection<Long> taskIds);
+    
+    // Open tasks with a deadline and their contractor's id and timezone, one row per transition
+    // already fired for that deadline (null if none)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id, t.deadline, e.transition, c.id, c.timezone FROM Task t JOIN t.assignedContractor c " +
+           "LEFT JOIN TaskDeadlineEvent e ON e.taskId = t.id AND e.deadline = t.deadline " +
+           "WHERE t.deadline IS NOT NULL AND t.status NOT IN ('COMPLETED', 'APPROVED', 'CANCELLED')")
+    Stream<Object[]> streamOpenDeadlinesWithFiredTransitions();
+    
+    @Modifying
+    @Query("DELETE FROM TaskDeadlineEvent e WHERE e.taskId = :taskId")
+    void deleteByTaskId(@Param("taskId") Long taskId);
+}
@@ -3,12 +3,15 @@ package com.constructpro.repository;
 import com.constructpro.entity.Building;
 import com.constructpro.entity.Task;
 import com.constructpro.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -64,9 +67,79 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT t FROM Task t JOIN t.dependencies d WHERE d.id = :dependencyTaskId")
     List<Task> findTasksByDependency(@Param("dependencyTaskId") Long dependencyTaskId);
     
+    @Query("SELECT t.id, d.id FROM Task t JOIN t.dependencies d WHERE d.status NOT IN ('APPROVED', 'CANCELLED') AND t.status NOT IN ('APPROVED', 'CANCELLED')")
+    List<Object[]> findOpenDependencyEdges();
+    
+    // Detach a task that is about to be deleted from the tasks that depend on it
+    @Modifying
+    @Query(value = "DELETE FROM task_dependencies WHERE dependency_task_id = :taskId", nativeQuery = true)
+    int deleteDependencyEdgesTo(@Param("taskId") Long taskId);
+    
+    @Query("SELECT t FROM Task t JOIN FETCH t.assignedContractor JOIN FETCH t.building WHERE t.id IN :ids")
+    List<Task> findAllWithContractorAndBuildingByIdIn(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT t FROM Task t WHERE t.assignedContractor = :contractor AND t.status IN ('ASSIGNED', 'IN_PROGRESS') ORDER BY t.deadline ASC")
     List<Task> findActiveTasksByContractor(@Param("contractor") User contractor);
     
+    // Task statistics: status, priority, type, count and overdue count per group
+    @Query("SELECT t.status, t.priority, t.type, COUNT(t), " +
+           "SUM(CASE WHEN t.deadline < :today AND t.status NOT IN ('COMPLETED', 'APPROVED', 'CANCELLED') THEN 1 ELSE 0 END) " +
+           "FROM Task t GROUP BY t.status, t.priority, t.type")
+    List<Object[]> countTasksGrouped(@Param("today") LocalDate today);
+    
+    @Query("SELECT t.status, t.priority, t.type, COUNT(t), " +
+           "SUM(CASE WHEN t.deadline < :today AND t.status NOT IN ('COMPLETED', 'APPROVED', 'CANCELLED') THEN 1 ELSE 0 END) " +
+           "FROM Task t WHERE t.building.createdBy = :builder GROUP BY t.status, t.priority, t.type")
+    List<Object[]> countTasksGroupedByBuilder(@Param("builder") User builder, @Param("today") LocalDate today);
+    
+    @Query("SELECT t.status, t.priority, t.type, COUNT(t), " +
+           "SUM(CASE WHEN t.deadline < :today AND t.status NOT IN ('COMPLETED', 'APPROVED', 'CANCELLED') THEN 1 ELSE 0 END) " +
+           "FROM Task t WHERE t.assignedContractor = :contractor GROUP BY t.status, t.priority, t.type")
+    List<Object[]> countTasksGroupedByContractor(@Param("contractor") User contractor, @Param("today") LocalDate today);
+    
+    @Query("SELECT t.building.id, t.status, COUNT(t), SUM(t.progressPercentage), SUM(t.estimatedCost), SUM(t.actualCost), " +
+           "SUM(CASE WHEN t.deadline < :today AND t.status NOT IN ('COMPLETED', 'APPROVED', 'CANCELLED') THEN 1 ELSE 0 END) " +
+           "FROM Task t WHERE t.building.id IN :buildingIds GROUP BY t.building.id, t.status")
+    List<Object[]> countTasksGroupedByBuilding(@Param("buildingIds") Collection<Long> buildingIds, @Param("today") LocalDate today);
+    
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.building.id = :buildingId AND t.deadline < :today " +
+           "AND t.status NOT IN ('COMPLETED', 'APPROVED', 'CANCELLED')")
+    long countOverdueTasksByBuilding(@Param("buildingId") Long buildingId, @Param("today") LocalDate today);
+    
+    boolean existsByBuildingId(Long buildingId);
+    
+    @Query("SELECT t.location.id, t.status, COUNT(t), SUM(t.progressPercentage), SUM(t.estimatedCost), SUM(t.actualCost), " +
+           "SUM(CASE WHEN t.deadline < :today AND t.status NOT IN ('COMPLETED', 'APPROVED', 'CANCELLED') THEN 1 ELSE 0 END) " +
+           "FROM Task t WHERE t.location IS NOT NULL AND t.building.id IN :buildingIds GROUP BY t.location.id, t.status")
+    List<Object[]> countTasksGroupedByLocation(@Param("buildingIds") Collection<Long> buildingIds, @Param("today") LocalDate today);
+    
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.location.path LIKE :pathPrefix AND t.deadline < :today " +
+           "AND t.status NOT IN ('COMPLETED', 'APPROVED', 'CANCELLED')")
+    long countOverdueTasksUnderPath(@Param("pathPrefix") String pathPrefix, @Param("today") LocalDate today);
+    
+    boolean existsByLocationId(Long locationId);
+    
+    @Query("SELECT DISTINCT t.building.id FROM Task t WHERE t.assignedContractor.id = :contractorId")
+    List<Long> findBuildingIdsByContractorId(@Param("contractorId") Long contractorId);
+    
+    @Query("SELECT t.assignedContractor.id, COUNT(t) FROM Task t WHERE t.status IN ('ASSIGNED', 'IN_PROGRESS') GROUP BY t.assignedContractor.id")
+    List<Object[]> countActiveTasksGroupByContractor();
+    
     @Query("SELECT AVG(t.actualDurationDays) FROM Task t WHERE t.actualDurationDays IS NOT NULL AND t.type = :taskType")
     Double getAverageTaskDurationByType(@Param("taskType") Task.TaskType taskType);
+    
+    // Keyset page of tasks with their building and owner, for rebuilding the search index
+    @Query("SELECT t FROM Task t JOIN FETCH t.building b JOIN FETCH b.createdBy WHERE t.id > :afterId ORDER BY t.id ASC")
+    List<Task> findSearchBatchAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT t FROM Task t JOIN FETCH t.building b JOIN FETCH b.createdBy " +
+           "WHERE b.id = :buildingId AND t.id > :afterId ORDER BY t.id ASC")
+    List<Task> findSearchBatchByBuildingAfter(@Param("buildingId") Long buildingId, @Param("afterId") Long afterId,
+                                              Pageable pageable);
+    
+    // Keyset page of open tasks with a deadline, with the relations their notifications need
+    @Query("SELECT t FROM Task t JOIN FETCH t.assignedContractor JOIN FETCH t.building " +
+           "WHERE t.id > :afterId AND t.deadline IS NOT NULL AND t.status NOT IN ('COMPLETED', 'APPROVED', 'CANCELLED') " +
+           "ORDER BY t.id ASC")
+    List<Task> findOpenTasksWithDeadlineAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
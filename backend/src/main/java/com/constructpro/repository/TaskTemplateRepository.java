@@ -0,0 +1,21 @@
+package com.constructpro.repository;
+
+import com.constructpro.entity.TaskTemplate;
+import com.constructpro.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskTemplateRepository extends JpaRepository<TaskTemplate, Long> {
+    
+    @Query("SELECT DISTINCT tt FROM TaskTemplate tt LEFT JOIN FETCH tt.items WHERE tt.createdBy = :user ORDER BY tt.name ASC")
+    List<TaskTemplate> findByCreatedByWithItems(@Param("user") User user);
+    
+    @Query("SELECT tt FROM TaskTemplate tt LEFT JOIN FETCH tt.items WHERE tt.id = :id")
+    Optional<TaskTemplate> findByIdWithItems(@Param("id") Long id);
+}
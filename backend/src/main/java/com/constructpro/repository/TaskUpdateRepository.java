@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -42,4 +43,8 @@ public interface TaskUpdateRepository extends JpaRepository<TaskUpdate, Long> {
     
     @Query("SELECT COUNT(tu) FROM TaskUpdate tu WHERE tu.task = :task AND tu.updateType = :updateType")
     long countUpdatesByTaskAndType(@Param("task") Task task, @Param("updateType") TaskUpdate.UpdateType updateType);
+    
+    @Query("SELECT tu.task.building.id, MAX(tu.createdAt) FROM TaskUpdate tu " +
+           "WHERE tu.task.building.id IN :buildingIds GROUP BY tu.task.building.id")
+    List<Object[]> findLatestUpdateByBuildings(@Param("buildingIds") Collection<Long> buildingIds);
 }
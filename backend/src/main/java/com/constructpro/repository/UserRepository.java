@@ -1,11 +1,14 @@
 package com.constructpro.repository;
 
 import com.constructpro.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +37,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.role = 'ADMIN' AND u.isActive = true")
     List<User> findActiveAdmins();
     
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids AND u.isActive = true")
+    List<Long> findActiveIdsByIdIn(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT u FROM User u WHERE " +
            "(LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
@@ -52,9 +58,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findInactiveUsers(@Param("cutoffDate") java.time.LocalDateTime cutoffDate);
 
     Optional<User> findByIdAndRole(Long id, User.Role role);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.accessVersion = u.accessVersion + 1 WHERE u.id IN :ids")
+    int incrementAccessVersions(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT u.timezone FROM User u WHERE u.id = :id")
+    Optional<String> findTimezoneById(@Param("id") Long id);
 
     long countByRole(User.Role role);
 
     @Query("SELECT u FROM User u WHERE u.role = 'BUILDER' AND u.isActive = true")
     List<User> findActiveBuilders();
+    
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
 }
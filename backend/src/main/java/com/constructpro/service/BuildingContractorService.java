@@ -1,5 +1,7 @@
 package com.constructpro.service;
 
+import com.constructpro.dto.request.BuildingContractorBatchRequest;
+import com.constructpro.dto.response.BuildingContractorBatchResponse;
 import com.constructpro.entity.Building;
 import com.constructpro.entity.BuildingContractor;
 import com.constructpro.entity.Notification;
@@ -9,10 +11,18 @@ import com.constructpro.repository.BuildingRepository;
 import com.constructpro.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +34,11 @@ public class BuildingContractorService {
     private final BuildingRepository buildingRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final SearchIndexService searchIndexService;
+    private final ProjectAccessIndex projectAccessIndex;
+    
+    @Value("${app.building-contractors.batch.max-items:500}")
+    private int maxBatchItems;
 
     public BuildingContractor assignContractorToBuilding(Long buildingId, Long contractorId, 
                                                          User assignedBy, String roleInProject, String notes) {
@@ -32,9 +47,7 @@ public class BuildingContractorService {
             .orElseThrow(() -> new RuntimeException("Building not found with id: " + buildingId));
         
         // Check if user can assign contractors to this building
-        if (!building.getCreatedBy().equals(assignedBy) && 
-            (building.getProjectManager() == null || !building.getProjectManager().equals(assignedBy)) &&
-            !assignedBy.getRole().equals(User.Role.ADMIN)) {
+        if (!projectAccessIndex.canManageBuilding(assignedBy, buildingId)) {
             throw new RuntimeException("You don't have permission to assign contractors to this building");
         }
         
@@ -61,6 +74,9 @@ public class BuildingContractorService {
         assignment.setNotes(notes);
         
         BuildingContractor savedAssignment = buildingContractorRepository.save(assignment);
+        searchIndexService.indexBuilding(building);
+        searchIndexService.indexBuildingContents(List.of(buildingId));
+        projectAccessIndex.invalidate(contractorId);
         
         // Create notification for contractor
         notificationService.createNotification(
@@ -80,6 +96,123 @@ public class BuildingContractorService {
         return savedAssignment;
     }
 
+    /**
+     * Assign many contractors at once. Buildings, contractors and existing assignments are loaded
+     * with one query each, and the valid assignments and their notifications are inserted in batches.
+     * Invalid items are reported individually and do not prevent the others from being assigned.
+     */
+    public BuildingContractorBatchResponse assignContractorsBatch(List<BuildingContractorBatchRequest.Assignment> items,
+                                                                 User assignedBy) {
+        if (items.size() > maxBatchItems) {
+            throw new IllegalArgumentException("A batch is limited to " + maxBatchItems + " assignments");
+        }
+        
+        Set<Long> buildingIds = new HashSet<>();
+        Set<Long> contractorIds = new HashSet<>();
+        for (BuildingContractorBatchRequest.Assignment item : items) {
+            if (item.getBuildingId() != null) {
+                buildingIds.add(item.getBuildingId());
+            }
+            if (item.getContractorId() != null) {
+                contractorIds.add(item.getContractorId());
+            }
+        }
+        
+        Map<Long, Building> buildings = buildingRepository.findAllById(buildingIds).stream()
+            .collect(Collectors.toMap(Building::getId, Function.identity()));
+        Map<Long, User> contractors = userRepository.findAllById(contractorIds).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        
+        // Pairs already assigned, plus the ones accepted from this batch so duplicates are rejected in one pass
+        Set<List<Long>> assignedPairs = new HashSet<>();
+        if (!buildingIds.isEmpty() && !contractorIds.isEmpty()) {
+            buildingContractorRepository.findActivePairs(buildingIds, contractorIds)
+                .forEach(row -> assignedPairs.add(List.of((Long) row[0], (Long) row[1])));
+        }
+        
+        BuildingContractorBatchResponse response = new BuildingContractorBatchResponse();
+        Map<Integer, BuildingContractor> accepted = new LinkedHashMap<>();
+        
+        for (int i = 0; i < items.size(); i++) {
+            BuildingContractorBatchRequest.Assignment item = items.get(i);
+            String error = validateAssignment(item, buildings, contractors, assignedBy);
+            
+            if (error == null) {
+                List<Long> pair = List.of(item.getBuildingId(), item.getContractorId());
+                if (!assignedPairs.add(pair)) {
+                    error = "Contractor is already assigned to this building";
+                }
+            }
+            
+            if (error != null) {
+                response.getResults().add(new BuildingContractorBatchResponse.ItemResult(
+                    i, item.getBuildingId(), item.getContractorId(), false, null, error));
+                continue;
+            }
+            
+            BuildingContractor assignment = new BuildingContractor(
+                buildings.get(item.getBuildingId()), contractors.get(item.getContractorId()), assignedBy);
+            assignment.setRoleInProject(item.getRoleInProject());
+            assignment.setNotes(item.getNotes());
+            accepted.put(i, assignment);
+        }
+        
+        List<BuildingContractor> assignments = new ArrayList<>(accepted.values());
+        if (!assignments.isEmpty()) {
+            buildingContractorRepository.saveAll(assignments);
+            notificationService.createContractorAssignedNotifications(assignments);
+            
+            // Keyed by id: entity equality would load the buildings' lazy collections
+            Map<Long, Building> assignedBuildings = new LinkedHashMap<>();
+            assignments.forEach(assignment -> assignedBuildings.putIfAbsent(
+                assignment.getBuilding().getId(), assignment.getBuilding()));
+            searchIndexService.indexBuildings(assignedBuildings.values());
+            searchIndexService.indexBuildingContents(assignedBuildings.keySet());
+            projectAccessIndex.invalidate(assignments.stream()
+                .map(assignment -> assignment.getContractor().getId())
+                .distinct()
+                .toArray(Long[]::new));
+        }
+        
+        accepted.forEach((index, assignment) -> response.getResults().add(new BuildingContractorBatchResponse.ItemResult(
+            index, assignment.getBuilding().getId(), assignment.getContractor().getId(), true, assignment.getId(), null)));
+        response.getResults().sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        response.setAssigned(assignments.size());
+        response.setFailed(items.size() - assignments.size());
+        
+        log.info("Batch assigned {} of {} contractor assignments by {}", 
+            assignments.size(), items.size(), assignedBy.getEmail());
+        
+        return response;
+    }
+    
+    private String validateAssignment(BuildingContractorBatchRequest.Assignment item, Map<Long, Building> buildings,
+                                      Map<Long, User> contractors, User assignedBy) {
+        if (item.getBuildingId() == null || item.getContractorId() == null) {
+            return "Building and contractor are required";
+        }
+        
+        Building building = buildings.get(item.getBuildingId());
+        if (building == null) {
+            return "Building not found with id: " + item.getBuildingId();
+        }
+        if (!projectAccessIndex.canManageBuilding(assignedBy, building)) {
+            return "You don't have permission to assign contractors to this building";
+        }
+        
+        User contractor = contractors.get(item.getContractorId());
+        if (contractor == null) {
+            return "Contractor not found with id: " + item.getContractorId();
+        }
+        if (!contractor.getRole().equals(User.Role.CONTRACTOR)) {
+            return "User is not a contractor";
+        }
+        if (!contractor.getIsActive()) {
+            return "Contractor is not active";
+        }
+        return null;
+    }
+    
     public void unassignContractorFromBuilding(Long buildingId, Long contractorId, User removedBy) {
         Building building = buildingRepository.findById(buildingId)
             .orElseThrow(() -> new RuntimeException("Building not found with id: " + buildingId));
@@ -88,9 +221,7 @@ public class BuildingContractorService {
             .orElseThrow(() -> new RuntimeException("Contractor not found with id: " + contractorId));
         
         // Check permission
-        if (!building.getCreatedBy().equals(removedBy) && 
-            (building.getProjectManager() == null || !building.getProjectManager().equals(removedBy)) &&
-            !removedBy.getRole().equals(User.Role.ADMIN)) {
+        if (!projectAccessIndex.canManageBuilding(removedBy, buildingId)) {
             throw new RuntimeException("You don't have permission to unassign contractors from this building");
         }
         
@@ -100,6 +231,9 @@ public class BuildingContractorService {
         
         assignment.deactivate();
         buildingContractorRepository.save(assignment);
+        searchIndexService.indexBuilding(building);
+        searchIndexService.indexBuildingContents(List.of(buildingId));
+        projectAccessIndex.invalidate(contractorId);
         
         // Create notification for contractor
         notificationService.createNotification(
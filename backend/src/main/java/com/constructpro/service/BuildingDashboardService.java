@@ -0,0 +1,181 @@
+package com.constructpro.service;
+
+import com.constructpro.config.SchedulingConfig;
+import com.constructpro.dto.response.BuildingDashboardResponse;
+import com.constructpro.entity.Building;
+import com.constructpro.entity.BuildingTaskCounters;
+import com.constructpro.entity.User;
+import com.constructpro.repository.BuildingRepository;
+import com.constructpro.repository.MediaRepository;
+import com.constructpro.repository.NotificationRepository;
+import com.constructpro.repository.TaskUpdateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Everything the home screen shows for a user's buildings, built from one query per kind of data.
+ * The per-building lookups are independent and run in parallel; the result is cached briefly per user.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BuildingDashboardService {
+
+    private static final int MAX_CACHED_USERS = 1000;
+
+    private final BuildingRepository buildingRepository;
+    private final BuildingTaskCountersService buildingTaskCountersService;
+    private final TaskUpdateRepository taskUpdateRepository;
+    private final MediaRepository mediaRepository;
+    private final NotificationRepository notificationRepository;
+
+    @Qualifier(SchedulingConfig.APPLICATION_EXECUTOR)
+    private final Executor executor;
+
+    private final Map<Long, CachedDashboard> cache = new ConcurrentHashMap<>();
+
+    @Value("${app.buildings.dashboard.cache-ttl-seconds:30}")
+    private long cacheTtlSeconds;
+
+    public BuildingDashboardResponse getDashboard(User user) {
+        CachedDashboard cached = cache.get(user.getId());
+        if (cached != null && cached.expiresAt().isAfter(LocalDateTime.now())) {
+            return cached.dashboard();
+        }
+
+        BuildingDashboardResponse dashboard = buildDashboard(user);
+        if (cacheTtlSeconds > 0) {
+            if (cache.size() >= MAX_CACHED_USERS) {
+                makeRoom();
+            }
+            cache.put(user.getId(), new CachedDashboard(LocalDateTime.now().plusSeconds(cacheTtlSeconds), dashboard));
+        }
+        return dashboard;
+    }
+
+    // Drop expired entries, then the oldest ones if that was not enough; every entry has the same
+    // lifetime, so the soonest to expire is the oldest
+    private void makeRoom() {
+        LocalDateTime now = LocalDateTime.now();
+        cache.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+
+        int excess = cache.size() - MAX_CACHED_USERS + 1;
+        if (excess > 0) {
+            cache.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(Comparator.comparing(CachedDashboard::expiresAt)))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(cache::remove);
+        }
+    }
+
+    private BuildingDashboardResponse buildDashboard(User user) {
+        List<Building> buildings = switch (user.getRole()) {
+            case ADMIN -> buildingRepository.findAll();
+            case BUILDER -> buildingRepository.findBuildingsByUser(user);
+            case CONTRACTOR -> buildingRepository.findBuildingsByContractor(user);
+        };
+
+        BuildingDashboardResponse dashboard = new BuildingDashboardResponse();
+        dashboard.setGeneratedAt(LocalDateTime.now());
+        if (buildings.isEmpty()) {
+            return dashboard;
+        }
+
+        List<Long> buildingIds = buildings.stream().map(Building::getId).collect(Collectors.toList());
+
+        CompletableFuture<Map<Long, BuildingTaskCounters>> counters =
+            async(() -> buildingTaskCountersService.getCounters(buildingIds));
+        CompletableFuture<Map<Long, Object[]>> media =
+            async(() -> byBuilding(mediaRepository.countMediaByBuildings(buildingIds)));
+        CompletableFuture<Map<Long, Object[]>> latestUpdates =
+            async(() -> byBuilding(taskUpdateRepository.findLatestUpdateByBuildings(buildingIds)));
+        CompletableFuture<Map<Long, Object[]>> unread =
+            async(() -> byBuilding(notificationRepository.countUnreadByBuildings(user, buildingIds)));
+
+        CompletableFuture.allOf(counters, media, latestUpdates, unread).join();
+
+        for (Building building : buildings) {
+            BuildingDashboardResponse.BuildingSummary summary = summarize(building,
+                counters.join().get(building.getId()),
+                media.join().get(building.getId()),
+                latestUpdates.join().get(building.getId()),
+                unread.join().get(building.getId()));
+
+            dashboard.getBuildings().add(summary);
+            dashboard.setTotalTasks(dashboard.getTotalTasks() + summary.getTotalTasks());
+            dashboard.setOverdueTasks(dashboard.getOverdueTasks() + summary.getOverdueTasks());
+            dashboard.setUnreadNotifications(dashboard.getUnreadNotifications() + summary.getUnreadNotifications());
+        }
+        dashboard.setTotalBuildings(buildings.size());
+        return dashboard;
+    }
+
+    private BuildingDashboardResponse.BuildingSummary summarize(Building building, BuildingTaskCounters counters,
+                                                                Object[] media, Object[] latestUpdate, Object[] unread) {
+        if (counters == null) {
+            counters = new BuildingTaskCounters(building.getId());
+        }
+
+        BuildingDashboardResponse.BuildingSummary summary = new BuildingDashboardResponse.BuildingSummary();
+        summary.setId(building.getId());
+        summary.setName(building.getName());
+        summary.setStatus(building.getStatus().name());
+        summary.setExpectedCompletionDate(building.getExpectedCompletionDate());
+        summary.setOverdue(building.isOverdue());
+        summary.setEstimatedBudget(building.getEstimatedBudget());
+        summary.setActualCost(building.getActualCost());
+
+        summary.setTotalTasks(counters.getTotalTasks());
+        summary.setOverdueTasks(counters.getOverdueTasks());
+        summary.setCompletionPercentage(counters.getCompletionPercentage());
+        summary.setTaskEstimatedCost(counters.getEstimatedCost());
+        summary.setTaskActualCost(counters.getActualCost());
+        Map<String, Long> countsByStatus = new LinkedHashMap<>();
+        counters.getCountsByStatus().forEach((status, count) -> countsByStatus.put(status.name(), count));
+        summary.setTaskCountsByStatus(countsByStatus);
+
+        summary.setMediaCount(media != null ? ((Number) media[1]).longValue() : 0L);
+        summary.setUnreadNotifications(unread != null ? ((Number) unread[1]).longValue() : 0L);
+
+        // Latest of the task timeline and media uploads
+        LocalDateTime latestActivity = latestUpdate != null ? (LocalDateTime) latestUpdate[1] : null;
+        LocalDateTime latestMedia = media != null ? (LocalDateTime) media[2] : null;
+        if (latestMedia != null && (latestActivity == null || latestMedia.isAfter(latestActivity))) {
+            latestActivity = latestMedia;
+        }
+        summary.setLatestActivityAt(latestActivity);
+        return summary;
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, executor);
+    }
+
+    private static Map<Long, Object[]> byBuilding(List<Object[]> rows) {
+        Map<Long, Object[]> result = new HashMap<>();
+        for (Object[] row : rows) {
+            result.put((Long) row[0], row);
+        }
+        return result;
+    }
+
+    private record CachedDashboard(LocalDateTime expiresAt, BuildingDashboardResponse dashboard) {
+    }
+}
@@ -0,0 +1,171 @@
+package com.constructpro.service;
+
+import com.constructpro.repository.BuildingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory grid index over building coordinates.
+ * The globe is cut into fixed cells of {@value #CELL_DEGREES} degrees; a radius query visits only
+ * the cells overlapping the circle's bounding box and measures exact distances to their buildings.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BuildingGeoIndex {
+
+    static final double CELL_DEGREES = 0.1;
+
+    private static final int LATITUDE_CELLS = (int) Math.round(180 / CELL_DEGREES);
+    private static final int LONGITUDE_CELLS = (int) Math.round(360 / CELL_DEGREES);
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final BuildingRepository buildingRepository;
+
+    private final Map<Long, GeoPoint> points = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        points.clear();
+        cells.clear();
+
+        for (Object[] row : buildingRepository.findAllCoordinates()) {
+            add((Long) row[0], new GeoPoint((Double) row[1], (Double) row[2]));
+        }
+
+        log.info("Building geo index built with {} located buildings", points.size());
+    }
+
+    /**
+     * Record a building's coordinates once the current transaction commits; null removes it
+     */
+    public void update(Long buildingId, Double latitude, Double longitude) {
+        GeoPoint point = latitude != null && longitude != null ? new GeoPoint(latitude, longitude) : null;
+        TransactionCallbacks.afterCommit(() -> put(buildingId, point));
+    }
+
+    public void remove(Long buildingId) {
+        TransactionCallbacks.afterCommit(() -> put(buildingId, null));
+    }
+
+    /**
+     * Buildings within the radius that pass the filter, nearest first
+     */
+    public List<Hit> nearest(GeoPoint center, double radiusKm, int limit, LongPredicate filter) {
+        Comparator<Hit> byDistance = Comparator.comparingDouble(Hit::distanceKm).thenComparingLong(Hit::buildingId);
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, byDistance.reversed());
+
+        for (Long buildingId : candidates(center, radiusKm)) {
+            GeoPoint point = points.get(buildingId);
+            if (point == null) {
+                continue;
+            }
+            double distance = center.distanceKm(point);
+            if (distance > radiusKm || !filter.test(buildingId)) {
+                continue;
+            }
+            best.add(new Hit(buildingId, distance));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Hit> results = new ArrayList<>(best);
+        results.sort(byDistance);
+        return results;
+    }
+
+    private List<Long> candidates(GeoPoint center, double radiusKm) {
+        double latitudeSpan = radiusKm / KM_PER_DEGREE;
+        int fromRow = latitudeRow(Math.max(-90, center.latitude() - latitudeSpan));
+        int toRow = latitudeRow(Math.min(90, center.latitude() + latitudeSpan));
+
+        // Longitude degrees shrink towards the poles; take the widest latitude in the box
+        double widestLatitude = Math.min(90, Math.abs(center.latitude()) + latitudeSpan);
+        double cosine = Math.cos(Math.toRadians(widestLatitude));
+        int columnSpan = cosine <= 0 ? LONGITUDE_CELLS
+            : (int) Math.ceil(radiusKm / (KM_PER_DEGREE * cosine) / CELL_DEGREES);
+        int centerColumn = longitudeColumn(center.longitude());
+
+        List<Long> ids = new ArrayList<>();
+        if ((long) (toRow - fromRow + 1) * Math.min(2L * columnSpan + 1, LONGITUDE_CELLS) > cells.size()) {
+            // The box covers more cells than are occupied; scanning the occupied ones is cheaper
+            cells.values().forEach(ids::addAll);
+            return ids;
+        }
+
+        for (int row = fromRow; row <= toRow; row++) {
+            if (2 * columnSpan + 1 >= LONGITUDE_CELLS) {
+                for (int column = 0; column < LONGITUDE_CELLS; column++) {
+                    collect(ids, row, column);
+                }
+            } else {
+                for (int offset = -columnSpan; offset <= columnSpan; offset++) {
+                    collect(ids, row, Math.floorMod(centerColumn + offset, LONGITUDE_CELLS));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private void collect(List<Long> ids, int row, int column) {
+        Set<Long> cell = cells.get(cellKey(row, column));
+        if (cell != null) {
+            ids.addAll(cell);
+        }
+    }
+
+    private synchronized void put(Long buildingId, GeoPoint point) {
+        GeoPoint previous = points.remove(buildingId);
+        if (previous != null) {
+            long key = cellKey(previous);
+            Set<Long> cell = cells.get(key);
+            if (cell != null) {
+                cell.remove(buildingId);
+                if (cell.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        }
+        if (point != null) {
+            add(buildingId, point);
+        }
+    }
+
+    private void add(Long buildingId, GeoPoint point) {
+        points.put(buildingId, point);
+        cells.computeIfAbsent(cellKey(point), key -> ConcurrentHashMap.newKeySet()).add(buildingId);
+    }
+
+    private static long cellKey(GeoPoint point) {
+        return cellKey(latitudeRow(point.latitude()), longitudeColumn(point.longitude()));
+    }
+
+    private static long cellKey(int row, int column) {
+        return (long) row * LONGITUDE_CELLS + column;
+    }
+
+    private static int latitudeRow(double latitude) {
+        return Math.min(LATITUDE_CELLS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES));
+    }
+
+    private static int longitudeColumn(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), LONGITUDE_CELLS);
+    }
+
+    public record Hit(long buildingId, double distanceKm) {
+    }
+}
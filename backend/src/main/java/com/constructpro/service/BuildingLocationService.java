@@ -0,0 +1,391 @@
+package com.constructpro.service;
+
+import com.constructpro.config.SchedulingConfig;
+import com.constructpro.dto.request.BuildingLocationRequest;
+import com.constructpro.dto.response.LocationProgressResponse;
+import com.constructpro.entity.Building;
+import com.constructpro.entity.BuildingLocation;
+import com.constructpro.entity.Task;
+import com.constructpro.entity.TaskRollup;
+import com.constructpro.entity.User;
+import com.constructpro.event.TaskChangedEvent;
+import com.constructpro.event.TaskSnapshot;
+import com.constructpro.repository.BuildingLocationRepository;
+import com.constructpro.repository.BuildingRepository;
+import com.constructpro.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Floors, zones and units of a building, each holding the task totals of its subtree.
+ * A task change adds a delta to the task's location and every ancestor on its path, which is
+ * at most a few rows, so reading a floor's progress never scans tasks. A nightly rebuild
+ * recomputes all rollups from the tasks table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BuildingLocationService {
+
+    private static final int RECONCILE_BATCH_SIZE = 50;
+
+    private final BuildingLocationRepository locationRepository;
+    private final BuildingRepository buildingRepository;
+    private final TaskRepository taskRepository;
+    private final ProjectAccessIndex projectAccessIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLeaseService jobLeaseService;
+
+    @Transactional
+    public BuildingLocation createLocation(Long buildingId, BuildingLocationRequest request, User user) {
+        Building building = getOwnedBuilding(buildingId, user);
+
+        BuildingLocation.LocationType type;
+        try {
+            type = BuildingLocation.LocationType.valueOf(request.getType().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid location type: " + request.getType());
+        }
+
+        BuildingLocation parent = null;
+        if (request.getParentId() != null) {
+            parent = locationRepository.findById(request.getParentId())
+                .filter(location -> location.getBuilding().getId().equals(buildingId))
+                .orElseThrow(() -> new IllegalArgumentException("Parent location not found in this building"));
+            if (type == BuildingLocation.LocationType.FLOOR) {
+                throw new IllegalArgumentException("Floors cannot be nested inside another location");
+            }
+        } else if (type == BuildingLocation.LocationType.FLOOR) {
+            if (request.getFloorNumber() == null) {
+                throw new IllegalArgumentException("Floor number is required for floors");
+            }
+            if (locationRepository.existsByBuildingIdAndTypeAndFloorNumber(buildingId, type, request.getFloorNumber())) {
+                throw new IllegalArgumentException("Floor " + request.getFloorNumber() + " already exists");
+            }
+        }
+
+        BuildingLocation location = newLocation(building, parent, type, request.getName(),
+            parent != null ? parent.getFloorNumber() : request.getFloorNumber());
+        assignPath(locationRepository.save(location));
+
+        log.info("Location {} ({}) created in building {} by {}", location.getName(), type, buildingId, user.getEmail());
+        return location;
+    }
+
+    /**
+     * Create a floor node for every floor of the building that does not have one yet
+     */
+    @Transactional
+    public List<BuildingLocation> generateFloors(Long buildingId, User user) {
+        Building building = getOwnedBuilding(buildingId, user);
+        if (building.getTotalFloors() == null || building.getTotalFloors() <= 0) {
+            throw new IllegalArgumentException("Building has no floor count");
+        }
+
+        Map<Integer, BuildingLocation> existing = floorsByNumber(buildingId);
+        List<BuildingLocation> created = new ArrayList<>();
+        for (int floor = 1; floor <= building.getTotalFloors(); floor++) {
+            if (!existing.containsKey(floor)) {
+                created.add(newLocation(building, null, BuildingLocation.LocationType.FLOOR, "Floor " + floor, floor));
+            }
+        }
+
+        locationRepository.saveAll(created).forEach(this::assignPath);
+
+        log.info("Generated {} floors for building {} by {}", created.size(), buildingId, user.getEmail());
+        return created;
+    }
+
+    @Transactional
+    public void deleteLocation(Long buildingId, Long locationId, User user) {
+        getOwnedBuilding(buildingId, user);
+
+        BuildingLocation location = locationRepository.findById(locationId)
+            .filter(candidate -> candidate.getBuilding().getId().equals(buildingId))
+            .orElseThrow(() -> new RuntimeException("Location not found"));
+
+        if (locationRepository.existsByParentId(locationId)) {
+            throw new IllegalStateException("Cannot delete a location that contains other locations");
+        }
+        if (taskRepository.existsByLocationId(locationId)) {
+            throw new IllegalStateException("Cannot delete a location with tasks");
+        }
+
+        locationRepository.delete(location);
+    }
+
+    /**
+     * Drop every location of a building that is being deleted; the building has no tasks by then
+     */
+    @Transactional
+    public void removeAll(Long buildingId) {
+        locationRepository.deleteAllByBuildingId(buildingId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LocationProgressResponse> getLocationTree(Long buildingId, User user) {
+        checkReadAccess(buildingId, user);
+        return buildTree(locationRepository.findByBuildingIdOrderByDepthAscIdAsc(buildingId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<LocationProgressResponse> getFloors(Long buildingId, User user) {
+        checkReadAccess(buildingId, user);
+        return locationRepository.findByBuildingIdAndTypeOrderByFloorNumberAsc(buildingId, BuildingLocation.LocationType.FLOOR)
+            .stream()
+            .map(LocationProgressResponse::fromLocation)
+            .toList();
+    }
+
+    /**
+     * A floor's rollup with the zones and units beneath it, read from the location rows alone
+     */
+    @Transactional(readOnly = true)
+    public LocationProgressResponse getFloorProgress(Long buildingId, Integer floorNumber, User user) {
+        checkReadAccess(buildingId, user);
+
+        return buildTree(locationRepository.findByBuildingIdAndFloorNumberOrderByDepthAscIdAsc(buildingId, floorNumber))
+            .stream()
+            .filter(root -> BuildingLocation.LocationType.FLOOR.name().equals(root.getType()))
+            .findFirst()
+            .orElseThrow(() -> new RuntimeException("Floor not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Integer, BuildingLocation> floorsByNumber(Long buildingId) {
+        Map<Integer, BuildingLocation> floors = new HashMap<>();
+        for (BuildingLocation floor : locationRepository.findByBuildingIdAndTypeOrderByFloorNumberAsc(
+                buildingId, BuildingLocation.LocationType.FLOOR)) {
+            floors.put(floor.getFloorNumber(), floor);
+        }
+        return floors;
+    }
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        LocalDate today = LocalDate.now();
+        boolean hasLocation = (event.before() != null && event.before().locationId() != null)
+            || (event.after() != null && event.after().locationId() != null);
+        if (!hasLocation) {
+            return;
+        }
+
+        Map<Long, TaskRollup> deltas = pendingDeltas();
+        if (event.before() != null && event.before().locationId() != null) {
+            accumulate(deltas, event.before(), -1, today);
+        }
+        if (event.after() != null && event.after().locationId() != null) {
+            accumulate(deltas, event.after(), 1, today);
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> applyDeltas(deltas));
+        }
+    }
+
+    /**
+     * Recompute every location rollup from the tasks table
+     */
+    @Scheduled(cron = "${app.buildings.locations.reconcile-cron:0 20 0 * * *}")
+    @Async(SchedulingConfig.SCHEDULED_JOB_EXECUTOR)
+    public void reconcileAll() {
+        jobLeaseService.runExclusively("location-rollups-reconcile", this::reconcileAllBuildings);
+    }
+
+    private void reconcileAllBuildings() {
+        LocalDate today = LocalDate.now();
+        long afterId = 0L;
+        int reconciled = 0;
+
+        while (true) {
+            List<Long> buildingIds = locationRepository.findBuildingIdsAfter(afterId, PageRequest.of(0, RECONCILE_BATCH_SIZE));
+            if (buildingIds.isEmpty()) {
+                break;
+            }
+
+            transactionTemplate.executeWithoutResult(status -> reconcile(buildingIds, today));
+            afterId = buildingIds.get(buildingIds.size() - 1);
+            reconciled += buildingIds.size();
+        }
+
+        log.info("Reconciled location rollups for {} buildings", reconciled);
+    }
+
+    private Map<Long, TaskRollup> pendingDeltas() {
+        return TransactionCallbacks.collectUntilCommit(this, HashMap::new, this::applyDeltas);
+    }
+
+    private void applyDeltas(Map<Long, TaskRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // Spread each location's delta over its path; sorted so rows are locked in id order
+        Map<Long, TaskRollup> byNode = new TreeMap<>();
+        for (Object[] row : locationRepository.findPaths(deltas.keySet())) {
+            TaskRollup delta = deltas.get((Long) row[0]);
+            for (Long nodeId : BuildingLocation.parsePath((String) row[1])) {
+                byNode.computeIfAbsent(nodeId, id -> new TaskRollup()).add(delta, true);
+            }
+        }
+        deltas.clear();
+        if (byNode.isEmpty()) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        for (BuildingLocation location : locationRepository.findAllByIdsForUpdate(byNode.keySet())) {
+            // After midnight tasks may have become overdue without being written, so recount instead
+            boolean overdueCurrent = today.equals(location.getOverdueAsOf());
+            location.getRollup().add(byNode.get(location.getId()), overdueCurrent);
+            if (!overdueCurrent) {
+                location.getRollup().setOverdueTasks(taskRepository.countOverdueTasksUnderPath(location.getPath() + "%", today));
+                location.setOverdueAsOf(today);
+            }
+            location.setUpdatedAt(now);
+        }
+    }
+
+    private void reconcile(List<Long> buildingIds, LocalDate today) {
+        Map<Long, BuildingLocation> locations = new LinkedHashMap<>();
+        for (BuildingLocation location : locationRepository.findAllByBuildingIdsForUpdate(buildingIds)) {
+            location.setRollup(new TaskRollup());
+            locations.put(location.getId(), location);
+        }
+
+        for (Object[] row : taskRepository.countTasksGroupedByLocation(buildingIds, today)) {
+            BuildingLocation leaf = locations.get((Long) row[0]);
+            if (leaf == null) {
+                continue;
+            }
+            TaskRollup direct = rollupOf((Task.TaskStatus) row[1], ((Number) row[2]).longValue(),
+                (Number) row[3], (BigDecimal) row[4], (BigDecimal) row[5], ((Number) row[6]).longValue());
+            for (Long nodeId : leaf.getPathIds()) {
+                BuildingLocation node = locations.get(nodeId);
+                if (node != null) {
+                    node.getRollup().add(direct, true);
+                }
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (BuildingLocation location : locations.values()) {
+            location.setOverdueAsOf(today);
+            location.setUpdatedAt(now);
+        }
+    }
+
+    private static TaskRollup rollupOf(Task.TaskStatus status, long count, Number progressSum,
+                                       BigDecimal estimatedCost, BigDecimal actualCost, long overdue) {
+        TaskRollup rollup = new TaskRollup();
+        rollup.setTotalTasks(count);
+        rollup.setOverdueTasks(overdue);
+        if (status == Task.TaskStatus.CANCELLED) {
+            rollup.setCancelledTasks(count);
+            return rollup;
+        }
+        if (status == Task.TaskStatus.COMPLETED || status == Task.TaskStatus.APPROVED) {
+            rollup.setFinishedTasks(count);
+            rollup.setProgressPoints(count * 100);
+        } else {
+            rollup.setProgressPoints(progressSum != null ? progressSum.longValue() : 0L);
+        }
+        rollup.setEstimatedCost(estimatedCost != null ? estimatedCost : BigDecimal.ZERO);
+        rollup.setActualCost(actualCost != null ? actualCost : BigDecimal.ZERO);
+        return rollup;
+    }
+
+    private static void accumulate(Map<Long, TaskRollup> deltas, TaskSnapshot snapshot, int sign, LocalDate today) {
+        TaskRollup single = rollupOf(snapshot.status(), 1, snapshot.progressPercentage(),
+            snapshot.estimatedCost(), snapshot.actualCost(), snapshot.isOverdue(today) ? 1 : 0);
+
+        TaskRollup delta = deltas.computeIfAbsent(snapshot.locationId(), id -> new TaskRollup());
+        if (sign > 0) {
+            delta.add(single, true);
+        } else {
+            delta.setTotalTasks(delta.getTotalTasks() - single.getTotalTasks());
+            delta.setFinishedTasks(delta.getFinishedTasks() - single.getFinishedTasks());
+            delta.setCancelledTasks(delta.getCancelledTasks() - single.getCancelledTasks());
+            delta.setOverdueTasks(delta.getOverdueTasks() - single.getOverdueTasks());
+            delta.setProgressPoints(delta.getProgressPoints() - single.getProgressPoints());
+            delta.setEstimatedCost(delta.getEstimatedCost().subtract(single.getEstimatedCost()));
+            delta.setActualCost(delta.getActualCost().subtract(single.getActualCost()));
+        }
+    }
+
+    private BuildingLocation newLocation(Building building, BuildingLocation parent, BuildingLocation.LocationType type,
+                                         String name, Integer floorNumber) {
+        BuildingLocation location = new BuildingLocation();
+        location.setBuilding(building);
+        location.setParent(parent);
+        location.setType(type);
+        location.setName(name);
+        location.setFloorNumber(floorNumber);
+        location.setDepth(parent != null ? parent.getDepth() + 1 : 0);
+        location.setOverdueAsOf(LocalDate.now());
+        location.setUpdatedAt(LocalDateTime.now());
+        return location;
+    }
+
+    // The path includes the location's own id, which is only known once it has been saved
+    private void assignPath(BuildingLocation location) {
+        String parentPath = location.getParent() != null ? location.getParent().getPath() : "/";
+        location.setPath(parentPath + location.getId() + "/");
+    }
+
+    private Building getOwnedBuilding(Long buildingId, User user) {
+        Building building = buildingRepository.findById(buildingId)
+            .orElseThrow(() -> new RuntimeException("Building not found"));
+        if (!projectAccessIndex.isBuildingOwner(user, buildingId)) {
+            throw new IllegalArgumentException("You can only manage locations of buildings you created");
+        }
+        return building;
+    }
+
+    private void checkReadAccess(Long buildingId, User user) {
+        boolean allowed = projectAccessIndex.canManageBuilding(user, buildingId)
+            || (user.getRole() == User.Role.CONTRACTOR
+                && (projectAccessIndex.isAssignedToBuilding(user, buildingId)
+                    || projectAccessIndex.hasTaskInBuilding(user, buildingId)));
+        if (!allowed) {
+            throw new IllegalArgumentException("Access denied: You do not have access to this building");
+        }
+    }
+
+    private static List<LocationProgressResponse> buildTree(List<BuildingLocation> locations) {
+        // Parents come before their children because the list is ordered by depth
+        Map<Long, LocationProgressResponse> nodes = new HashMap<>();
+        List<LocationProgressResponse> roots = new ArrayList<>();
+        for (BuildingLocation location : locations) {
+            LocationProgressResponse node = LocationProgressResponse.fromLocation(location);
+            nodes.put(location.getId(), node);
+
+            LocationProgressResponse parent = node.getParentId() != null ? nodes.get(node.getParentId()) : null;
+            if (parent != null) {
+                parent.getChildren().add(node);
+            } else {
+                roots.add(node);
+            }
+        }
+        return roots;
+    }
+}
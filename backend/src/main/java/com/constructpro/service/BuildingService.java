@@ -2,8 +2,11 @@ package com.constructpro.service;
 
 import com.constructpro.dto.request.BuildingCreateRequest;
 import com.constructpro.entity.Building;
+import com.constructpro.entity.Notification;
 import com.constructpro.entity.User;
+import com.constructpro.repository.BuildingContractorRepository;
 import com.constructpro.repository.BuildingRepository;
+import com.constructpro.repository.TaskRepository;
 import com.constructpro.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,8 +14,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -21,8 +30,16 @@ import java.util.Optional;
 public class BuildingService {
     
     private final BuildingRepository buildingRepository;
+    private final BuildingContractorRepository buildingContractorRepository;
     private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final BuildingTaskCountersService buildingTaskCountersService;
+    private final BuildingLocationService buildingLocationService;
+    private final ProjectAccessIndex projectAccessIndex;
     private final NotificationService notificationService;
+    private final SearchIndexService searchIndexService;
+    private final BuildingGeoIndex buildingGeoIndex;
+    private final PostalCodeGeocoder postalCodeGeocoder;
     
     public Building createBuilding(BuildingCreateRequest request, User createdBy) {
         log.info("Creating new building: {} by user: {}", request.getName(), createdBy.getEmail());
@@ -39,7 +56,8 @@ public class BuildingService {
         building.setCity(request.getCity());
         building.setState(request.getState());
         building.setPostalCode(request.getPostalCode());
-        building.setCountry(request.getCountry());
+        building.setCountry(countryCode(request.getCountry()));
+        setCoordinates(building, request, true);
         building.setCreatedBy(createdBy);
         
         // Set building type
@@ -70,6 +88,13 @@ public class BuildingService {
         building.setStatus(Building.ProjectStatus.PLANNING);
         
         Building savedBuilding = buildingRepository.save(building);
+        buildingTaskCountersService.initialize(savedBuilding.getId());
+        projectAccessIndex.buildingCreated(savedBuilding.getId(), createdBy.getId());
+        if (savedBuilding.getProjectManager() != null) {
+            projectAccessIndex.invalidate(savedBuilding.getProjectManager().getId());
+        }
+        searchIndexService.indexBuilding(savedBuilding);
+        buildingGeoIndex.update(savedBuilding.getId(), savedBuilding.getLatitude(), savedBuilding.getLongitude());
         
         // Send notification to project manager if assigned
         if (building.getProjectManager() != null) {
@@ -88,6 +113,71 @@ public class BuildingService {
         return savedBuilding;
     }
     
+    /**
+     * Send an announcement to the building's project manager and active contractors.
+     * Returns the number of recipients.
+     */
+    public int announce(Long buildingId, String title, String message, User sender) {
+        Building building = buildingRepository.findById(buildingId)
+            .orElseThrow(() -> new RuntimeException("Building not found"));
+        
+        if (!projectAccessIndex.canManageBuilding(sender, building)) {
+            throw new IllegalStateException("You can only make announcements for buildings you manage");
+        }
+        
+        List<NotificationDraft> drafts = broadcast(building, sender,
+            Notification.NotificationType.BUILDING_ANNOUNCEMENT, title, message);
+        notificationService.createNotifications(drafts);
+        
+        log.info("Announcement for building {} sent to {} recipients by {}", buildingId, drafts.size(), sender.getEmail());
+        return drafts.size();
+    }
+    
+    // One draft per project manager and active contractor of the building, leaving out the sender
+    private List<NotificationDraft> broadcast(Building building, User sender, Notification.NotificationType type,
+                                              String title, String message) {
+        Set<Long> recipientIds = new LinkedHashSet<>();
+        if (building.getProjectManager() != null) {
+            recipientIds.add(building.getProjectManager().getId());
+        }
+        recipientIds.addAll(buildingContractorRepository.findActiveContractorIdsByBuildingId(building.getId()));
+        recipientIds.remove(sender.getId());
+        
+        List<NotificationDraft> drafts = new ArrayList<>(recipientIds.size());
+        for (Long recipientId : recipientIds) {
+            drafts.add(new NotificationDraft(userRepository.getReferenceById(recipientId), type, title, message,
+                building, null, sender));
+        }
+        return drafts;
+    }
+    
+    /**
+     * Buildings the user can see within the radius, nearest first, with their distance in kilometres
+     */
+    @Transactional(readOnly = true)
+    public List<NearbyBuilding> getNearbyBuildings(User user, GeoPoint center, double radiusKm, int limit) {
+        List<BuildingGeoIndex.Hit> hits = buildingGeoIndex.nearest(center, radiusKm, limit,
+            buildingId -> canView(user, buildingId));
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, Building> buildings = new HashMap<>();
+        for (Building building : buildingRepository.findAllWithUsersByIdIn(
+                hits.stream().map(BuildingGeoIndex.Hit::buildingId).toList())) {
+            buildings.put(building.getId(), building);
+        }
+        
+        List<NearbyBuilding> nearby = new ArrayList<>(hits.size());
+        for (BuildingGeoIndex.Hit hit : hits) {
+            Building building = buildings.get(hit.buildingId());
+            if (building != null) {
+                nearby.add(new NearbyBuilding(building, hit.distanceKm()));
+            }
+        }
+        return nearby;
+    }
+    
     @Transactional(readOnly = true)
     public List<Building> getAllBuildings() {
         return buildingRepository.findAllBuildingsOrderByCreatedAt();
@@ -131,22 +221,11 @@ public class BuildingService {
         
         Building savedBuilding = buildingRepository.save(building);
         
-        // Notify relevant users about status change
+        // Notify the project manager and the building's contractors in one batch
         String message = String.format("Building %s status changed from %s to %s", 
             building.getName(), oldStatus, status);
-        
-        // Notify project manager
-        if (building.getProjectManager() != null) {
-            notificationService.createNotification(
-                building.getProjectManager(),
-                "Building Status Updated",
-                message,
-                com.constructpro.entity.Notification.NotificationType.SYSTEM_UPDATE,
-                savedBuilding,
-                null,
-                null
-            );
-        }
+        notificationService.createNotifications(broadcast(savedBuilding, updatedBy,
+            Notification.NotificationType.SYSTEM_UPDATE, "Building Status Updated", message));
         
         log.info("Building {} status updated from {} to {} by user {}", 
             buildingId, oldStatus, status, updatedBy.getEmail());
@@ -163,7 +242,7 @@ public class BuildingService {
             throw new IllegalArgumentException("Only builders can update buildings");
         }
         
-        if (!building.getCreatedBy().getId().equals(updatedBy.getId())) {
+        if (!projectAccessIndex.isBuildingOwner(updatedBy, buildingId)) {
             throw new IllegalArgumentException("You can only update buildings you created");
         }
         
@@ -173,8 +252,12 @@ public class BuildingService {
         building.setAddress(request.getAddress());
         building.setCity(request.getCity());
         building.setState(request.getState());
+        // Geocoded coordinates are only replaced when what they were looked up from changes
+        boolean locationChanged = !Objects.equals(building.getPostalCode(), request.getPostalCode())
+            || !Objects.equals(building.getCountry(), countryCode(request.getCountry()));
         building.setPostalCode(request.getPostalCode());
-        building.setCountry(request.getCountry());
+        building.setCountry(countryCode(request.getCountry()));
+        setCoordinates(building, request, locationChanged);
         
         // Update building type
         try {
@@ -203,6 +286,9 @@ public class BuildingService {
             
             // Notify new project manager if changed
             if (oldProjectManager == null || !oldProjectManager.getId().equals(newProjectManager.getId())) {
+                projectAccessIndex.invalidate(oldProjectManager != null ? oldProjectManager.getId() : null,
+                    newProjectManager.getId());
+                searchIndexService.indexBuildingContents(List.of(building.getId()));
                 notificationService.createNotification(
                     newProjectManager,
                     "Project Manager Assignment",
@@ -216,11 +302,51 @@ public class BuildingService {
         }
         
         Building savedBuilding = buildingRepository.save(building);
+        searchIndexService.indexBuilding(savedBuilding);
+        buildingGeoIndex.update(savedBuilding.getId(), savedBuilding.getLatitude(), savedBuilding.getLongitude());
         
         log.info("Building {} updated by user {}", buildingId, updatedBy.getEmail());
         return savedBuilding;
     }
     
+    private boolean canView(User user, Long buildingId) {
+        return switch (user.getRole()) {
+            case ADMIN -> true;
+            case BUILDER -> projectAccessIndex.canManageBuilding(user, buildingId);
+            case CONTRACTOR -> projectAccessIndex.isAssignedToBuilding(user, buildingId)
+                || projectAccessIndex.hasTaskInBuilding(user, buildingId);
+        };
+    }
+    
+    // Explicit coordinates win; otherwise fall back to the postal code table when the location changed
+    private void setCoordinates(Building building, BuildingCreateRequest request, boolean locationChanged) {
+        if ((request.getLatitude() == null) != (request.getLongitude() == null)) {
+            throw new IllegalArgumentException("Latitude and longitude must be given together");
+        }
+        
+        if (request.getLatitude() != null) {
+            building.setLatitude(request.getLatitude());
+            building.setLongitude(request.getLongitude());
+            return;
+        }
+        if (!locationChanged) {
+            return;
+        }
+        
+        GeoPoint point = postalCodeGeocoder.lookup(building.getCountry(), request.getPostalCode()).orElse(null);
+        building.setLatitude(point != null ? point.latitude() : null);
+        building.setLongitude(point != null ? point.longitude() : null);
+    }
+    
+    // Stored as the ISO 3166 alpha-2 code the postal code table is keyed by when recognised, otherwise
+    // as entered; unrecognised countries are simply not geocoded
+    private static String countryCode(String country) {
+        if (country == null || country.isBlank()) {
+            return null;
+        }
+        return PostalCodeGeocoder.countryCode(country).orElse(country.trim());
+    }
+    
     public void deleteBuilding(Long buildingId, User deletedBy) {
         Building building = buildingRepository.findById(buildingId)
             .orElseThrow(() -> new RuntimeException("Building not found"));
@@ -230,16 +356,24 @@ public class BuildingService {
             throw new IllegalArgumentException("Only builders can delete buildings");
         }
         
-        if (!building.getCreatedBy().getId().equals(deletedBy.getId())) {
+        if (!projectAccessIndex.isBuildingOwner(deletedBy, buildingId)) {
             throw new IllegalArgumentException("You can only delete buildings you created");
         }
         
         // Check if building has active tasks
-        if (!building.getTasks().isEmpty()) {
+        if (taskRepository.existsByBuildingId(buildingId)) {
             throw new IllegalStateException("Cannot delete building with existing tasks");
         }
         
+        buildingTaskCountersService.remove(buildingId);
+        buildingLocationService.removeAll(buildingId);
         buildingRepository.delete(building);
+        projectAccessIndex.buildingDeleted(buildingId);
+        if (building.getProjectManager() != null) {
+            projectAccessIndex.invalidate(building.getProjectManager().getId());
+        }
+        searchIndexService.remove(SearchIndexService.DocumentType.BUILDING, buildingId);
+        buildingGeoIndex.remove(buildingId);
         
         log.info("Building {} deleted by user {}", buildingId, deletedBy.getEmail());
     }
@@ -253,4 +387,7 @@ public class BuildingService {
     public long getBuildingCountByStatus(Building.ProjectStatus status) {
         return buildingRepository.countBuildingsByStatus(status);
     }
+    
+    public record NearbyBuilding(Building building, double distanceKm) {
+    }
 }
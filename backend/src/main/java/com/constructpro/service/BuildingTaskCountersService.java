@@ -0,0 +1,247 @@
+package com.constructpro.service;
+
+import com.constructpro.config.SchedulingConfig;
+import com.constructpro.entity.BuildingTaskCounters;
+import com.constructpro.entity.Task;
+import com.constructpro.event.TaskChangedEvent;
+import com.constructpro.event.TaskSnapshot;
+import com.constructpro.repository.BuildingRepository;
+import com.constructpro.repository.BuildingTaskCountersRepository;
+import com.constructpro.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@link BuildingTaskCounters} in step with task writes.
+ * Task changes in a transaction are summed per building and applied to the locked counter rows
+ * just before that transaction commits, so counters and tasks commit or roll back together.
+ * A nightly reconciliation recomputes every row from the tasks table to correct any drift.
+ * Missing rows are created with an insert that skips rows another transaction created first, so
+ * concurrent writers never fail on the primary key; the row is locked after it exists.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BuildingTaskCountersService {
+
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    private final BuildingTaskCountersRepository countersRepository;
+    private final BuildingRepository buildingRepository;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLeaseService jobLeaseService;
+
+    @Transactional(readOnly = true)
+    public BuildingTaskCounters getCounters(Long buildingId) {
+        return countersRepository.findById(buildingId)
+            .orElseGet(() -> new BuildingTaskCounters(buildingId));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, BuildingTaskCounters> getCounters(Collection<Long> buildingIds) {
+        return countersRepository.findAllById(buildingIds).stream()
+            .collect(Collectors.toMap(BuildingTaskCounters::getBuildingId, Function.identity()));
+    }
+
+    /**
+     * Create the empty counter row for a new building
+     */
+    @Transactional
+    public void initialize(Long buildingId) {
+        countersRepository.insertMissing(List.of(buildingId), LocalDate.now(), LocalDateTime.now());
+    }
+
+    @Transactional
+    public void remove(Long buildingId) {
+        countersRepository.deleteById(buildingId);
+    }
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        LocalDate today = LocalDate.now();
+        Map<Long, BuildingTaskCounters> deltas = pendingDeltas();
+
+        if (event.before() != null) {
+            accumulate(deltas, event.before(), -1, today);
+        }
+        if (event.after() != null) {
+            accumulate(deltas, event.after(), 1, today);
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> applyDeltas(deltas));
+        }
+    }
+
+    /**
+     * Recompute every building's counters from its tasks
+     */
+    @Scheduled(cron = "${app.buildings.counters.reconcile-cron:0 5 0 * * *}")
+    @Async(SchedulingConfig.SCHEDULED_JOB_EXECUTOR)
+    public void reconcileAll() {
+        jobLeaseService.runExclusively("building-counters-reconcile", this::reconcileAllBuildings);
+    }
+
+    /**
+     * Build counters for buildings that predate the counters table
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Async(SchedulingConfig.SCHEDULED_JOB_EXECUTOR)
+    public void initializeMissing() {
+        jobLeaseService.runExclusively("building-counters-init", this::initializeMissingCounters);
+    }
+
+    private void reconcileAllBuildings() {
+        LocalDate today = LocalDate.now();
+        long afterId = 0L;
+        int reconciled = 0;
+
+        while (true) {
+            List<Long> buildingIds = buildingRepository.findIdsAfter(afterId, PageRequest.of(0, RECONCILE_BATCH_SIZE));
+            if (buildingIds.isEmpty()) {
+                break;
+            }
+
+            transactionTemplate.executeWithoutResult(status -> reconcile(buildingIds, today));
+            afterId = buildingIds.get(buildingIds.size() - 1);
+            reconciled += buildingIds.size();
+        }
+
+        log.info("Reconciled task counters for {} buildings", reconciled);
+    }
+
+    private void initializeMissingCounters() {
+        List<Long> missing = buildingRepository.findIdsWithoutTaskCounters();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        for (int from = 0; from < missing.size(); from += RECONCILE_BATCH_SIZE) {
+            List<Long> batch = missing.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, missing.size()));
+            transactionTemplate.executeWithoutResult(status -> reconcile(batch, today));
+        }
+
+        log.info("Initialized task counters for {} buildings", missing.size());
+    }
+
+    private Map<Long, BuildingTaskCounters> pendingDeltas() {
+        // Sorted by building id so transactions touching several buildings lock rows in the same order
+        return TransactionCallbacks.collectUntilCommit(this, TreeMap::new, this::applyDeltas);
+    }
+
+    private void applyDeltas(Map<Long, BuildingTaskCounters> deltas) {
+        LocalDate today = LocalDate.now();
+
+        deltas.forEach((buildingId, delta) -> {
+            BuildingTaskCounters counters = countersRepository.findByIdForUpdate(buildingId).orElse(null);
+            if (counters == null) {
+                // No baseline to apply the delta to; the recount already includes this transaction's writes
+                reconcile(List.of(buildingId), today);
+                return;
+            }
+
+            // After midnight tasks may have become overdue without being written, so recount instead
+            boolean overdueCurrent = today.equals(counters.getOverdueAsOf());
+            merge(counters, delta, overdueCurrent);
+            if (!overdueCurrent) {
+                counters.setOverdueTasks(taskRepository.countOverdueTasksByBuilding(buildingId, today));
+                counters.setOverdueAsOf(today);
+            }
+            counters.setUpdatedAt(LocalDateTime.now());
+        });
+        deltas.clear();
+    }
+
+    private void reconcile(List<Long> buildingIds, LocalDate today) {
+        countersRepository.insertMissing(buildingIds, today, LocalDateTime.now());
+
+        Map<Long, BuildingTaskCounters> countersById = new HashMap<>();
+        for (BuildingTaskCounters counters : countersRepository.findAllByIdsForUpdate(buildingIds)) {
+            counters.reset();
+            countersById.put(counters.getBuildingId(), counters);
+        }
+
+        for (Object[] row : taskRepository.countTasksGroupedByBuilding(buildingIds, today)) {
+            BuildingTaskCounters counters = countersById.get((Long) row[0]);
+            if (counters == null) {
+                // The building was deleted meanwhile
+                continue;
+            }
+            Task.TaskStatus status = (Task.TaskStatus) row[1];
+            long count = ((Number) row[2]).longValue();
+
+            counters.adjustCount(status, count);
+            counters.setOverdueTasks(counters.getOverdueTasks() + ((Number) row[6]).longValue());
+
+            // Same rules as TaskSnapshot.progressPoints and the cost deltas
+            if (status == Task.TaskStatus.CANCELLED) {
+                continue;
+            }
+            long progress = status == Task.TaskStatus.COMPLETED || status == Task.TaskStatus.APPROVED
+                ? count * 100
+                : row[3] != null ? ((Number) row[3]).longValue() : 0L;
+            counters.setProgressPoints(counters.getProgressPoints() + progress);
+            counters.setEstimatedCost(counters.getEstimatedCost().add(row[4] != null ? (BigDecimal) row[4] : BigDecimal.ZERO));
+            counters.setActualCost(counters.getActualCost().add(row[5] != null ? (BigDecimal) row[5] : BigDecimal.ZERO));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (BuildingTaskCounters counters : countersById.values()) {
+            counters.setOverdueAsOf(today);
+            counters.setUpdatedAt(now);
+        }
+        countersRepository.saveAll(countersById.values());
+    }
+
+    private static void accumulate(Map<Long, BuildingTaskCounters> deltas, TaskSnapshot snapshot, int sign, LocalDate today) {
+        BuildingTaskCounters delta = deltas.computeIfAbsent(snapshot.buildingId(), BuildingTaskCounters::new);
+
+        delta.adjustCount(snapshot.status(), sign);
+        delta.setProgressPoints(delta.getProgressPoints() + sign * snapshot.progressPoints());
+        if (snapshot.isOverdue(today)) {
+            delta.setOverdueTasks(delta.getOverdueTasks() + sign);
+        }
+        if (snapshot.status() != Task.TaskStatus.CANCELLED) {
+            if (snapshot.estimatedCost() != null) {
+                delta.setEstimatedCost(delta.getEstimatedCost().add(snapshot.estimatedCost().multiply(BigDecimal.valueOf(sign))));
+            }
+            if (snapshot.actualCost() != null) {
+                delta.setActualCost(delta.getActualCost().add(snapshot.actualCost().multiply(BigDecimal.valueOf(sign))));
+            }
+        }
+    }
+
+    private static void merge(BuildingTaskCounters counters, BuildingTaskCounters delta, boolean includeOverdue) {
+        for (Task.TaskStatus status : Task.TaskStatus.values()) {
+            counters.adjustCount(status, delta.getCount(status));
+        }
+        counters.setProgressPoints(counters.getProgressPoints() + delta.getProgressPoints());
+        counters.setEstimatedCost(counters.getEstimatedCost().add(delta.getEstimatedCost()));
+        counters.setActualCost(counters.getActualCost().add(delta.getActualCost()));
+        if (includeOverdue) {
+            counters.setOverdueTasks(counters.getOverdueTasks() + delta.getOverdueTasks());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.constructpro.service;
+
+import com.constructpro.entity.BatchJobRun;
+import com.constructpro.repository.BatchJobRunRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Runs a job over items read in ascending key order, one transaction per chunk.
+ * Each chunk is read with a keyset query, written, and committed together with the run's
+ * checkpoint, so no connection is held between chunks and a run that fails or dies resumes
+ * after its last committed chunk instead of starting over. Only a run started the same day is
+ * resumed; an older unfinished run belongs to an earlier trigger, so it is marked abandoned and
+ * the job starts again from the first item rather than skipping everything before the old
+ * checkpoint.
+ * A run that has failed app.batch.max-chunk-attempts times without moving its checkpoint works
+ * through the next chunk one item per transaction and skips the items that still fail, so a
+ * single bad item cannot stop the job for good.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChunkedBatchRunner {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final BatchJobRunRepository runRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.batch.max-chunk-attempts:3}")
+    private int maxChunkAttempts;
+
+    public <T> BatchJobRun run(String jobName, int chunkSize, ChunkReader<T> reader,
+                               ToLongFunction<T> keyOf, ChunkWriter<T> writer) {
+        Long runId = transactionTemplate.execute(status -> startOrResume(jobName).getId());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "completed";
+
+        try {
+            boolean more = true;
+            if (needsIsolation(runId)) {
+                more = processIsolated(runId, chunkSize, reader, keyOf, writer);
+            }
+            while (more) {
+                more = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                    processChunk(runId, chunkSize, reader, keyOf, writer)));
+            }
+            transactionTemplate.executeWithoutResult(status -> finish(runId, BatchJobRun.RunStatus.COMPLETED, null));
+        } catch (RuntimeException e) {
+            outcome = "failed";
+            log.error("Batch job {} failed; it will resume from its last checkpoint", jobName, e);
+            transactionTemplate.executeWithoutResult(status -> fail(runId, e.toString()));
+        } finally {
+            sample.stop(meterRegistry.timer("batch.job.duration", "job", jobName, "outcome", outcome));
+        }
+
+        BatchJobRun run = runRepository.findById(runId).orElseThrow();
+        log.info("Batch job {} {}: {} items read, {} written, {} skipped in {} chunks (attempt {})", jobName,
+            run.getStatus().name().toLowerCase(), run.getItemsRead(), run.getItemsWritten(), run.getItemsSkipped(),
+            run.getChunks(), run.getAttempts());
+        return run;
+    }
+
+    // An unfinished run from today is picked up where it stopped
+    private BatchJobRun startOrResume(String jobName) {
+        LocalDateTime now = LocalDateTime.now();
+        BatchJobRun previous = runRepository.findFirstByJobNameOrderByIdDesc(jobName).orElse(null);
+        boolean unfinished = previous != null && (previous.getStatus() == BatchJobRun.RunStatus.RUNNING
+            || previous.getStatus() == BatchJobRun.RunStatus.FAILED);
+        if (unfinished && !previous.getStartedAt().toLocalDate().equals(now.toLocalDate())) {
+            log.warn("Abandoning batch job {} run {} from {} at key {}; starting over", jobName, previous.getId(),
+                previous.getStartedAt().toLocalDate(), previous.getCheckpoint());
+            previous.setStatus(BatchJobRun.RunStatus.ABANDONED);
+            previous.setUpdatedAt(now);
+            previous.setFinishedAt(now);
+        } else if (unfinished) {
+            log.info("Resuming batch job {} run {} after key {}", jobName, previous.getId(), previous.getCheckpoint());
+            previous.setStatus(BatchJobRun.RunStatus.RUNNING);
+            previous.setAttempts(previous.getAttempts() + 1);
+            previous.setErrorMessage(null);
+            previous.setUpdatedAt(now);
+            return previous;
+        }
+
+        BatchJobRun run = new BatchJobRun();
+        run.setJobName(jobName);
+        run.setStatus(BatchJobRun.RunStatus.RUNNING);
+        run.setAttempts(1);
+        run.setStartedAt(now);
+        run.setUpdatedAt(now);
+        return runRepository.save(run);
+    }
+
+    private <T> boolean processChunk(Long runId, int chunkSize, ChunkReader<T> reader,
+                                     ToLongFunction<T> keyOf, ChunkWriter<T> writer) {
+        BatchJobRun run = runRepository.findById(runId).orElseThrow();
+        List<T> items = reader.read(run.getCheckpoint(), chunkSize);
+        if (items.isEmpty()) {
+            return false;
+        }
+
+        int written = writer.write(items);
+
+        run.setCheckpoint(keyOf.applyAsLong(items.get(items.size() - 1)));
+        run.setItemsRead(run.getItemsRead() + items.size());
+        run.setItemsWritten(run.getItemsWritten() + written);
+        run.setChunks(run.getChunks() + 1);
+        run.setFailuresAtCheckpoint(0);
+        run.setUpdatedAt(LocalDateTime.now());
+
+        meterRegistry.counter("batch.job.items", "job", run.getJobName(), "type", "read").increment(items.size());
+        meterRegistry.counter("batch.job.items", "job", run.getJobName(), "type", "written").increment(written);
+        return items.size() == chunkSize;
+    }
+
+    private boolean needsIsolation(Long runId) {
+        return runRepository.findById(runId)
+            .map(run -> run.getFailuresAtCheckpoint() >= maxChunkAttempts)
+            .orElse(false);
+    }
+
+    /**
+     * Work through the chunk that keeps failing one item per transaction, skipping items that fail
+     * on their own. Returns whether more items may follow.
+     */
+    private <T> boolean processIsolated(Long runId, int chunkSize, ChunkReader<T> reader,
+                                        ToLongFunction<T> keyOf, ChunkWriter<T> writer) {
+        for (int i = 0; i < chunkSize; i++) {
+            try {
+                boolean more = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                    processChunk(runId, 1, reader, keyOf, writer)));
+                if (!more) {
+                    return false;
+                }
+            } catch (RuntimeException e) {
+                transactionTemplate.executeWithoutResult(status -> skip(runId, reader, keyOf, e));
+            }
+        }
+        return true;
+    }
+
+    private <T> void skip(Long runId, ChunkReader<T> reader, ToLongFunction<T> keyOf, RuntimeException cause) {
+        BatchJobRun run = runRepository.findById(runId).orElseThrow();
+        List<T> items = reader.read(run.getCheckpoint(), 1);
+        if (items.isEmpty()) {
+            return;
+        }
+
+        long key = keyOf.applyAsLong(items.get(0));
+        log.error("Batch job {} skipping item {} after {} failed attempts", run.getJobName(), key,
+            run.getFailuresAtCheckpoint(), cause);
+        run.setCheckpoint(key);
+        run.setItemsRead(run.getItemsRead() + 1);
+        run.setItemsSkipped(run.getItemsSkipped() + 1);
+        run.setUpdatedAt(LocalDateTime.now());
+        meterRegistry.counter("batch.job.items", "job", run.getJobName(), "type", "skipped").increment();
+    }
+
+    private void fail(Long runId, String error) {
+        BatchJobRun run = runRepository.findById(runId).orElseThrow();
+        run.setFailuresAtCheckpoint(run.getFailuresAtCheckpoint() + 1);
+        finish(runId, BatchJobRun.RunStatus.FAILED, error);
+    }
+
+    private void finish(Long runId, BatchJobRun.RunStatus status, String error) {
+        BatchJobRun run = runRepository.findById(runId).orElseThrow();
+        LocalDateTime now = LocalDateTime.now();
+        run.setStatus(status);
+        run.setErrorMessage(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        run.setUpdatedAt(now);
+        if (status == BatchJobRun.RunStatus.COMPLETED) {
+            run.setFinishedAt(now);
+        }
+    }
+
+    /**
+     * Reads up to {@code limit} items with keys greater than {@code afterKey}, in key order
+     */
+    @FunctionalInterface
+    public interface ChunkReader<T> {
+        List<T> read(long afterKey, int limit);
+    }
+
+    /**
+     * Writes one chunk inside its transaction and returns how many items produced output
+     */
+    @FunctionalInterface
+    public interface ChunkWriter<T> {
+        int write(List<T> chunk);
+    }
+}
@@ -0,0 +1,226 @@
+package com.constructpro.service;
+
+import com.constructpro.dto.response.ContractorSuggestion;
+import com.constructpro.entity.Task;
+import com.constructpro.entity.User;
+import com.constructpro.event.TaskChangedEvent;
+import com.constructpro.event.TaskSnapshot;
+import com.constructpro.event.UserChangedEvent;
+import com.constructpro.repository.TaskRepository;
+import com.constructpro.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory prefix index over active contractors for the assignment picker.
+ * Name, email and specialization tokens map to contractor ids in sorted maps, so a prefix is a
+ * range lookup. Candidates are ranked by their current number of active tasks, least loaded first.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ContractorSuggestIndex {
+
+    private static final Set<Task.TaskStatus> ACTIVE_STATUSES = EnumSet.of(Task.TaskStatus.ASSIGNED, Task.TaskStatus.IN_PROGRESS);
+
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+
+    private final Map<Long, ContractorSuggestion> contractors = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> tokensByContractor = new ConcurrentHashMap<>();
+    private final NavigableMap<String, Set<Long>> nameTokens = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, Set<Long>> specializationTokens = new ConcurrentSkipListMap<>();
+    private final Map<Long, AtomicInteger> activeTaskCounts = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        contractors.clear();
+        tokensByContractor.clear();
+        nameTokens.clear();
+        specializationTokens.clear();
+
+        List<User> activeContractors = userRepository.findActiveContractors();
+        activeContractors.forEach(this::add);
+        reconcileLoad();
+
+        log.info("Contractor suggest index built with {} active contractors", activeContractors.size());
+    }
+
+    /**
+     * Replace the active task counters with the database totals to correct any drift
+     */
+    @Scheduled(initialDelayString = "${app.contractors.suggest.reconcile-interval-ms:900000}",
+               fixedDelayString = "${app.contractors.suggest.reconcile-interval-ms:900000}")
+    public void reconcileLoad() {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Object[] row : taskRepository.countActiveTasksGroupByContractor()) {
+            counts.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+
+        activeTaskCounts.keySet().retainAll(counts.keySet());
+        counts.forEach((contractorId, count) ->
+            activeTaskCounts.computeIfAbsent(contractorId, id -> new AtomicInteger()).set(count));
+    }
+
+    @EventListener
+    public synchronized void onUserChanged(UserChangedEvent event) {
+        User user = event.user();
+        remove(user.getId());
+        if (!event.deleted() && user.getRole() == User.Role.CONTRACTOR && Boolean.TRUE.equals(user.getIsActive())) {
+            add(user);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskSnapshot before = event.before();
+        TaskSnapshot after = event.after();
+
+        if (before != null && ACTIVE_STATUSES.contains(before.status())) {
+            activeTaskCounts.computeIfAbsent(before.contractorId(), id -> new AtomicInteger()).decrementAndGet();
+        }
+        if (after != null && ACTIVE_STATUSES.contains(after.status())) {
+            activeTaskCounts.computeIfAbsent(after.contractorId(), id -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Top contractors whose name or email tokens start with every word of the prefix,
+     * optionally restricted to a specialization prefix
+     */
+    public List<ContractorSuggestion> suggest(String prefix, String specialization, int limit) {
+        Set<Long> candidates = null;
+        for (String term : tokenize(prefix)) {
+            candidates = intersect(candidates, idsWithPrefix(nameTokens, term));
+        }
+        for (String term : tokenize(specialization)) {
+            candidates = intersect(candidates, idsWithPrefix(specializationTokens, term));
+        }
+        Iterable<Long> ids = candidates != null ? candidates : contractors.keySet();
+
+        // Keep the best k in a bounded heap whose head is the worst kept candidate
+        Comparator<ContractorSuggestion> ranking = Comparator
+            .comparingInt(ContractorSuggestion::getActiveTaskCount)
+            .thenComparing(suggestion -> fullName(suggestion).toLowerCase(Locale.ROOT));
+        PriorityQueue<ContractorSuggestion> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+
+        for (Long id : ids) {
+            ContractorSuggestion contractor = contractors.get(id);
+            if (contractor == null) {
+                continue;
+            }
+            best.add(withLoad(contractor));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<ContractorSuggestion> results = new ArrayList<>(best);
+        results.sort(ranking);
+        return results;
+    }
+
+    private void add(User user) {
+        contractors.put(user.getId(), new ContractorSuggestion(user.getId(), user.getFirstName(), user.getLastName(),
+            user.getEmail(), user.getSpecialization(), 0));
+
+        Set<String> tokens = new HashSet<>();
+        tokens.addAll(tokenize(user.getFirstName()));
+        tokens.addAll(tokenize(user.getLastName()));
+        tokens.addAll(tokenize(user.getEmail()));
+        if (user.getEmail() != null) {
+            tokens.add(user.getEmail().toLowerCase(Locale.ROOT));
+        }
+        for (String token : tokens) {
+            nameTokens.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(user.getId());
+        }
+
+        Set<String> specialization = new HashSet<>(tokenize(user.getSpecialization()));
+        for (String token : specialization) {
+            specializationTokens.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(user.getId());
+        }
+
+        Set<String> allTokens = new HashSet<>(tokens);
+        specialization.forEach(token -> allTokens.add("#" + token));
+        tokensByContractor.put(user.getId(), allTokens);
+    }
+
+    private void remove(Long userId) {
+        contractors.remove(userId);
+        Set<String> tokens = tokensByContractor.remove(userId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            NavigableMap<String, Set<Long>> index = token.startsWith("#") ? specializationTokens : nameTokens;
+            String key = token.startsWith("#") ? token.substring(1) : token;
+            Set<Long> ids = index.get(key);
+            if (ids != null) {
+                ids.remove(userId);
+                if (ids.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+    }
+
+    private ContractorSuggestion withLoad(ContractorSuggestion contractor) {
+        AtomicInteger load = activeTaskCounts.get(contractor.getId());
+        return new ContractorSuggestion(contractor.getId(), contractor.getFirstName(), contractor.getLastName(),
+            contractor.getEmail(), contractor.getSpecialization(), load != null ? Math.max(load.get(), 0) : 0);
+    }
+
+    private static Set<Long> idsWithPrefix(NavigableMap<String, Set<Long>> index, String prefix) {
+        Set<Long> ids = new HashSet<>();
+        for (Set<Long> matches : index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            ids.addAll(matches);
+        }
+        return ids;
+    }
+
+    private static Set<Long> intersect(Set<Long> current, Set<Long> matches) {
+        if (current == null) {
+            return matches;
+        }
+        current.retainAll(matches);
+        return current;
+    }
+
+    private static List<String> tokenize(String value) {
+        List<String> tokens = new ArrayList<>();
+        if (value == null) {
+            return tokens;
+        }
+        for (String token : value.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String fullName(ContractorSuggestion contractor) {
+        return (contractor.getFirstName() != null ? contractor.getFirstName() : "") + " "
+            + (contractor.getLastName() != null ? contractor.getLastName() : "");
+    }
+}
@@ -0,0 +1,189 @@
+package com.constructpro.service;
+
+import com.constructpro.entity.DailyDigest;
+import com.constructpro.entity.User;
+import com.constructpro.repository.DailyDigestRepository;
+import com.constructpro.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Daily digests for builders, project managers and admins. Every recipient's figures come from
+ * one grouped query over the tasks; the snapshots and their notifications are then written in
+ * chunks, one transaction and one batch insert of each per chunk. Builders and project managers
+ * get a digest of their own buildings, and active admins also get the rollup across all
+ * buildings as a separate scope. Inactive users get nothing. Recipients that already have a
+ * digest of a scope for the day are skipped, so a rerun only fills in what an interrupted run missed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DailyDigestService {
+
+    // Recipient id under which the digest query reports the totals across all buildings
+    private static final long ALL_BUILDINGS = 0L;
+
+    private final DailyDigestRepository digestRepository;
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.batch.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.digest.stalled-days:7}")
+    private int stalledDays;
+
+    @Value("${app.digest.retention-days:30}")
+    private int retentionDays;
+
+    /**
+     * Compute and store today's digests and notify every recipient whose projects need attention.
+     * Runs outside any caller transaction so each chunk commits on its own.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void generateDigests() {
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> rows = digestRepository.summarizeByRecipient(
+            today, today.plusDays(6), today.atStartOfDay().minusDays(stalledDays));
+        Set<Recipient> done = new HashSet<>();
+        for (Object[] row : digestRepository.findRecipientsByDigestDate(today)) {
+            done.add(new Recipient((Long) row[0], (DailyDigest.Scope) row[1]));
+        }
+
+        Set<Long> ownerIds = new HashSet<>();
+        for (Object[] row : rows) {
+            long recipientId = ((Number) row[0]).longValue();
+            if (recipientId != ALL_BUILDINGS) {
+                ownerIds.add(recipientId);
+            }
+        }
+        Set<Long> activeOwnerIds = ownerIds.isEmpty()
+            ? Set.of() : new HashSet<>(userRepository.findActiveIdsByIdIn(ownerIds));
+        List<User> admins = userRepository.findActiveAdmins();
+
+        // Keyed by recipient and scope, which is the table's unique key for the day
+        Map<Recipient, DailyDigest> byRecipient = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            long recipientId = ((Number) row[0]).longValue();
+            if (recipientId == ALL_BUILDINGS) {
+                for (User admin : admins) {
+                    byRecipient.putIfAbsent(new Recipient(admin.getId(), DailyDigest.Scope.ALL_BUILDINGS),
+                        toDigest(admin.getId(), DailyDigest.Scope.ALL_BUILDINGS, row, today, now));
+                }
+            } else if (activeOwnerIds.contains(recipientId)) {
+                byRecipient.putIfAbsent(new Recipient(recipientId, DailyDigest.Scope.OWN),
+                    toDigest(recipientId, DailyDigest.Scope.OWN, row, today, now));
+            }
+        }
+        byRecipient.keySet().removeAll(done);
+        List<DailyDigest> digests = new ArrayList<>(byRecipient.values());
+
+        int notified = 0;
+        for (int from = 0; from < digests.size(); from += chunkSize) {
+            List<DailyDigest> chunk = digests.subList(from, Math.min(from + chunkSize, digests.size()));
+            Integer sent = transactionTemplate.execute(status -> writeChunk(chunk));
+            notified += sent != null ? sent : 0;
+        }
+
+        Integer purged = transactionTemplate.execute(status -> digestRepository.deleteOlderThan(today.minusDays(retentionDays)));
+
+        log.info("Daily digest stored {} snapshots, sent {} notifications and purged {} old snapshots",
+            digests.size(), notified, purged);
+    }
+
+    /**
+     * The user's latest digest of the given scope; without one, their own buildings' digest, or
+     * the all-buildings rollup for an admin who has no buildings of their own
+     */
+    @Transactional(readOnly = true)
+    public Optional<DailyDigest> getLatestDigest(User user, DailyDigest.Scope scope) {
+        if (scope != null) {
+            return digestRepository.findFirstByUserIdAndScopeOrderByDigestDateDesc(user.getId(), scope);
+        }
+        Optional<DailyDigest> own = digestRepository.findFirstByUserIdAndScopeOrderByDigestDateDesc(
+            user.getId(), DailyDigest.Scope.OWN);
+        if (own.isPresent() || user.getRole() != User.Role.ADMIN) {
+            return own;
+        }
+        return digestRepository.findFirstByUserIdAndScopeOrderByDigestDateDesc(user.getId(), DailyDigest.Scope.ALL_BUILDINGS);
+    }
+
+    /**
+     * Schema updates add the scoped unique key but leave the old one on user and date in place,
+     * which would reject an admin's second digest of the day
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void dropUserDateKey() {
+        transactionTemplate.executeWithoutResult(status -> digestRepository.dropUserDateKey());
+    }
+
+    private int writeChunk(List<DailyDigest> chunk) {
+        digestRepository.saveAll(chunk);
+
+        List<NotificationService.DigestNotice> notices = new ArrayList<>();
+        for (DailyDigest digest : chunk) {
+            if (digest.needsAttention()) {
+                notices.add(new NotificationService.DigestNotice(userRepository.getReferenceById(digest.getUserId()), digest));
+            }
+        }
+        if (!notices.isEmpty()) {
+            notificationService.createDigestNotifications(notices);
+        }
+        return notices.size();
+    }
+
+    private static DailyDigest toDigest(long userId, DailyDigest.Scope scope, Object[] row, LocalDate today,
+                                        LocalDateTime now) {
+        DailyDigest digest = new DailyDigest();
+        digest.setUserId(userId);
+        digest.setDigestDate(today);
+        digest.setScope(scope);
+        digest.setBuildings(count(row[1]));
+        digest.setOpenTasks(count(row[2]));
+        digest.setOverdueTasks(count(row[3]));
+        digest.setDueThisWeek(count(row[4]));
+        digest.setPendingApprovals(count(row[5]));
+        digest.setStalledTasks(count(row[6]));
+        digest.setOverBudgetTasks(count(row[7]));
+        digest.setEstimatedCost(amount(row[8]));
+        digest.setActualCost(amount(row[9]));
+        digest.setBudgetDrift(amount(row[10]));
+        digest.setCreatedAt(now);
+        return digest;
+    }
+
+    private record Recipient(Long userId, DailyDigest.Scope scope) {
+    }
+
+    private static long count(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static BigDecimal amount(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
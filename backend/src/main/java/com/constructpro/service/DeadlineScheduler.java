@@ -0,0 +1,420 @@
+package com.constructpro.service;
+
+import com.constructpro.config.SchedulingConfig;
+import com.constructpro.entity.BatchJobRun;
+import com.constructpro.entity.Task;
+import com.constructpro.entity.TaskDeadlineEvent;
+import com.constructpro.entity.TaskDeadlineEvent.Transition;
+import com.constructpro.entity.User;
+import com.constructpro.event.TaskChangedEvent;
+import com.constructpro.event.TaskSnapshot;
+import com.constructpro.event.UserChangedEvent;
+import com.constructpro.repository.TaskDeadlineEventRepository;
+import com.constructpro.repository.TaskRepository;
+import com.constructpro.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sends deadline reminders and overdue notices from an in-memory queue of upcoming transitions
+ * (three days before, the day before, the due date, and overdue), ordered by when they fire.
+ * Every transition follows the assigned contractor's calendar: reminders fire at 09:00 and 18:00
+ * and the overdue notice at midnight after the due date, all in the contractor's timezone. Each
+ * zone's notices go out in their own small batch rather than all at once at server time, and a
+ * task's transitions always fire in order, so a due-today reminder is never overtaken by the
+ * overdue notice. Dashboards still count overdue tasks by the server's calendar.
+ * The queue is rebuilt from open tasks at startup and re-armed when a task's deadline or open state
+ * changes. Each transition is claimed in the {@link TaskDeadlineEvent} ledger before its
+ * notification is written, so it is sent once per deadline, and each tick only touches the
+ * transitions that are due. A nightly sweep over open tasks, run in checkpointed chunks, sends
+ * anything the queue missed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeadlineScheduler {
+
+    private static final Set<Task.TaskStatus> CLOSED_STATUSES = EnumSet.of(
+        Task.TaskStatus.COMPLETED, Task.TaskStatus.APPROVED, Task.TaskStatus.CANCELLED);
+    private static final Set<Task.TaskStatus> REMINDER_STATUSES = EnumSet.of(
+        Task.TaskStatus.ASSIGNED, Task.TaskStatus.IN_PROGRESS);
+
+    private static final LocalTime REMINDER_TIME = LocalTime.of(9, 0);
+    private static final LocalTime URGENT_REMINDER_TIME = LocalTime.of(18, 0);
+    private static final long RETRY_DELAY_MINUTES = 5;
+    private static final String SWEEP_JOB = "deadline-sweep";
+
+    private final TaskRepository taskRepository;
+    private final TaskDeadlineEventRepository deadlineEventRepository;
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    private final ChunkedBatchRunner batchRunner;
+    private final JobLeaseService jobLeaseService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Qualifier(SchedulingConfig.NOTIFICATION_EXECUTOR)
+    private final Executor notificationExecutor;
+
+    @Value("${app.batch.chunk-size:500}")
+    private int chunkSize;
+
+    // Guarded by this. Entries from an older arming of a task are skipped when polled.
+    private final PriorityQueue<Pending> queue = new PriorityQueue<>(
+        Comparator.comparing(Pending::fireAt).thenComparingLong(Pending::taskId));
+    private final Map<Long, Armed> armed = new HashMap<>();
+    private long nextGeneration;
+
+    private final AtomicBoolean firing = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, Armed> tasks = new HashMap<>();
+        Map<Long, Set<Transition>> fired = new HashMap<>();
+        Map<String, ZoneId> zones = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = deadlineEventRepository.streamOpenDeadlinesWithFiredTransitions()) {
+                rows.forEach(row -> {
+                    Long taskId = (Long) row[0];
+                    ZoneId zone = row[4] != null ? zones.computeIfAbsent((String) row[4], User::zoneOf) : ZoneId.systemDefault();
+                    tasks.put(taskId, new Armed(0L, (Long) row[3], (LocalDate) row[1], zone));
+                    Set<Transition> transitions = fired.computeIfAbsent(taskId, id -> EnumSet.noneOf(Transition.class));
+                    if (row[2] != null) {
+                        transitions.add((Transition) row[2]);
+                    }
+                });
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            queue.clear();
+            armed.clear();
+            tasks.forEach((taskId, task) -> arm(taskId, task.contractorId(), task.deadline(), task.zone(), fired.get(taskId), now));
+        }
+
+        log.info("Deadline scheduler armed {} transitions for {} open tasks", queue.size(), tasks.size());
+    }
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskSnapshot before = event.before();
+        TaskSnapshot after = event.after();
+
+        if (after == null) {
+            deadlineEventRepository.deleteByTaskId(before.id());
+            TransactionCallbacks.afterCommit(() -> disarm(before.id()));
+            return;
+        }
+
+        if (!isSchedulable(after)) {
+            if (before == null || isSchedulable(before)) {
+                TransactionCallbacks.afterCommit(() -> disarm(after.id()));
+            }
+            return;
+        }
+
+        // Progress and status updates between open states leave the queued transitions as they are
+        if (before == null) {
+            TransactionCallbacks.afterCommit(() ->
+                rearm(after.id(), after.contractorId(), after.deadline(), contractorZone(after.contractorId()),
+                    EnumSet.noneOf(Transition.class)));
+        } else if (!isSchedulable(before) || !Objects.equals(before.deadline(), after.deadline())
+                || !Objects.equals(before.contractorId(), after.contractorId())) {
+            TransactionCallbacks.afterCommit(() -> {
+                Set<Transition> fired = EnumSet.noneOf(Transition.class);
+                fired.addAll(deadlineEventRepository.findFiredTransitions(after.id(), after.deadline()));
+                rearm(after.id(), after.contractorId(), after.deadline(), contractorZone(after.contractorId()), fired);
+            });
+        }
+    }
+
+    /**
+     * Move a contractor's queued reminders when their timezone changes, once the change commits
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        User user = event.user();
+        if (event.deleted() || user.getRole() != User.Role.CONTRACTOR) {
+            return;
+        }
+
+        Long contractorId = user.getId();
+        ZoneId zone = user.getZoneId();
+        TransactionCallbacks.afterCommit(() -> moveToZone(contractorId, zone));
+    }
+
+    private void moveToZone(Long contractorId, ZoneId zone) {
+        Map<Long, LocalDate> moved = new HashMap<>();
+        synchronized (this) {
+            armed.forEach((taskId, task) -> {
+                if (contractorId.equals(task.contractorId()) && !zone.equals(task.zone())) {
+                    moved.put(taskId, task.deadline());
+                }
+            });
+        }
+        if (moved.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Set<Transition>> fired = new HashMap<>();
+        for (TaskDeadlineEvent firedEvent : deadlineEventRepository.findByTaskIdIn(moved.keySet())) {
+            if (firedEvent.getDeadline().equals(moved.get(firedEvent.getTaskId()))) {
+                fired.computeIfAbsent(firedEvent.getTaskId(), id -> EnumSet.noneOf(Transition.class)).add(firedEvent.getTransition());
+            }
+        }
+        moved.forEach((taskId, deadline) ->
+            rearm(taskId, contractorId, deadline, zone, fired.getOrDefault(taskId, EnumSet.noneOf(Transition.class))));
+
+        log.info("Rescheduled deadline reminders for {} tasks of contractor {} in {}", moved.size(), contractorId, zone);
+    }
+
+    /**
+     * Fire every transition whose time has come, one transaction per chunk, with chunks spread
+     * over the notification executor. Every node runs this for the tasks it has armed; the ledger
+     * claim makes sure only one of them sends each notice. Runs on the job executor so the
+     * scheduler thread is not held while chunks are written; a tick that finds the previous one
+     * still running is skipped.
+     */
+    @Scheduled(initialDelayString = "${app.deadlines.tick-ms:60000}", fixedDelayString = "${app.deadlines.tick-ms:60000}")
+    @Async(SchedulingConfig.SCHEDULED_JOB_EXECUTOR)
+    public void fireDue() {
+        if (!firing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            fireDue(LocalDateTime.now());
+        } finally {
+            firing.set(false);
+        }
+    }
+
+    private void fireDue(LocalDateTime now) {
+        List<Pending> due = pollDue(now);
+
+        List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < due.size(); from += chunkSize) {
+            List<Pending> chunk = due.subList(from, Math.min(from + chunkSize, due.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> fireChunkOrRequeue(chunk, now), notificationExecutor));
+        }
+        // Wait for this tick's chunks so the next tick never overlaps them; this is a job executor thread
+        int sent = chunks.stream().mapToInt(CompletableFuture::join).sum();
+
+        if (!due.isEmpty()) {
+            log.info("Deadline scheduler processed {} transitions and sent {} notifications", due.size(), sent);
+        }
+    }
+
+    /**
+     * Walk every open task and send the transition it is currently in if it has not fired yet.
+     * Catches anything the in-memory queue missed, for example while the application was down.
+     */
+    @Scheduled(cron = "${app.deadlines.sweep-cron:0 30 0 * * *}")
+    @Async(SchedulingConfig.SCHEDULED_JOB_EXECUTOR)
+    public void sweep() {
+        jobLeaseService.runExclusively(SWEEP_JOB, () -> {
+            LocalDateTime now = LocalDateTime.now();
+            BatchJobRun run = batchRunner.run(SWEEP_JOB, chunkSize,
+                (afterId, limit) -> taskRepository.findOpenTasksWithDeadlineAfter(afterId, PageRequest.of(0, limit)),
+                Task::getId,
+                tasks -> sweepChunk(tasks, now));
+            // The runner keeps the checkpoint; report the failure so the job lease records it
+            if (run.getStatus() == BatchJobRun.RunStatus.FAILED) {
+                throw new IllegalStateException("Deadline sweep failed: " + run.getErrorMessage());
+            }
+        });
+    }
+
+    private int fireChunkOrRequeue(List<Pending> chunk, LocalDateTime now) {
+        try {
+            Integer notified = transactionTemplate.execute(status -> fireChunk(chunk, now));
+            return notified != null ? notified : 0;
+        } catch (Exception e) {
+            log.error("Failed to fire {} deadline transitions; retrying in {} minutes",
+                chunk.size(), RETRY_DELAY_MINUTES, e);
+            chunk.forEach(pending -> requeue(pending, now.plusMinutes(RETRY_DELAY_MINUTES)));
+            return 0;
+        }
+    }
+
+    private int fireChunk(List<Pending> chunk, LocalDateTime now) {
+        Map<Long, Task> tasks = new HashMap<>();
+        for (Task task : taskRepository.findAllWithContractorAndBuildingByIdIn(
+                chunk.stream().map(Pending::taskId).collect(Collectors.toSet()))) {
+            tasks.put(task.getId(), task);
+        }
+
+        List<NotificationService.DeadlineNotice> notices = new ArrayList<>();
+        for (Pending pending : chunk) {
+            Task task = tasks.get(pending.taskId());
+            if (task != null && pending.deadline().equals(task.getDeadline()) && !isWindowClosed(pending, now)) {
+                claim(task, pending.transition(), now, notices);
+            }
+        }
+        return send(notices);
+    }
+
+    private int sweepChunk(List<Task> tasks, LocalDateTime now) {
+        Map<Long, Set<Transition>> fired = new HashMap<>();
+        Map<Long, LocalDate> deadlines = new HashMap<>();
+        tasks.forEach(task -> deadlines.put(task.getId(), task.getDeadline()));
+        for (TaskDeadlineEvent event : deadlineEventRepository.findByTaskIdIn(deadlines.keySet())) {
+            if (event.getDeadline().equals(deadlines.get(event.getTaskId()))) {
+                fired.computeIfAbsent(event.getTaskId(), id -> EnumSet.noneOf(Transition.class)).add(event.getTransition());
+            }
+        }
+
+        List<NotificationService.DeadlineNotice> notices = new ArrayList<>();
+        for (Task task : tasks) {
+            Transition current = currentTransition(task.getDeadline(), task.getAssignedContractor().getZoneId(), now);
+            if (current != null && !fired.getOrDefault(task.getId(), Set.of()).contains(current)) {
+                claim(task, current, now, notices);
+            }
+        }
+        return send(notices);
+    }
+
+    // Claims the transition in the ledger and queues its notification when the task still qualifies
+    private void claim(Task task, Transition transition, LocalDateTime now, List<NotificationService.DeadlineNotice> notices) {
+        boolean eligible = transition == Transition.OVERDUE
+            ? task.isOverdue(task.getAssignedContractor().getZoneId())
+            : REMINDER_STATUSES.contains(task.getStatus());
+        if (eligible && deadlineEventRepository.claim(task.getId(), transition.name(), task.getDeadline(), now) > 0) {
+            notices.add(new NotificationService.DeadlineNotice(task, transition));
+        }
+    }
+
+    private int send(List<NotificationService.DeadlineNotice> notices) {
+        if (!notices.isEmpty()) {
+            notificationService.createDeadlineNotifications(notices);
+        }
+        return notices.size();
+    }
+
+    private synchronized List<Pending> pollDue(LocalDateTime now) {
+        List<Pending> due = new ArrayList<>();
+        while (!queue.isEmpty() && !queue.peek().fireAt().isAfter(now)) {
+            Pending pending = queue.poll();
+            if (isArmed(pending)) {
+                due.add(pending);
+            }
+        }
+        return due;
+    }
+
+    private synchronized void requeue(Pending pending, LocalDateTime fireAt) {
+        if (isArmed(pending)) {
+            queue.add(new Pending(pending.taskId(), pending.deadline(), pending.zone(), pending.transition(), fireAt,
+                pending.generation()));
+        }
+    }
+
+    private synchronized void rearm(Long taskId, Long contractorId, LocalDate deadline, ZoneId zone, Set<Transition> fired) {
+        arm(taskId, contractorId, deadline, zone, fired, LocalDateTime.now());
+    }
+
+    private synchronized void disarm(Long taskId) {
+        armed.remove(taskId);
+    }
+
+    // Caller holds the lock
+    private boolean isArmed(Pending pending) {
+        Armed task = armed.get(pending.taskId());
+        return task != null && task.generation() == pending.generation();
+    }
+
+    // Caller holds the lock
+    private void arm(Long taskId, Long contractorId, LocalDate deadline, ZoneId zone, Set<Transition> fired, LocalDateTime now) {
+        long generation = ++nextGeneration;
+        armed.put(taskId, new Armed(generation, contractorId, deadline, zone));
+
+        for (Transition transition : Transition.values()) {
+            if (fired.contains(transition)) {
+                continue;
+            }
+            Pending pending = new Pending(taskId, deadline, zone, transition, fireTime(transition, deadline, zone), generation);
+            if (!isWindowClosed(pending, now)) {
+                queue.add(pending);
+            }
+        }
+    }
+
+    // The latest transition whose time has passed; its window is open because the next one is still ahead
+    private static Transition currentTransition(LocalDate deadline, ZoneId zone, LocalDateTime now) {
+        Transition[] transitions = Transition.values();
+        for (int i = transitions.length - 1; i >= 0; i--) {
+            if (!fireTime(transitions[i], deadline, zone).isAfter(now)) {
+                return transitions[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A reminder is stale once the next transition is due; a late "due in 3 days" for a task
+     * due tomorrow would only be noise. Overdue notices never go stale.
+     */
+    private static boolean isWindowClosed(Pending pending, LocalDateTime now) {
+        Transition[] transitions = Transition.values();
+        int next = pending.transition().ordinal() + 1;
+        return next < transitions.length && !fireTime(transitions[next], pending.deadline(), pending.zone()).isAfter(now);
+    }
+
+    // Server-local time at which a transition fires for a contractor in the given zone
+    private static LocalDateTime fireTime(Transition transition, LocalDate deadline, ZoneId zone) {
+        return switch (transition) {
+            case DUE_IN_3_DAYS -> serverTime(deadline.minusDays(3).atTime(REMINDER_TIME), zone);
+            case DUE_IN_1_DAY -> serverTime(deadline.minusDays(1).atTime(URGENT_REMINDER_TIME), zone);
+            case DUE_TODAY -> serverTime(deadline.atTime(REMINDER_TIME), zone);
+            case OVERDUE -> serverTime(deadline.plusDays(1).atStartOfDay(), zone);
+        };
+    }
+
+    private static LocalDateTime serverTime(LocalDateTime local, ZoneId zone) {
+        return local.atZone(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    private ZoneId contractorZone(Long contractorId) {
+        return contractorId != null
+            ? User.zoneOf(userRepository.findTimezoneById(contractorId).orElse(null))
+            : ZoneId.systemDefault();
+    }
+
+    private static boolean isSchedulable(TaskSnapshot snapshot) {
+        return snapshot.deadline() != null && !CLOSED_STATUSES.contains(snapshot.status());
+    }
+
+    private record Pending(long taskId, LocalDate deadline, ZoneId zone, Transition transition, LocalDateTime fireAt,
+                           long generation) {
+    }
+
+    private record Armed(long generation, Long contractorId, LocalDate deadline, ZoneId zone) {
+    }
+}
@@ -0,0 +1,297 @@
+package com.constructpro.service;
+
+import com.constructpro.config.SchedulingConfig;
+import com.constructpro.dto.response.StreamNotificationResponse;
+import com.constructpro.dto.response.StreamTaskChangeResponse;
+import com.constructpro.entity.Notification;
+import com.constructpro.entity.User;
+import com.constructpro.event.TaskChangedEvent;
+import com.constructpro.event.TaskSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connected server-sent event streams by user. Committed notifications, unread count changes and
+ * task status changes are queued on each of the recipient's connections and written by the
+ * stream executor, so no request thread is held while a connection is idle. Each connection has a
+ * bounded buffer; a client that falls that far behind is disconnected and reconnects after the
+ * retry delay rather than letting its backlog grow. Streams only carry changes committed on this
+ * node; clients reconcile by refetching when they reconnect.
+ */
+@Component
+@Slf4j
+public class EventStreamRegistry {
+
+    private final UnreadNotificationCounter unreadCounter;
+    private final Executor streamExecutor;
+    private final Counter dropped;
+    private final Counter deferred;
+
+    private final Map<Long, List<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    @Value("${app.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.stream.retry-ms:5000}")
+    private long retryMs;
+
+    @Value("${app.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${app.stream.max-connections:10000}")
+    private int maxConnections;
+
+    @Value("${app.stream.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    public EventStreamRegistry(UnreadNotificationCounter unreadCounter,
+                               @Qualifier(SchedulingConfig.STREAM_EXECUTOR) Executor streamExecutor,
+                               MeterRegistry meterRegistry) {
+        this.unreadCounter = unreadCounter;
+        this.streamExecutor = streamExecutor;
+        this.dropped = Counter.builder("stream.connections.dropped").register(meterRegistry);
+        this.deferred = Counter.builder("stream.writes.deferred").register(meterRegistry);
+        Gauge.builder("stream.connections", connectionCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Open a stream for the user. Beyond the per-user limit the user's oldest stream is closed,
+     * which is usually a tab that has gone away.
+     */
+    public SseEmitter connect(User user) {
+        // Reserve the slot first so concurrent connects cannot all pass the check
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            throw new IllegalStateException("Too many open event streams");
+        }
+
+        Connection connection = new Connection(user, new SseEmitter(timeoutMs), bufferSize);
+        connection.emitter.onCompletion(() -> remove(connection));
+        connection.emitter.onTimeout(() -> remove(connection));
+        connection.emitter.onError(e -> remove(connection));
+
+        List<Connection> userConnections = connections.computeIfAbsent(user.getId(), id -> new CopyOnWriteArrayList<>());
+        userConnections.add(connection);
+        while (userConnections.size() > maxConnectionsPerUser) {
+            close(userConnections.get(0));
+        }
+
+        // Spread reconnects after a restart so clients do not all return at once
+        long retry = retryMs + ThreadLocalRandom.current().nextLong(retryMs + 1);
+        enqueue(connection, SseEmitter.event()
+            .name("unread-count")
+            .reconnectTime(retry)
+            .data(Map.of("count", unreadCounter.get(user))));
+        return connection.emitter;
+    }
+
+    /**
+     * Push new notifications and their recipients' unread counts once the transaction commits
+     */
+    public void notificationsCreated(Collection<Notification> notifications) {
+        Map<Long, List<StreamNotificationResponse>> byUser = new HashMap<>();
+        for (Notification notification : notifications) {
+            Long userId = notification.getUser().getId();
+            if (connections.containsKey(userId)) {
+                byUser.computeIfAbsent(userId, id -> new ArrayList<>())
+                    .add(StreamNotificationResponse.fromNotification(notification));
+            }
+        }
+        if (byUser.isEmpty()) {
+            return;
+        }
+
+        TransactionCallbacks.afterCommit(() -> byUser.forEach((userId, pushed) -> {
+            pushed.forEach(notification -> send(userId, SseEmitter.event().name("notification").data(notification)));
+            sendUnreadCount(userId);
+        }));
+    }
+
+    /**
+     * Push the user's unread count once the transaction commits
+     */
+    public void unreadCountChanged(Long userId) {
+        if (connections.containsKey(userId)) {
+            TransactionCallbacks.afterCommit(() -> sendUnreadCount(userId));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskSnapshot before = event.before();
+        TaskSnapshot after = event.after();
+        if (before != null && after != null && before.status() == after.status()) {
+            return;
+        }
+
+        Set<Long> recipients = new LinkedHashSet<>();
+        for (TaskSnapshot snapshot : new TaskSnapshot[] {before, after}) {
+            if (snapshot != null) {
+                recipients.add(snapshot.contractorId());
+                recipients.add(snapshot.buildingOwnerId());
+            }
+        }
+        recipients.remove(null);
+        recipients.retainAll(connections.keySet());
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        StreamTaskChangeResponse change = StreamTaskChangeResponse.fromSnapshots(before, after);
+        recipients.forEach(userId -> send(userId, SseEmitter.event().name("task").data(change)));
+    }
+
+    /**
+     * Comment lines keep proxies from closing idle streams and reveal connections that have gone away.
+     * Each is queued like any other event, so it is written by the connection's own drain task, in
+     * order with its events; the same pass reschedules writes that could not be scheduled earlier.
+     */
+    @Scheduled(fixedDelayString = "${app.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        connections.values().forEach(userConnections -> userConnections.forEach(connection -> {
+            if (!connection.closed.get()) {
+                // A full buffer already has writes pending, which do the heartbeat's job
+                connection.buffer.offer(SseEmitter.event().comment("heartbeat"));
+                schedule(connection);
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(userConnections -> userConnections.forEach(this::close));
+    }
+
+    private void sendUnreadCount(Long userId) {
+        List<Connection> userConnections = connections.get(userId);
+        if (userConnections == null || userConnections.isEmpty()) {
+            return;
+        }
+        long count = unreadCounter.get(userConnections.get(0).user);
+        send(userId, SseEmitter.event().name("unread-count").data(Map.of("count", count)));
+    }
+
+    private void send(Long userId, SseEmitter.SseEventBuilder event) {
+        List<Connection> userConnections = connections.get(userId);
+        if (userConnections != null) {
+            userConnections.forEach(connection -> enqueue(connection, event));
+        }
+    }
+
+    private void enqueue(Connection connection, SseEmitter.SseEventBuilder event) {
+        if (connection.closed.get()) {
+            return;
+        }
+        if (!connection.buffer.offer(event)) {
+            log.info("Closing event stream of user {}: {} events behind", connection.userId, bufferSize);
+            drop(connection);
+            return;
+        }
+        schedule(connection);
+    }
+
+    private void schedule(Connection connection) {
+        if (connection.draining.compareAndSet(false, true)) {
+            try {
+                streamExecutor.execute(() -> drain(connection));
+            } catch (RejectedExecutionException e) {
+                // The events stay buffered; the next event or heartbeat schedules the write again
+                connection.draining.set(false);
+                deferred.increment();
+            }
+        }
+    }
+
+    // Writes run one at a time per connection, in the order the events were queued. Callers set
+    // the draining flag first.
+    private void drain(Connection connection) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!connection.closed.get() && (event = connection.buffer.poll()) != null) {
+                connection.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Event stream of user {} went away", connection.userId);
+            close(connection);
+        } finally {
+            connection.draining.set(false);
+        }
+        // An event queued after the last poll but before the flag was cleared
+        if (!connection.closed.get() && !connection.buffer.isEmpty()) {
+            schedule(connection);
+        }
+    }
+
+    private void drop(Connection connection) {
+        dropped.increment();
+        close(connection);
+    }
+
+    private void close(Connection connection) {
+        if (connection.closed.compareAndSet(false, true)) {
+            remove(connection);
+            connection.buffer.clear();
+            try {
+                connection.emitter.complete();
+            } catch (RuntimeException e) {
+                log.debug("Event stream of user {} was already closed", connection.userId);
+            }
+        }
+    }
+
+    private void remove(Connection connection) {
+        connection.closed.set(true);
+        List<Connection> userConnections = connections.get(connection.userId);
+        if (userConnections != null && userConnections.remove(connection)) {
+            connectionCount.decrementAndGet();
+            if (userConnections.isEmpty()) {
+                connections.remove(connection.userId, userConnections);
+            }
+        }
+    }
+
+    private static final class Connection {
+        private final User user;
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Connection(User user, SseEmitter emitter, int bufferSize) {
+            this.user = user;
+            this.userId = Objects.requireNonNull(user.getId());
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
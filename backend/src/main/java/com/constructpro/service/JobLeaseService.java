@@ -0,0 +1,165 @@
+package com.constructpro.service;
+
+import com.constructpro.entity.JobLease;
+import com.constructpro.repository.JobLeaseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs cluster-wide scheduled jobs on one node per trigger.
+ * A job runs only on the node that takes its row in job_leases, through a conditional update that
+ * works on any database. While the job runs, the lease is renewed periodically. If the holder
+ * dies, the lease expires and the next trigger on another node takes it over. When a run finishes,
+ * the lease is kept for a short hold, so a node whose clock fires the same trigger slightly later
+ * skips that trigger instead of running it again. That only works when the nodes' triggers line
+ * up, so leased jobs are scheduled with cron expressions rather than fixed delays, which start
+ * counting from each node's own startup and would let every node run the job in turn.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobLeaseService {
+
+    private final JobLeaseRepository leaseRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> heldLeases = ConcurrentHashMap.newKeySet();
+
+    private TransactionTemplate requiresNew;
+    private String nodeId;
+
+    @Value("${app.jobs.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${app.jobs.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${app.jobs.min-hold-seconds:60}")
+    private long minHoldSeconds;
+
+    @PostConstruct
+    void init() {
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        nodeId = configuredNodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : configuredNodeId;
+        log.info("Scheduled job leases will be taken as node {}", nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Run the job if this node wins its lease for the current trigger; other nodes skip it, as does
+     * this node while an earlier run of the job is still going here. Lease bookkeeping commits on
+     * its own, independent of any transaction the job runs in. A job that throws is recorded as
+     * failed and the exception is passed on to the caller.
+     */
+    public boolean runExclusively(String jobName, Runnable job) {
+        // The lease query lets its owner re-acquire, so overlapping runs on this node are stopped here
+        if (!heldLeases.add(jobName)) {
+            log.debug("Skipping job {}; a previous run is still going on this node", jobName);
+            meterRegistry.counter("scheduled.job.skipped", "job", jobName).increment();
+            return false;
+        }
+
+        boolean acquired = false;
+        try {
+            acquired = tryAcquire(jobName);
+        } finally {
+            if (!acquired) {
+                heldLeases.remove(jobName);
+            }
+        }
+        if (!acquired) {
+            log.debug("Skipping job {}; its lease is held by another node", jobName);
+            meterRegistry.counter("scheduled.job.skipped", "job", jobName).increment();
+            return false;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        JobLease.RunOutcome outcome = JobLease.RunOutcome.FAILED;
+        try {
+            job.run();
+            outcome = JobLease.RunOutcome.SUCCEEDED;
+            return true;
+        } finally {
+            heldLeases.remove(jobName);
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            recordRun(jobName, startedAt, durationMs, outcome);
+            meterRegistry.timer("scheduled.job.duration", "job", jobName, "outcome", outcome.name().toLowerCase())
+                .record(durationMs, TimeUnit.MILLISECONDS);
+            log.info("Job {} {} on node {} in {} ms", jobName, outcome.name().toLowerCase(), nodeId, durationMs);
+        }
+    }
+
+    public List<JobLease> getLeases() {
+        return leaseRepository.findAllByOrderByJobNameAsc();
+    }
+
+    /**
+     * Extend the leases of jobs still running here so a long run is not taken over
+     */
+    @Scheduled(fixedDelayString = "${app.jobs.renew-interval-ms:60000}")
+    public void renewHeldLeases() {
+        if (heldLeases.isEmpty()) {
+            return;
+        }
+        List<String> jobNames = new ArrayList<>(heldLeases);
+        requiresNew.executeWithoutResult(status ->
+            leaseRepository.renew(jobNames, nodeId, LocalDateTime.now().plusSeconds(leaseSeconds)));
+    }
+
+    private boolean tryAcquire(String jobName) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!leaseRepository.existsById(jobName)) {
+            try {
+                requiresNew.executeWithoutResult(status -> leaseRepository.saveAndFlush(new JobLease(jobName, now.minusSeconds(1))));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created it first; compete for it below
+            }
+        }
+
+        Integer updated = requiresNew.execute(status ->
+            leaseRepository.acquire(jobName, nodeId, now, now.plusSeconds(leaseSeconds)));
+        return updated != null && updated == 1;
+    }
+
+    private void recordRun(String jobName, LocalDateTime startedAt, long durationMs, JobLease.RunOutcome outcome) {
+        try {
+            requiresNew.executeWithoutResult(status -> leaseRepository.findById(jobName).ifPresent(lease -> {
+                LocalDateTime now = LocalDateTime.now();
+                lease.setLastRunNode(nodeId);
+                lease.setLastStartedAt(startedAt);
+                lease.setLastFinishedAt(now);
+                lease.setLastDurationMs(durationMs);
+                lease.setLastOutcome(outcome);
+                lease.setRunCount(lease.getRunCount() + 1);
+                if (nodeId.equals(lease.getOwner())) {
+                    lease.setExpiresAt(now.plusSeconds(minHoldSeconds));
+                }
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Failed to record run of job {}", jobName, e);
+        }
+    }
+}
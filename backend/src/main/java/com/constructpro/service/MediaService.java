@@ -1,5 +1,6 @@
 package com.constructpro.service;
 
+import com.constructpro.config.SchedulingConfig;
 import com.constructpro.entity.Media;
 import com.constructpro.entity.User;
 import com.constructpro.entity.Task;
@@ -11,14 +12,20 @@ import com.constructpro.repository.BuildingRepository;
 import com.constructpro.dto.*;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import java.util.Base64;
 
@@ -38,15 +45,40 @@ public class MediaService {
     @Autowired
     private BuildingRepository buildingRepository;
 
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ProjectAccessIndex projectAccessIndex;
+
+    @Autowired
+    @Qualifier(SchedulingConfig.MEDIA_EXECUTOR)
+    private Executor mediaExecutor;
+
+    // Files of one upload request encoded at the same time
+    @Value("${app.media.upload-parallelism:4}")
+    private int uploadParallelism;
+
     public MediaUploadResponse uploadFile(MultipartFile file, Long taskId, Long buildingId, String username) throws Exception {
+        UploadTarget target = authorize(taskId, buildingId, username);
+        try {
+            return store(file, encode(file), target);
+        } catch (Exception e) {
+            throw new Exception("Failed to upload file: " + e.getMessage());
+        }
+    }
+
+    // Checks the user may upload to the task and building and loads them
+    private UploadTarget authorize(Long taskId, Long buildingId, String username) throws Exception {
         try {
             // Get user
             User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
             // Validate user access to task/building
+            Task task = null;
             if (taskId != null) {
-                Task task = taskRepository.findById(taskId)
+                task = taskRepository.findById(taskId)
                     .orElseThrow(() -> new RuntimeException("Task not found"));
                 
                 // Contractors can only upload to their own tasks
@@ -57,86 +89,105 @@ public class MediaService {
                 
                 // Builders can only upload to tasks in buildings they created
                 if (user.getRole() == User.Role.BUILDER && 
-                    !task.getBuilding().getCreatedBy().getId().equals(user.getId())) {
+                    !projectAccessIndex.isTaskBuildingOwner(user, task)) {
                     throw new RuntimeException("You can only upload media to tasks in buildings you created");
                 }
             }
 
+            Building building = null;
             if (buildingId != null) {
-                Building building = buildingRepository.findById(buildingId)
+                building = buildingRepository.findById(buildingId)
                     .orElseThrow(() -> new RuntimeException("Building not found"));
                 
                 // Only builders can upload to buildings they created
                 if (user.getRole() == User.Role.BUILDER && 
-                    !building.getCreatedBy().getId().equals(user.getId())) {
+                    !projectAccessIndex.isBuildingOwner(user, buildingId)) {
                     throw new RuntimeException("You can only upload media to buildings you created");
                 }
                 
                 // Contractors can only upload to buildings they're assigned to
                 if (user.getRole() == User.Role.CONTRACTOR) {
-                    // Check if contractor is assigned to this building
-                    boolean isAssigned = building.getTasks().stream()
-                        .anyMatch(task -> task.getAssignedContractor().getId().equals(user.getId()));
-                    if (!isAssigned) {
+                    // Check if contractor has a task in this building
+                    if (!projectAccessIndex.hasTaskInBuilding(user, buildingId)) {
                         throw new RuntimeException("You can only upload media to buildings you're assigned to");
                     }
                 }
             }
 
-            // Generate unique ID
-            String mediaId = UUID.randomUUID().toString();
-
-            // Encode file to base64
-            String fileData = Base64.getEncoder().encodeToString(file.getBytes());
+            return new UploadTarget(user, task, building);
+        } catch (Exception e) {
+            throw new Exception("Failed to upload file: " + e.getMessage());
+        }
+    }
 
-            // Create media entity
-            Media media = new Media(mediaId, mediaId, file.getOriginalFilename(), 
-                                  file.getContentType(), file.getSize(), fileData);
-            media.setUploadedBy(user);
+    private MediaUploadResponse store(MultipartFile file, String fileData, UploadTarget target) {
+        // Generate unique ID
+        String mediaId = UUID.randomUUID().toString();
 
-            // Set task if provided
-            if (taskId != null) {
-                Task task = taskRepository.findById(taskId).orElse(null);
-                media.setTask(task);
-            }
+        // Create media entity
+        Media media = new Media(mediaId, mediaId, file.getOriginalFilename(), 
+                              file.getContentType(), file.getSize(), fileData);
+        media.setUploadedBy(target.user());
+        media.setTask(target.task());
+        media.setBuilding(target.building());
 
-            // Set building if provided
-            if (buildingId != null) {
-                Building building = buildingRepository.findById(buildingId).orElse(null);
-                media.setBuilding(building);
-            }
+        // Save media
+        media = mediaRepository.save(media);
+        searchIndexService.indexMedia(media);
 
-            // Save media
-            media = mediaRepository.save(media);
-
-            // Return response
-            return new MediaUploadResponse(
-                media.getId(),
-                "/api/media/view/" + media.getId(),
-                media.getFileName(),
-                media.getOriginalName(),
-                media.getMimeType(),
-                media.getFileSize(),
-                media.getUploadedAt().toString()
-            );
-
-        } catch (Exception e) {
-            throw new Exception("Failed to upload file: " + e.getMessage());
-        }
+        // Return response
+        return new MediaUploadResponse(
+            media.getId(),
+            "/api/media/view/" + media.getId(),
+            media.getFileName(),
+            media.getOriginalName(),
+            media.getMimeType(),
+            media.getFileSize(),
+            media.getUploadedAt().toString()
+        );
     }
 
+    /**
+     * Access is checked once for the whole request, before any file is read. Files are then
+     * encoded on the media executor a few at a time and each group is saved before the next is
+     * read, so a large request holds at most that many encoded files besides those already saved.
+     */
     public List<MediaUploadResponse> uploadMultipleFiles(MultipartFile[] files, Long taskId, Long buildingId, String username) throws Exception {
+        UploadTarget target = authorize(taskId, buildingId, username);
+        List<MultipartFile> uploads = Arrays.stream(files)
+            .filter(file -> !file.isEmpty())
+            .collect(Collectors.toList());
+
         List<MediaUploadResponse> responses = new ArrayList<>();
-        
-        for (MultipartFile file : files) {
-            if (!file.isEmpty()) {
-                responses.add(uploadFile(file, taskId, buildingId, username));
+        int parallelism = Math.max(1, uploadParallelism);
+        for (int from = 0; from < uploads.size(); from += parallelism) {
+            List<MultipartFile> group = uploads.subList(from, Math.min(from + parallelism, uploads.size()));
+            List<CompletableFuture<String>> encodings = group.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> encode(file), mediaExecutor))
+                .collect(Collectors.toList());
+
+            for (int i = 0; i < group.size(); i++) {
+                try {
+                    responses.add(store(group.get(i), encodings.get(i).join(), target));
+                } catch (CompletionException e) {
+                    throw new Exception("Failed to upload file: " + e.getCause().getMessage());
+                } catch (Exception e) {
+                    throw new Exception("Failed to upload file: " + e.getMessage());
+                }
             }
         }
         
         return responses;
     }
 
+    private static String encode(MultipartFile file) {
+        try {
+            return Base64.getEncoder().encodeToString(file.getBytes());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read " + file.getOriginalFilename(), e);
+        }
+    }
+
     public Optional<Media> getMedia(String mediaId) {
         return mediaRepository.findById(mediaId);
     }
@@ -151,11 +202,11 @@ public class MediaService {
         } else if (requestingUser.getRole() == User.Role.BUILDER) {
             // Builders can only delete media from buildings they created
             if (media.getBuilding() != null && 
-                !media.getBuilding().getCreatedBy().getId().equals(requestingUser.getId())) {
+                !projectAccessIndex.isBuildingOwner(requestingUser, media.getBuilding().getId())) {
                 throw new RuntimeException("You can only delete media from buildings you created");
             }
             if (media.getTask() != null && 
-                !media.getTask().getBuilding().getCreatedBy().getId().equals(requestingUser.getId())) {
+                !projectAccessIndex.isTaskBuildingOwner(requestingUser, media.getTask())) {
                 throw new RuntimeException("You can only delete media from tasks in buildings you created");
             }
         } else if (requestingUser.getRole() == User.Role.CONTRACTOR) {
@@ -168,6 +219,7 @@ public class MediaService {
         }
         
         mediaRepository.deleteById(mediaId);
+        searchIndexService.remove(SearchIndexService.DocumentType.MEDIA, mediaId);
         return true;
     }
 
@@ -253,4 +305,7 @@ public class MediaService {
             "/api/media/view/" + media.getId()
         );
     }
+
+    private record UploadTarget(User user, Task task, Building building) {
+    }
 }
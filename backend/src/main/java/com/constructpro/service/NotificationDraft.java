@@ -0,0 +1,36 @@
+package com.constructpro.service;
+
+import com.constructpro.entity.Building;
+import com.constructpro.entity.Notification;
+import com.constructpro.entity.Task;
+import com.constructpro.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification to be written by {@link NotificationService#createNotifications}. Recipients and
+ * related entities may be unloaded references; only their ids are written.
+ */
+public record NotificationDraft(User recipient, Notification.NotificationType type, String title, String message,
+                                Building relatedBuilding, Task relatedTask, User relatedUser,
+                                String actionUrl, LocalDateTime expiresAt) {
+
+    public NotificationDraft(User recipient, Notification.NotificationType type, String title, String message) {
+        this(recipient, type, title, message, null, null, null);
+    }
+
+    public NotificationDraft(User recipient, Notification.NotificationType type, String title, String message,
+                             Building relatedBuilding, Task relatedTask, User relatedUser) {
+        this(recipient, type, title, message, relatedBuilding, relatedTask, relatedUser, null, null);
+    }
+
+    public Notification toNotification() {
+        Notification notification = new Notification(recipient, type, title, message);
+        notification.setRelatedBuilding(relatedBuilding);
+        notification.setRelatedTask(relatedTask);
+        notification.setRelatedUser(relatedUser);
+        notification.setActionUrl(actionUrl);
+        notification.setExpiresAt(expiresAt);
+        return notification;
+    }
+}
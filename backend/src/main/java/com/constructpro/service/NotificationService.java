@@ -1,17 +1,31 @@
 package com.constructpro.service;
 
 import com.constructpro.entity.Building;
+import com.constructpro.entity.BuildingContractor;
+import com.constructpro.entity.DailyDigest;
 import com.constructpro.entity.Notification;
+import com.constructpro.entity.NotificationReadState;
 import com.constructpro.entity.Task;
+import com.constructpro.entity.TaskDeadlineEvent;
 import com.constructpro.entity.User;
+import com.constructpro.repository.NotificationReadStateRepository;
 import com.constructpro.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -19,25 +33,36 @@ import java.util.List;
 @Transactional
 public class NotificationService {
     
+    private static final String REMINDER_TITLE = "Deadline Reminder";
+    private static final String OVERDUE_TITLE = "Task Overdue";
+    
     private final NotificationRepository notificationRepository;
+    private final NotificationReadStateRepository readStateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadNotificationCounter unreadCounter;
+    private final EventStreamRegistry eventStreams;
     
     public Notification createNotification(User user, String title, String message, 
                                          Notification.NotificationType type,
                                          Building relatedBuilding, Task relatedTask, User relatedUser) {
-        Notification notification = new Notification();
-        notification.setUser(user);
-        notification.setTitle(title);
-        notification.setMessage(message);
-        notification.setType(type);
-        notification.setRelatedBuilding(relatedBuilding);
-        notification.setRelatedTask(relatedTask);
-        notification.setRelatedUser(relatedUser);
-        notification.setIsRead(false);
+        return createNotifications(List.of(
+            new NotificationDraft(user, type, title, message, relatedBuilding, relatedTask, relatedUser))).get(0);
+    }
+    
+    /**
+     * Write notifications as JDBC batch inserts; ids come from the pooled sequence, so no row
+     * needs its own round trip
+     */
+    public List<Notification> createNotifications(Collection<NotificationDraft> drafts) {
+        List<Notification> notifications = new ArrayList<>(drafts.size());
+        for (NotificationDraft draft : drafts) {
+            notifications.add(draft.toNotification());
+        }
         
-        Notification savedNotification = notificationRepository.save(notification);
+        List<Notification> savedNotifications = save(notifications);
         
-        log.info("Notification created for user {} with type {}", user.getEmail(), type);
-        return savedNotification;
+        log.debug("Created {} notifications", savedNotifications.size());
+        return savedNotifications;
     }
     
     public Notification createTaskAssignedNotification(Task task) {
@@ -56,6 +81,81 @@ public class NotificationService {
         );
     }
     
+    /**
+     * One notification per contractor and building for a batch of newly assigned tasks
+     */
+    public List<Notification> createBulkTaskAssignedNotifications(List<Task> tasks) {
+        Map<List<Long>, List<Task>> tasksByContractorAndBuilding = tasks.stream()
+            .collect(Collectors.groupingBy(
+                task -> List.of(task.getAssignedContractor().getId(), task.getBuilding().getId()),
+                LinkedHashMap::new,
+                Collectors.toList()));
+        
+        List<NotificationDraft> drafts = new ArrayList<>();
+        
+        for (List<Task> group : tasksByContractorAndBuilding.values()) {
+            Task first = group.get(0);
+            
+            if (group.size() == 1) {
+                drafts.add(new NotificationDraft(
+                    first.getAssignedContractor(),
+                    Notification.NotificationType.TASK_ASSIGNED,
+                    "New Task Assigned",
+                    String.format("You have been assigned a new task: %s for building %s. Deadline: %s", 
+                        first.getName(), first.getBuilding().getName(), first.getDeadline()),
+                    first.getBuilding(),
+                    first,
+                    first.getCreatedBy()
+                ));
+                continue;
+            }
+            
+            LocalDate earliestDeadline = group.stream()
+                .map(Task::getDeadline)
+                .min(LocalDate::compareTo)
+                .orElse(first.getDeadline());
+            
+            drafts.add(new NotificationDraft(
+                first.getAssignedContractor(),
+                Notification.NotificationType.TASK_ASSIGNED,
+                "New Tasks Assigned",
+                String.format("You have been assigned %d new tasks for building %s. Earliest deadline: %s", 
+                    group.size(), first.getBuilding().getName(), earliestDeadline),
+                first.getBuilding(),
+                null,
+                first.getCreatedBy()
+            ));
+        }
+        
+        List<Notification> savedNotifications = createNotifications(drafts);
+        
+        log.info("Created {} task assignment notifications for {} tasks", savedNotifications.size(), tasks.size());
+        return savedNotifications;
+    }
+    
+    public List<Notification> createContractorAssignedNotifications(List<BuildingContractor> assignments) {
+        List<NotificationDraft> drafts = new ArrayList<>(assignments.size());
+        
+        for (BuildingContractor assignment : assignments) {
+            drafts.add(new NotificationDraft(
+                assignment.getContractor(),
+                Notification.NotificationType.CONTRACTOR_ASSIGNED,
+                "Assigned to New Building",
+                String.format("You have been assigned to building: %s. Role: %s", 
+                    assignment.getBuilding().getName(), 
+                    assignment.getRoleInProject() != null ? assignment.getRoleInProject() : "General Contractor"),
+                assignment.getBuilding(),
+                null,
+                assignment.getAssignedBy()
+            ));
+        }
+        
+        List<Notification> savedNotifications = createNotifications(drafts);
+        
+        log.info("Created {} contractor assignment notifications", savedNotifications.size());
+        return savedNotifications;
+    }
+    
     public Notification createTaskCompletedNotification(Task task) {
         String title = "Task Completion Request";
         String message = String.format("Contractor %s has marked task '%s' as completed and is requesting approval", 
@@ -108,14 +208,10 @@ public class NotificationService {
     }
     
     public Notification createTaskOverdueNotification(Task task) {
-        String title = "Task Overdue";
-        String message = String.format("Task '%s' for building %s is overdue by %d days", 
-            task.getName(), task.getBuilding().getName(), task.getDaysOverdue());
-        
         return createNotification(
             task.getAssignedContractor(),
-            title,
-            message,
+            OVERDUE_TITLE,
+            overdueMessage(task),
             Notification.NotificationType.TASK_OVERDUE,
             task.getBuilding(),
             task,
@@ -123,15 +219,33 @@ public class NotificationService {
         );
     }
     
-    public Notification createDeadlineReminderNotification(Task task, int daysUntilDeadline) {
-        String title = "Deadline Reminder";
-        String message = String.format("Task '%s' is due in %d day(s). Please ensure timely completion.", 
-            task.getName(), daysUntilDeadline);
+    public List<Notification> createTaskUnblockedNotifications(List<Task> tasks) {
+        List<NotificationDraft> drafts = new ArrayList<>(tasks.size());
         
+        for (Task task : tasks) {
+            drafts.add(new NotificationDraft(
+                task.getAssignedContractor(),
+                Notification.NotificationType.TASK_UNBLOCKED,
+                "Task Ready to Start",
+                String.format("All dependencies of task '%s' for building %s have been approved. You can start work now.", 
+                    task.getName(), task.getBuilding().getName()),
+                task.getBuilding(),
+                task,
+                null
+            ));
+        }
+        
+        List<Notification> savedNotifications = createNotifications(drafts);
+        
+        log.info("Created {} task unblocked notifications", savedNotifications.size());
+        return savedNotifications;
+    }
+    
+    public Notification createDeadlineReminderNotification(Task task, int daysUntilDeadline) {
         return createNotification(
             task.getAssignedContractor(),
-            title,
-            message,
+            REMINDER_TITLE,
+            reminderMessage(task, daysUntilDeadline),
             Notification.NotificationType.DEADLINE_REMINDER,
             task.getBuilding(),
             task,
@@ -139,9 +253,89 @@ public class NotificationService {
         );
     }
     
+    /**
+     * Deadline reminders and overdue notices for a chunk of tasks, written as one batch insert
+     */
+    public List<Notification> createDeadlineNotifications(List<DeadlineNotice> notices) {
+        List<NotificationDraft> drafts = new ArrayList<>(notices.size());
+        
+        for (DeadlineNotice notice : notices) {
+            Task task = notice.task();
+            User contractor = task.getAssignedContractor();
+            drafts.add(switch (notice.transition()) {
+                case DUE_IN_3_DAYS, DUE_TODAY -> new NotificationDraft(contractor,
+                    Notification.NotificationType.DEADLINE_REMINDER, REMINDER_TITLE,
+                    reminderMessage(task, (int) Math.max(0, task.getDaysUntilDeadline())),
+                    task.getBuilding(), task, null);
+                case DUE_IN_1_DAY -> new NotificationDraft(contractor,
+                    Notification.NotificationType.DEADLINE_REMINDER, "URGENT: Task Due Tomorrow",
+                    String.format("Task '%s' for building %s is due tomorrow! Please ensure completion.", 
+                        task.getName(), task.getBuilding().getName()),
+                    task.getBuilding(), task, null);
+                case OVERDUE -> new NotificationDraft(contractor,
+                    Notification.NotificationType.TASK_OVERDUE, OVERDUE_TITLE, overdueMessage(task),
+                    task.getBuilding(), task, null);
+            });
+        }
+        
+        List<Notification> savedNotifications = createNotifications(drafts);
+        
+        log.info("Created {} deadline notifications", savedNotifications.size());
+        return savedNotifications;
+    }
+    
+    /**
+     * Daily digest notifications for a chunk of recipients, written as one batch insert
+     */
+    public List<Notification> createDigestNotifications(List<DigestNotice> notices) {
+        List<NotificationDraft> drafts = new ArrayList<>(notices.size());
+        
+        for (DigestNotice notice : notices) {
+            // Superseded by the next day's digest
+            drafts.add(new NotificationDraft(notice.user(), Notification.NotificationType.DAILY_DIGEST,
+                digestTitle(notice.digest()), digestMessage(notice.digest()), null, null, null,
+                "/dashboard", notice.digest().getDigestDate().plusDays(2).atStartOfDay()));
+        }
+        
+        List<Notification> savedNotifications = createNotifications(drafts);
+        
+        log.info("Created {} daily digest notifications", savedNotifications.size());
+        return savedNotifications;
+    }
+    
+    private static String reminderMessage(Task task, int daysUntilDeadline) {
+        return daysUntilDeadline == 0
+            ? String.format("Task '%s' is due today. Please ensure timely completion.", task.getName())
+            : String.format("Task '%s' is due in %d day(s). Please ensure timely completion.", 
+                task.getName(), daysUntilDeadline);
+    }
+    
+    private static String digestTitle(DailyDigest digest) {
+        return digest.getScope() == DailyDigest.Scope.ALL_BUILDINGS
+            ? "Daily Project Digest: All Buildings" : "Daily Project Digest";
+    }
+    
+    private static String digestMessage(DailyDigest digest) {
+        return String.format("%d open tasks across %d buildings: %d overdue, %d due this week, " +
+                "%d awaiting approval, %d stalled, %d over budget (budget drift %s)",
+            digest.getOpenTasks(), digest.getBuildings(), digest.getOverdueTasks(), digest.getDueThisWeek(),
+            digest.getPendingApprovals(), digest.getStalledTasks(), digest.getOverBudgetTasks(),
+            digest.getBudgetDrift().toPlainString());
+    }
+    
+    // Counted on the contractor's calendar, like the overdue notice itself
+    private static String overdueMessage(Task task) {
+        return String.format("Task '%s' for building %s is overdue by %d days", 
+            task.getName(), task.getBuilding().getName(),
+            task.getDaysOverdue(task.getAssignedContractor().getZoneId()));
+    }
+    
     @Transactional(readOnly = true)
     public List<Notification> getUserNotifications(User user) {
-        return notificationRepository.findByUserOrderByCreatedAtDesc(user);
+        List<Notification> notifications = notificationRepository.findByUserOrderByCreatedAtDesc(user);
+        readStateRepository.findById(user.getId())
+            .ifPresent(state -> applyWatermark(notifications, state.getReadUpTo()));
+        return notifications;
     }
     
     @Transactional(readOnly = true)
@@ -149,9 +343,10 @@ public class NotificationService {
         return notificationRepository.findUnreadNotificationsByUser(user);
     }
     
-    @Transactional(readOnly = true)
+    // Served from memory; no transaction so a poll does not take a connection
+    @Transactional(propagation = Propagation.SUPPORTS)
     public long getUnreadNotificationCount(User user) {
-        return notificationRepository.countUnreadNotificationsByUser(user);
+        return unreadCounter.get(user);
     }
     
     public Notification markAsRead(Long notificationId, User user) {
@@ -162,19 +357,58 @@ public class NotificationService {
             throw new RuntimeException("Access denied: notification belongs to another user");
         }
         
+        if (isUnread(notification)) {
+            unreadCounter.removed(user.getId());
+            eventStreams.unreadCountChanged(user.getId());
+        }
         notification.markAsRead();
         return notificationRepository.save(notification);
     }
     
-    public void markAllAsRead(User user) {
-        List<Notification> unreadNotifications = notificationRepository.findUnreadNotificationsByUser(user);
+    /**
+     * Mark the user's notifications up to the newest one their client displayed as read by moving
+     * their watermark; a single row write however many notifications are unread. Anything newer
+     * than what the client showed stays unread. The watermark is a creation time, not a commit
+     * order, so a notification stamped at or before it whose transaction commits after the
+     * client's fetch is still covered; that window is one transaction's commit lag. Without a
+     * displayed time it falls back to the newest notification this transaction can see.
+     */
+    public void markAllAsRead(User user, LocalDateTime displayedUpTo) {
+        LocalDateTime latest = notificationRepository.findLatestCreatedAtByUserId(user.getId()).orElse(null);
+        if (latest == null) {
+            return;
+        }
+        LocalDateTime readUpTo = displayedUpTo != null && displayedUpTo.isBefore(latest) ? displayedUpTo : latest;
+        readStateRepository.advance(user.getId(), readUpTo, LocalDateTime.now());
+        unreadCounter.allRead(user.getId());
+        eventStreams.unreadCountChanged(user.getId());
+        log.info("Marked all notifications as read for user {}", user.getEmail());
+    }
+    
+    /**
+     * Copy read watermarks onto the notification rows they cover, a chunk of users per
+     * transaction, so row flags and the old-read cleanup catch up with mark-all-read
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void compactReadWatermarks(int chunkSize) {
+        long afterUserId = 0L;
+        int users = 0;
         
-        unreadNotifications.forEach(notification -> {
-            notification.markAsRead();
-        });
+        while (true) {
+            List<NotificationReadState> states = readStateRepository.findPendingCompaction(afterUserId, PageRequest.of(0, chunkSize));
+            if (states.isEmpty()) {
+                break;
+            }
+            
+            transactionTemplate.executeWithoutResult(status -> states.forEach(state -> {
+                notificationRepository.markReadUpTo(state.getUserId(), state.getReadUpTo());
+                readStateRepository.markCompacted(state.getUserId(), state.getReadUpTo());
+            }));
+            afterUserId = states.get(states.size() - 1).getUserId();
+            users += states.size();
+        }
         
-        notificationRepository.saveAll(unreadNotifications);
-        log.info("Marked {} notifications as read for user {}", unreadNotifications.size(), user.getEmail());
+        log.info("Compacted read watermarks for {} users", users);
     }
     
     public void deleteNotification(Long notificationId, User user) {
@@ -185,12 +419,47 @@ public class NotificationService {
             throw new RuntimeException("Access denied: notification belongs to another user");
         }
         
+        if (isUnread(notification)) {
+            unreadCounter.removed(user.getId());
+            eventStreams.unreadCountChanged(user.getId());
+        }
         notificationRepository.delete(notification);
     }
     
+    private List<Notification> save(List<Notification> notifications) {
+        List<Notification> savedNotifications = notificationRepository.saveAll(notifications);
+        unreadCounter.added(savedNotifications);
+        // Registered after the counter's callback so pushed counts include these notifications
+        eventStreams.notificationsCreated(savedNotifications);
+        return savedNotifications;
+    }
+    
+    private boolean isUnread(Notification notification) {
+        if (Boolean.TRUE.equals(notification.getIsRead())) {
+            return false;
+        }
+        return readStateRepository.findById(notification.getUser().getId())
+            .map(state -> notification.getCreatedAt().isAfter(state.getReadUpTo()))
+            .orElse(true);
+    }
+    
+    // Presents notifications under the watermark as read. Inside a read-only transaction this is
+    // never flushed, and if it were it would only do what compaction does.
+    private static void applyWatermark(List<Notification> notifications, LocalDateTime readUpTo) {
+        for (Notification notification : notifications) {
+            if (!Boolean.TRUE.equals(notification.getIsRead()) && !notification.getCreatedAt().isAfter(readUpTo)) {
+                notification.setIsRead(true);
+                notification.setReadAt(readUpTo);
+            }
+        }
+    }
+    
     public void cleanupExpiredNotifications() {
         List<Notification> expiredNotifications = notificationRepository.findExpiredNotifications(LocalDateTime.now());
         notificationRepository.deleteAll(expiredNotifications);
+        unreadCounter.invalidate(expiredNotifications.stream()
+            .map(notification -> notification.getUser().getId())
+            .collect(Collectors.toSet()));
         
         log.info("Cleaned up {} expired notifications", expiredNotifications.size());
     }
@@ -201,4 +470,10 @@ public class NotificationService {
         
         log.info("Cleaned up old read notifications older than {}", cutoffDate);
     }
+    
+    public record DeadlineNotice(Task task, TaskDeadlineEvent.Transition transition) {
+    }
+    
+    public record DigestNotice(User user, DailyDigest digest) {
+    }
 }
@@ -0,0 +1,119 @@
+package com.constructpro.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Offline geocoding from a bundled table of postal code centroids.
+ * The table is read once at startup; no external service is called.
+ * The table is keyed by ISO 3166 alpha-2 country code; {@link #countryCode} maps the other forms
+ * a country may be entered in onto that code.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostalCodeGeocoder {
+
+    // Alpha-2 and alpha-3 codes and English names, upper-cased, to the alpha-2 code
+    private static final Map<String, String> COUNTRY_CODES = countryCodes();
+
+    private final ResourceLoader resourceLoader;
+
+    private final Map<String, GeoPoint> centroids = new HashMap<>();
+
+    @Value("${app.geo.postal-codes-file:classpath:geo/postal-codes.csv}")
+    private String postalCodesFile;
+
+    @PostConstruct
+    void load() {
+        Resource resource = resourceLoader.getResource(postalCodesFile);
+        if (!resource.exists()) {
+            log.warn("Postal code table {} not found; buildings without coordinates will not be geocoded", postalCodesFile);
+            return;
+        }
+
+        int skipped = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#") || line.startsWith("country,")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                try {
+                    double latitude = Double.parseDouble(fields[2].trim());
+                    double longitude = Double.parseDouble(fields[3].trim());
+                    if (!GeoPoint.isValid(latitude, longitude)) {
+                        skipped++;
+                        continue;
+                    }
+                    centroids.put(key(fields[0], fields[1]), new GeoPoint(latitude, longitude));
+                } catch (RuntimeException e) {
+                    skipped++;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to read postal code table {}", postalCodesFile, e);
+            return;
+        }
+
+        log.info("Loaded {} postal code centroids ({} malformed rows skipped)", centroids.size(), skipped);
+    }
+
+    public Optional<GeoPoint> lookup(String country, String postalCode) {
+        if (postalCode == null) {
+            return Optional.empty();
+        }
+        return countryCode(country).map(code -> centroids.get(key(code, postalCode)));
+    }
+
+    /**
+     * The ISO 3166 alpha-2 code for a country given as an alpha-2 or alpha-3 code or by its
+     * English name, e.g. "de", "DEU" or "Germany"; empty when blank or not recognised
+     */
+    public static Optional<String> countryCode(String country) {
+        if (country == null || country.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(COUNTRY_CODES.get(country.trim().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT)));
+    }
+
+    // Case and spacing vary between entries, e.g. "sw1a 1aa" and "SW1A1AA"
+    private static String key(String country, String postalCode) {
+        return country.trim().toUpperCase(Locale.ROOT) + ":"
+            + postalCode.replaceAll("[\\s-]", "").toUpperCase(Locale.ROOT);
+    }
+
+    private static Map<String, String> countryCodes() {
+        Map<String, String> codes = new HashMap<>();
+        for (String code : Locale.getISOCountries()) {
+            Locale locale = new Locale("", code);
+            codes.put(code, code);
+            codes.put(locale.getISO3Country(), code);
+            codes.put(locale.getDisplayCountry(Locale.ENGLISH).toUpperCase(Locale.ROOT), code);
+        }
+        // Common names that differ from the JDK's English display names
+        codes.put("USA", "US");
+        codes.put("UNITED STATES OF AMERICA", "US");
+        codes.put("UK", "GB");
+        codes.put("GREAT BRITAIN", "GB");
+        codes.put("ENGLAND", "GB");
+        codes.put("SCOTLAND", "GB");
+        codes.put("WALES", "GB");
+        return codes;
+    }
+}
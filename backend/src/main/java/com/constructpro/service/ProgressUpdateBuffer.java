@@ -0,0 +1,231 @@
+package com.constructpro.service;
+
+import com.constructpro.entity.TaskUpdate;
+import com.constructpro.repository.TaskRepository;
+import com.constructpro.repository.TaskUpdateRepository;
+import com.constructpro.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Debounces progress timeline entries per task and contractor. Rapid progress updates are
+ * merged into one pending entry that is written once the contractor has been idle for the
+ * coalescing window, or earlier when anything else is added to the task's timeline.
+ * The task row itself is always updated immediately; only the timeline entry is deferred.
+ * A flush triggered by another timeline write joins that write's transaction, and the entries
+ * go back into the buffer if it rolls back. An entry whose own write fails also goes back and is
+ * retried on later ticks, up to a limit.
+ */
+@Component
+@Slf4j
+public class ProgressUpdateBuffer {
+
+    // A continuously moving slider is still written at least this many windows after its first move
+    private static final int MAX_AGE_WINDOWS = 5;
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TaskUpdateRepository taskUpdateRepository;
+    private final TransactionTemplate flushTransaction;
+    private final TransactionTemplate separateFlushTransaction;
+    private final Counter retried;
+    private final Counter dropped;
+
+    private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
+
+    @Value("${app.tasks.progress.coalesce-window-seconds:30}")
+    private long windowSeconds;
+
+    @Value("${app.tasks.progress.max-flush-attempts:5}")
+    private int maxFlushAttempts;
+
+    public ProgressUpdateBuffer(TaskRepository taskRepository, UserRepository userRepository,
+                                TaskUpdateRepository taskUpdateRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.taskUpdateRepository = taskUpdateRepository;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        // Read-only callers, such as loading the timeline, cannot write in their own transaction
+        this.separateFlushTransaction = new TransactionTemplate(transactionManager);
+        this.separateFlushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.retried = Counter.builder("tasks.progress.flush.retried").register(meterRegistry);
+        this.dropped = Counter.builder("tasks.progress.flush.dropped").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return windowSeconds > 0;
+    }
+
+    /**
+     * Merge a committed progress change into the pending entry for this task and user
+     */
+    public void record(Long taskId, Long userId, int fromProgress, int toProgress, String notes) {
+        Instant now = Instant.now();
+        pending.compute(new Key(taskId, userId), (key, entry) -> {
+            if (entry == null) {
+                entry = new Pending(fromProgress, now);
+            }
+            entry.lastProgress = toProgress;
+            entry.lastAt = now;
+            entry.count++;
+            if (notes != null && !notes.isBlank()) {
+                entry.notes.add(notes.trim());
+            }
+            return entry;
+        });
+    }
+
+    /**
+     * Write pending entries that have been idle for the window or have reached their maximum age
+     */
+    @Scheduled(fixedDelayString = "${app.tasks.progress.flush-interval-ms:5000}")
+    public void flushExpired() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        Duration window = Duration.ofSeconds(windowSeconds);
+        Duration maxAge = window.multipliedBy(MAX_AGE_WINDOWS);
+
+        for (Map.Entry<Key, Pending> entry : pending.entrySet()) {
+            Pending value = entry.getValue();
+            if (!value.lastAt.plus(window).isAfter(now) || !value.firstAt.plus(maxAge).isAfter(now)) {
+                flushKey(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Write every pending entry of a task so the next timeline entry is ordered after them.
+     * Call after the caller's access checks, from the transaction that adds the next entry.
+     */
+    public void flushTask(Long taskId) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        for (Key key : new ArrayList<>(pending.keySet())) {
+            if (key.taskId().equals(taskId)) {
+                flushKey(key);
+            }
+        }
+    }
+
+    /**
+     * Drop pending entries of a deleted task; call once the delete commits
+     */
+    public void discardTask(Long taskId) {
+        pending.keySet().removeIf(key -> key.taskId().equals(taskId));
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        List<Key> keys = new ArrayList<>(pending.keySet());
+        for (Key key : keys) {
+            flushKey(key);
+        }
+        if (!keys.isEmpty()) {
+            log.info("Flushed {} pending progress updates on shutdown", keys.size());
+        }
+    }
+
+    private void flushKey(Key key) {
+        Pending entry = pending.remove(key);
+        if (entry == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            taskUpdateRepository.save(toTaskUpdate(key, entry));
+            TransactionCallbacks.afterRollback(() -> restore(key, entry));
+            return;
+        }
+
+        TransactionTemplate template = TransactionSynchronizationManager.isActualTransactionActive()
+            ? separateFlushTransaction : flushTransaction;
+        try {
+            template.executeWithoutResult(status -> taskUpdateRepository.save(toTaskUpdate(key, entry)));
+        } catch (RuntimeException e) {
+            if (++entry.attempts < maxFlushAttempts) {
+                log.warn("Could not write coalesced progress update for task {} (attempt {} of {}); retrying: {}",
+                    key.taskId(), entry.attempts, maxFlushAttempts, e.getMessage());
+                retried.increment();
+                restore(key, entry);
+            } else {
+                log.error("Dropping coalesced progress update for task {} after {} failed attempts",
+                    key.taskId(), entry.attempts, e);
+                dropped.increment();
+            }
+        }
+    }
+
+    // Put back an entry whose write rolled back, ahead of anything recorded since
+    private void restore(Key key, Pending entry) {
+        pending.merge(key, entry, (newer, restored) -> restored.followedBy(newer));
+    }
+
+    private TaskUpdate toTaskUpdate(Key key, Pending entry) {
+        String message = entry.notes.isEmpty()
+            ? String.format("Progress updated from %d%% to %d%%", entry.firstProgress, entry.lastProgress)
+            : String.join("\n", entry.notes);
+
+        TaskUpdate update = new TaskUpdate(
+            taskRepository.getReferenceById(key.taskId()),
+            userRepository.getReferenceById(key.userId()),
+            TaskUpdate.UpdateType.PROGRESS_UPDATE,
+            message
+        );
+        update.setPreviousProgressPercentage(entry.firstProgress);
+        update.setProgressPercentage(entry.lastProgress);
+        update.setCoalescedUpdates(entry.count);
+        return update;
+    }
+
+    private record Key(Long taskId, Long userId) {
+    }
+
+    private static class Pending {
+        private final int firstProgress;
+        private final Instant firstAt;
+        private final Set<String> notes = new LinkedHashSet<>();
+        private int lastProgress;
+        private Instant lastAt;
+        private int count;
+        // Failed writes of this entry outside a caller's transaction
+        private int attempts;
+
+        private Pending(int firstProgress, Instant firstAt) {
+            this.firstProgress = firstProgress;
+            this.firstAt = firstAt;
+        }
+
+        private Pending followedBy(Pending newer) {
+            lastProgress = newer.lastProgress;
+            lastAt = newer.lastAt;
+            count += newer.count;
+            notes.addAll(newer.notes);
+            return this;
+        }
+    }
+}
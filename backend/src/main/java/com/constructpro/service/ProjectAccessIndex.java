@@ -0,0 +1,189 @@
+package com.constructpro.service;
+
+import com.constructpro.entity.Building;
+import com.constructpro.entity.Task;
+import com.constructpro.entity.User;
+import com.constructpro.event.TaskChangedEvent;
+import com.constructpro.event.TaskSnapshot;
+import com.constructpro.event.UserChangedEvent;
+import com.constructpro.repository.BuildingContractorRepository;
+import com.constructpro.repository.BuildingRepository;
+import com.constructpro.repository.TaskRepository;
+import com.constructpro.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers ownership and assignment questions from memory so access checks do not load
+ * buildings, tasks or assignment lists.
+ * Building owners never change, so they are cached per building. The buildings a user manages,
+ * is assigned to or has tasks in are cached per user together with the user's access version.
+ * A change to those buildings bumps the version in the same transaction and drops the local
+ * entry after commit; other nodes see the new version on the user loaded for the next request
+ * and reload, so a revoked assignment stops granting access on every node.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProjectAccessIndex {
+
+    private final BuildingRepository buildingRepository;
+    private final BuildingContractorRepository buildingContractorRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Long> ownerByBuilding = new ConcurrentHashMap<>();
+    private final Map<Long, UserAccess> accessByUser = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation so a load that raced with a change is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public boolean isBuildingOwner(User user, Long buildingId) {
+        return user.getId().equals(ownerOf(buildingId));
+    }
+
+    public boolean isTaskBuildingOwner(User user, Task task) {
+        return isBuildingOwner(user, task.getBuilding().getId());
+    }
+
+    /**
+     * Admins, the building's creator and its project manager may manage its contractors
+     */
+    public boolean canManageBuilding(User user, Long buildingId) {
+        return user.getRole() == User.Role.ADMIN
+            || isBuildingOwner(user, buildingId)
+            || access(user).managed().contains(buildingId);
+    }
+
+    /**
+     * Same as {@link #canManageBuilding(User, Long)} for a building that is already loaded
+     */
+    public boolean canManageBuilding(User user, Building building) {
+        Long ownerId = building.getCreatedBy().getId();
+        ownerByBuilding.putIfAbsent(building.getId(), ownerId);
+        return user.getRole() == User.Role.ADMIN
+            || user.getId().equals(ownerId)
+            || (building.getProjectManager() != null && user.getId().equals(building.getProjectManager().getId()));
+    }
+
+    public boolean isAssignedToBuilding(User contractor, Long buildingId) {
+        return access(contractor).assigned().contains(buildingId);
+    }
+
+    public boolean hasTaskInBuilding(User contractor, Long buildingId) {
+        return access(contractor).taskBuildings().contains(buildingId);
+    }
+
+    public void buildingCreated(Long buildingId, Long ownerId) {
+        TransactionCallbacks.afterCommit(() -> ownerByBuilding.put(buildingId, ownerId));
+    }
+
+    public void buildingDeleted(Long buildingId) {
+        TransactionCallbacks.afterCommit(() -> ownerByBuilding.remove(buildingId));
+    }
+
+    /**
+     * Bump the access version of these users with the current transaction, and drop their cached
+     * access here once it commits
+     */
+    public void invalidate(Long... userIds) {
+        List<Long> ids = Arrays.stream(userIds).filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionCallbacks.<Set<Long>>collectUntilCommit(this, HashSet::new, this::incrementVersions).addAll(ids);
+        } else {
+            transactionTemplate.executeWithoutResult(status -> incrementVersions(ids));
+        }
+        TransactionCallbacks.afterCommit(() -> evict(ids.toArray(Long[]::new)));
+    }
+
+    // Runs inside the task's transaction so the version bump commits with it
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskSnapshot before = event.before();
+        TaskSnapshot after = event.after();
+
+        // Only creation, deletion and reassignment change which buildings a contractor has tasks in
+        if (before != null && after != null
+                && Objects.equals(before.contractorId(), after.contractorId())
+                && Objects.equals(before.buildingId(), after.buildingId())) {
+            return;
+        }
+        invalidate(before != null ? before.contractorId() : null, after != null ? after.contractorId() : null);
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.user().getId());
+    }
+
+    private Long ownerOf(Long buildingId) {
+        if (buildingId == null) {
+            return null;
+        }
+        Long ownerId = ownerByBuilding.get(buildingId);
+        if (ownerId == null) {
+            ownerId = buildingRepository.findCreatorIdById(buildingId).orElse(null);
+            if (ownerId != null) {
+                ownerByBuilding.putIfAbsent(buildingId, ownerId);
+            }
+        }
+        return ownerId;
+    }
+
+    private void evict(Long... userIds) {
+        generation.incrementAndGet();
+        for (Long userId : userIds) {
+            if (userId != null) {
+                accessByUser.remove(userId);
+            }
+        }
+    }
+
+    private void incrementVersions(Collection<Long> userIds) {
+        userRepository.incrementAccessVersions(userIds);
+    }
+
+    private UserAccess access(User user) {
+        Long userId = user.getId();
+        UserAccess access = accessByUser.get(userId);
+        // An entry older than the user's version was loaded before another node changed their access
+        if (access != null && access.version() >= user.getAccessVersion()) {
+            return access;
+        }
+
+        long startGeneration = generation.get();
+        access = new UserAccess(
+            user.getAccessVersion(),
+            Set.copyOf(buildingRepository.findIdsByProjectManagerId(userId)),
+            Set.copyOf(buildingContractorRepository.findActiveBuildingIdsByContractorId(userId)),
+            Set.copyOf(taskRepository.findBuildingIdsByContractorId(userId)));
+
+        if (generation.get() == startGeneration) {
+            accessByUser.merge(userId, access, (cached, loaded) -> cached.version() > loaded.version() ? cached : loaded);
+        }
+        return access;
+    }
+
+    // version is the user's access version the sets were loaded at or after
+    private record UserAccess(long version, Set<Long> managed, Set<Long> assigned, Set<Long> taskBuildings) {
+    }
+}
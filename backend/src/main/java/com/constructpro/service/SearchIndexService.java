@@ -0,0 +1,715 @@
+package com.constructpro.service;
+
+import com.constructpro.config.SchedulingConfig;
+import com.constructpro.dto.PaginationInfo;
+import com.constructpro.dto.response.SearchResponse;
+import com.constructpro.entity.Building;
+import com.constructpro.entity.Media;
+import com.constructpro.entity.Task;
+import com.constructpro.entity.User;
+import com.constructpro.event.UserChangedEvent;
+import com.constructpro.repository.BuildingContractorRepository;
+import com.constructpro.repository.BuildingRepository;
+import com.constructpro.repository.MediaRepository;
+import com.constructpro.repository.TaskRepository;
+import com.constructpro.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Full-text index over buildings, tasks, users and media names, kept in a Lucene index on local disk.
+ * Service write paths build the document inside their transaction and the index is updated after
+ * commit. Searches are ranked and filtered to what the reader is allowed to see.
+ *
+ * A rebuild replaces documents in place rather than emptying the index first, so searches keep
+ * seeing the previous documents until each is rewritten. Every document carries the generation it
+ * was written in; documents from older generations are deleted once a rebuild has finished. Keys
+ * written by live updates while a rebuild runs are left alone by the rebuild, whose copy may have
+ * been read before the update committed.
+ */
+@Service
+@Slf4j
+public class SearchIndexService {
+
+    public enum DocumentType { BUILDING, TASK, USER, MEDIA }
+
+    private static final String KEY = "key";
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String SUBTITLE = "subtitle";
+    private static final String BODY = "body";
+    // User ids allowed to see the document
+    private static final String READER = "reader";
+    // Roles allowed to see the document regardless of reader
+    private static final String VISIBLE_TO = "visibleTo";
+    private static final String GENERATION = "generation";
+
+    private static final int MAX_LIMIT = 100;
+    private static final int MAX_WINDOW = 10000;
+    private static final int REINDEX_BATCH_SIZE = 500;
+
+    private final TaskRepository taskRepository;
+    private final BuildingRepository buildingRepository;
+    private final BuildingContractorRepository buildingContractorRepository;
+    private final UserRepository userRepository;
+    private final MediaRepository mediaRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Executor applicationExecutor;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final AtomicBoolean reindexing = new AtomicBoolean();
+
+    // Live updates hold the read lock; a rebuild takes the write lock to switch generations and
+    // to write each batch
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private volatile String generation = UUID.randomUUID().toString();
+    // Keys written by live updates since the running rebuild started, null when none is running
+    private Set<String> liveKeys;
+
+    // Hits counted exactly before the total becomes a lower bound, unless an exact total is asked for
+    @Value("${app.search.total-hits-threshold:1000}")
+    private int totalHitsThreshold;
+
+    @Value("${app.search.index-dir:data/search-index}")
+    private String indexDir;
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    public SearchIndexService(TaskRepository taskRepository, BuildingRepository buildingRepository,
+                              BuildingContractorRepository buildingContractorRepository,
+                              UserRepository userRepository, MediaRepository mediaRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier(SchedulingConfig.APPLICATION_EXECUTOR) Executor applicationExecutor) {
+        this.taskRepository = taskRepository;
+        this.buildingRepository = buildingRepository;
+        this.buildingContractorRepository = buildingContractorRepository;
+        this.userRepository = userRepository;
+        this.mediaRepository = mediaRepository;
+        this.applicationExecutor = applicationExecutor;
+        // Reads may start from an after-commit callback, where joining the finished transaction is not allowed
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path path = Path.of(indexDir);
+        Files.createDirectories(path);
+
+        directory = FSDirectory.open(path);
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+
+        log.info("Search index opened at {} with {} documents", path.toAbsolutePath(), writer.getDocStats().numDocs);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Build the index from the database the first time the application starts with an empty index
+     */
+    @Async(SchedulingConfig.SCHEDULED_JOB_EXECUTOR)
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (writer.getDocStats().numDocs == 0) {
+            reindexAll();
+        }
+    }
+
+    // Write paths
+
+    public void indexBuilding(Building building) {
+        Set<Long> readers = ownerAndManager(building);
+        readers.addAll(activeContractorIds(List.of(building.getId())).getOrDefault(building.getId(), Set.of()));
+
+        afterCommit(buildingDocument(building, readers));
+    }
+
+    /**
+     * Index several buildings, loading their contractors in one query
+     */
+    public void indexBuildings(Collection<Building> buildings) {
+        if (buildings.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Set<Long>> contractorIds = activeContractorIds(
+            buildings.stream().map(Building::getId).collect(Collectors.toSet()));
+        for (Building building : buildings) {
+            Set<Long> readers = ownerAndManager(building);
+            readers.addAll(contractorIds.getOrDefault(building.getId(), Set.of()));
+            afterCommit(buildingDocument(building, readers));
+        }
+    }
+
+    /**
+     * Re-index the tasks and media of buildings whose project manager or contractors changed, since
+     * their readers follow the building's. The documents are reloaded on the application executor
+     * once the change has committed.
+     */
+    public void indexBuildingContents(Collection<Long> buildingIds) {
+        Set<Long> ids = buildingIds.stream()
+            .filter(Objects::nonNull)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (ids.isEmpty()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> applicationExecutor.execute(() -> ids.forEach(this::indexBuildingContents)));
+    }
+
+    public void indexTask(Task task) {
+        afterCommit(taskDocument(task));
+    }
+
+    public void indexUser(User user) {
+        afterCommit(userDocument(user));
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.deleted()) {
+            remove(DocumentType.USER, event.user().getId());
+        } else {
+            indexUser(event.user());
+        }
+    }
+
+    /**
+     * Media is visible to its uploader and to the readers of the building or task it is attached to
+     */
+    public void indexMedia(Media media) {
+        Set<Long> readers = new HashSet<>();
+        if (media.getUploadedBy() != null) {
+            readers.add(media.getUploadedBy().getId());
+        }
+        Building building = media.getBuilding();
+        if (building != null) {
+            readers.addAll(ownerAndManager(building));
+            readers.addAll(activeContractorIds(List.of(building.getId())).getOrDefault(building.getId(), Set.of()));
+        }
+        if (media.getTask() != null) {
+            readers.addAll(taskReaders(media.getTask()));
+        }
+        afterCommit(mediaDocument(media.getId(), media.getFileName(), media.getOriginalName(),
+            media.getMimeType(), readers));
+    }
+
+    public void remove(DocumentType type, Object id) {
+        String key = key(type, id);
+        TransactionCallbacks.afterCommit(() -> {
+            indexLock.readLock().lock();
+            try {
+                if (liveKeys != null) {
+                    liveKeys.add(key);
+                }
+                writer.deleteDocuments(new Term(KEY, key));
+            } catch (IOException e) {
+                log.error("Failed to remove {} from search index", key, e);
+            } finally {
+                indexLock.readLock().unlock();
+            }
+        });
+    }
+
+    // Search
+
+    /**
+     * One page of hits the reader may see. The total comes from the same pass as the hits and is
+     * exact up to the configured threshold, past which it is a lower bound unless exactTotal is set.
+     */
+    public SearchResponse search(String queryText, DocumentType type, User reader, int page, int limit,
+                                 boolean exactTotal) {
+        long started = System.nanoTime();
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        int pageNumber = Math.max(1, page);
+        if ((long) pageNumber * pageSize > MAX_WINDOW) {
+            throw new IllegalArgumentException("Search results are limited to the first " + MAX_WINDOW + " hits");
+        }
+
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(TITLE, 3f, BODY, 1f));
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query textQuery = queryText != null ? parser.parse(queryText) : null;
+
+        SearchResponse response = new SearchResponse();
+        if (textQuery == null) {
+            response.setPagination(new PaginationInfo(pageNumber, pageSize, 0, 0, false, pageNumber > 1));
+            return response;
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder().add(textQuery, BooleanClause.Occur.MUST);
+        if (type != null) {
+            query.add(new TermQuery(new Term(TYPE, type.name())), BooleanClause.Occur.FILTER);
+        }
+        if (reader.getRole() != User.Role.ADMIN) {
+            query.add(new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(READER, reader.getId().toString())), BooleanClause.Occur.SHOULD)
+                .add(new TermQuery(new Term(VISIBLE_TO, reader.getRole().name())), BooleanClause.Occur.SHOULD)
+                .build(), BooleanClause.Occur.FILTER);
+        }
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            Query finalQuery = query.build();
+            int window = pageNumber * pageSize;
+            int threshold = exactTotal ? Integer.MAX_VALUE : Math.max(window, totalHitsThreshold);
+            TopDocs topDocs = searcher.search(finalQuery, TopScoreDocCollector.createSharedManager(window, null, threshold));
+            int total = (int) Math.min(topDocs.totalHits.value, Integer.MAX_VALUE);
+            response.setTotalExact(topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO);
+
+            ScoreDoc[] hits = topDocs.scoreDocs;
+            for (int i = (pageNumber - 1) * pageSize; i < hits.length; i++) {
+                Document document = searcher.storedFields().document(hits[i].doc);
+                response.getResults().add(new SearchResponse.Hit(
+                    document.get(TYPE), document.get(ID), document.get(TITLE), document.get(SUBTITLE), hits[i].score));
+            }
+
+            int totalPages = (total + pageSize - 1) / pageSize;
+            response.setPagination(new PaginationInfo(pageNumber, pageSize, total, totalPages,
+                pageNumber < totalPages, pageNumber > 1));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    log.warn("Failed to release index searcher", e);
+                }
+            }
+        }
+
+        response.setTookMs((System.nanoTime() - started) / 1_000_000);
+        return response;
+    }
+
+    // Maintenance
+
+    /**
+     * Make recent index updates visible to searches
+     */
+    @Scheduled(fixedDelayString = "${app.search.refresh-interval-ms:1000}")
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("Failed to refresh search index", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.commit-interval-ms:60000}")
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            log.error("Failed to commit search index", e);
+        }
+    }
+
+    /**
+     * Rebuild the whole index from the database in keyset-paged batches. Searches see the previous
+     * document for each key until the rebuild rewrites it.
+     */
+    public Map<String, Long> reindexAll() {
+        if (!reindexing.compareAndSet(false, true)) {
+            throw new IllegalStateException("Search reindex is already running");
+        }
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        String rebuild = UUID.randomUUID().toString();
+        indexLock.writeLock().lock();
+        try {
+            generation = rebuild;
+            liveKeys = ConcurrentHashMap.newKeySet();
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+
+        try {
+            long started = System.currentTimeMillis();
+
+            counts.put("buildings", reindexBuildings());
+            counts.put("tasks", reindexTasks());
+            counts.put("users", reindexUsers());
+            counts.put("media", reindexMedia());
+
+            // Everything still current was rewritten in this generation; what is left was deleted
+            writer.deleteDocuments(new BooleanQuery.Builder()
+                .add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(GENERATION, rebuild)), BooleanClause.Occur.MUST_NOT)
+                .build());
+            writer.commit();
+            searcherManager.maybeRefresh();
+            log.info("Search index rebuilt in {} ms: {}", System.currentTimeMillis() - started, counts);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search reindex failed", e);
+        } finally {
+            indexLock.writeLock().lock();
+            try {
+                liveKeys = null;
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+            reindexing.set(false);
+        }
+        return counts;
+    }
+
+    private long reindexBuildings() throws IOException {
+        long count = 0;
+        Long afterId = 0L;
+        while (true) {
+            Long cursor = afterId;
+            List<Document> documents = readOnlyTransaction.execute(status -> {
+                List<Building> buildings = buildingRepository.findByIdGreaterThanOrderByIdAsc(
+                    cursor, PageRequest.of(0, REINDEX_BATCH_SIZE));
+                Map<Long, Set<Long>> contractorIds = activeContractorIds(
+                    buildings.stream().map(Building::getId).collect(Collectors.toList()));
+
+                List<Document> batch = new ArrayList<>(buildings.size());
+                for (Building building : buildings) {
+                    Set<Long> readers = ownerAndManager(building);
+                    readers.addAll(contractorIds.getOrDefault(building.getId(), Set.of()));
+                    batch.add(buildingDocument(building, readers));
+                }
+                return batch;
+            });
+
+            if (documents.isEmpty()) {
+                return count;
+            }
+            rebuild(documents);
+            count += documents.size();
+            afterId = Long.valueOf(documents.get(documents.size() - 1).get(ID));
+        }
+    }
+
+    private long reindexTasks() throws IOException {
+        long count = 0;
+        Long afterId = 0L;
+        while (true) {
+            Long cursor = afterId;
+            List<Document> documents = readOnlyTransaction.execute(status ->
+                taskRepository.findSearchBatchAfter(cursor, PageRequest.of(0, REINDEX_BATCH_SIZE)).stream()
+                    .map(this::taskDocument)
+                    .collect(Collectors.toList()));
+
+            if (documents.isEmpty()) {
+                return count;
+            }
+            rebuild(documents);
+            count += documents.size();
+            afterId = Long.valueOf(documents.get(documents.size() - 1).get(ID));
+        }
+    }
+
+    private long reindexUsers() throws IOException {
+        long count = 0;
+        Long afterId = 0L;
+        while (true) {
+            Long cursor = afterId;
+            List<Document> documents = readOnlyTransaction.execute(status ->
+                userRepository.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, REINDEX_BATCH_SIZE)).stream()
+                    .map(this::userDocument)
+                    .collect(Collectors.toList()));
+
+            if (documents.isEmpty()) {
+                return count;
+            }
+            rebuild(documents);
+            count += documents.size();
+            afterId = Long.valueOf(documents.get(documents.size() - 1).get(ID));
+        }
+    }
+
+    private long reindexMedia() throws IOException {
+        long count = 0;
+        String afterId = "";
+        while (true) {
+            String cursor = afterId;
+            List<Document> documents = readOnlyTransaction.execute(status -> mediaDocuments(
+                mediaRepository.findSearchBatchAfter(cursor, PageRequest.of(0, REINDEX_BATCH_SIZE))));
+
+            if (documents.isEmpty()) {
+                return count;
+            }
+            rebuild(documents);
+            count += documents.size();
+            afterId = documents.get(documents.size() - 1).get(ID);
+        }
+    }
+
+    private void indexBuildingContents(Long buildingId) {
+        try {
+            Long afterTaskId = 0L;
+            while (true) {
+                Long cursor = afterTaskId;
+                List<Document> documents = readOnlyTransaction.execute(status ->
+                    taskRepository.findSearchBatchByBuildingAfter(buildingId, cursor, PageRequest.of(0, REINDEX_BATCH_SIZE))
+                        .stream()
+                        .map(this::taskDocument)
+                        .collect(Collectors.toList()));
+                if (documents.isEmpty()) {
+                    break;
+                }
+                documents.forEach(this::update);
+                afterTaskId = Long.valueOf(documents.get(documents.size() - 1).get(ID));
+            }
+
+            String afterMediaId = "";
+            while (true) {
+                String cursor = afterMediaId;
+                List<Document> documents = readOnlyTransaction.execute(status -> mediaDocuments(
+                    mediaRepository.findSearchBatchByBuildingAfter(buildingId, cursor, PageRequest.of(0, REINDEX_BATCH_SIZE))));
+                if (documents.isEmpty()) {
+                    break;
+                }
+                documents.forEach(this::update);
+                afterMediaId = documents.get(documents.size() - 1).get(ID);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to re-index the tasks and media of building {}", buildingId, e);
+        }
+    }
+
+    // Documents
+
+    private Document buildingDocument(Building building, Collection<Long> readers) {
+        Document document = baseDocument(DocumentType.BUILDING, building.getId(), building.getName(),
+            join(building.getCity(), building.getState()));
+        addBody(document, building.getAddress(), building.getCity(), building.getState(),
+            building.getPostalCode(), building.getDescription());
+        addReaders(document, readers);
+        return document;
+    }
+
+    private Document taskDocument(Task task) {
+        Building building = task.getBuilding();
+        Document document = baseDocument(DocumentType.TASK, task.getId(), task.getName(), building.getName());
+        addBody(document, task.getDescription(), task.getCompletionNotes());
+
+        addReaders(document, taskReaders(task));
+        return document;
+    }
+
+    private Document userDocument(User user) {
+        Document document = baseDocument(DocumentType.USER, user.getId(),
+            join(user.getFirstName(), user.getLastName()), user.getEmail());
+        addBody(document, user.getEmail(), user.getSpecialization());
+
+        // Inactive users are only visible to admins
+        if (Boolean.TRUE.equals(user.getIsActive())) {
+            addReaders(document, List.of(user.getId()));
+            if (user.getRole() == User.Role.CONTRACTOR) {
+                document.add(new StringField(VISIBLE_TO, User.Role.BUILDER.name(), Field.Store.NO));
+            }
+        }
+        return document;
+    }
+
+    // Rows of MediaRepository.findSearchBatchAfter
+    private List<Document> mediaDocuments(List<Object[]> rows) {
+        Map<Long, Set<Long>> contractorIds = activeContractorIds(rows.stream()
+            .map(row -> (Long) row[5])
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet()));
+
+        List<Document> documents = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Set<Long> readers = Stream.of(row[4], row[6], row[7], row[8], row[9], row[10])
+                .filter(Objects::nonNull)
+                .map(Long.class::cast)
+                .collect(Collectors.toCollection(HashSet::new));
+            if (row[5] != null) {
+                readers.addAll(contractorIds.getOrDefault((Long) row[5], Set.of()));
+            }
+            documents.add(mediaDocument((String) row[0], (String) row[1], (String) row[2], (String) row[3], readers));
+        }
+        return documents;
+    }
+
+    private Document mediaDocument(String id, String fileName, String originalName, String mimeType,
+                                   Collection<Long> readers) {
+        Document document = baseDocument(DocumentType.MEDIA, id, originalName, mimeType);
+        addBody(document, fileName);
+        addReaders(document, readers);
+        return document;
+    }
+
+    private Document baseDocument(DocumentType type, Object id, String title, String subtitle) {
+        Document document = new Document();
+        document.add(new StringField(KEY, key(type, id), Field.Store.NO));
+        document.add(new StringField(TYPE, type.name(), Field.Store.YES));
+        document.add(new StoredField(ID, id.toString()));
+        document.add(new TextField(TITLE, title != null ? title : "", Field.Store.YES));
+        if (subtitle != null) {
+            document.add(new StoredField(SUBTITLE, subtitle));
+        }
+        return document;
+    }
+
+    private void addBody(Document document, String... values) {
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                document.add(new TextField(BODY, value, Field.Store.NO));
+            }
+        }
+    }
+
+    private void addReaders(Document document, Collection<Long> readers) {
+        for (Long reader : readers) {
+            document.add(new StringField(READER, reader.toString(), Field.Store.NO));
+        }
+    }
+
+    private Set<Long> taskReaders(Task task) {
+        Set<Long> readers = ownerAndManager(task.getBuilding());
+        readers.add(task.getAssignedContractor().getId());
+        return readers;
+    }
+
+    private static Set<Long> ownerAndManager(Building building) {
+        Set<Long> ids = new HashSet<>();
+        ids.add(building.getCreatedBy().getId());
+        if (building.getProjectManager() != null) {
+            ids.add(building.getProjectManager().getId());
+        }
+        return ids;
+    }
+
+    private Map<Long, Set<Long>> activeContractorIds(Collection<Long> buildingIds) {
+        Map<Long, Set<Long>> contractorIds = new HashMap<>();
+        if (!buildingIds.isEmpty()) {
+            buildingContractorRepository.findActiveContractorIdsByBuildingIds(buildingIds)
+                .forEach(row -> contractorIds.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]));
+        }
+        return contractorIds;
+    }
+
+    private void afterCommit(Document document) {
+        TransactionCallbacks.afterCommit(() -> update(document));
+    }
+
+    private void update(Document document) {
+        String key = key(document);
+        indexLock.readLock().lock();
+        try {
+            if (liveKeys != null) {
+                liveKeys.add(key);
+            }
+            writer.updateDocument(new Term(KEY, key), stamp(document, generation));
+        } catch (IOException e) {
+            log.error("Failed to update {} in search index", key, e);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // Keys updated live since the rebuild started already hold a newer copy
+    private void rebuild(List<Document> documents) throws IOException {
+        indexLock.writeLock().lock();
+        try {
+            for (Document document : documents) {
+                String key = key(document);
+                if (!liveKeys.contains(key)) {
+                    writer.updateDocument(new Term(KEY, key), stamp(document, generation));
+                }
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    private static Document stamp(Document document, String generation) {
+        document.removeFields(GENERATION);
+        document.add(new StringField(GENERATION, generation, Field.Store.NO));
+        return document;
+    }
+
+    private static String key(Document document) {
+        return key(DocumentType.valueOf(document.get(TYPE)), document.get(ID));
+    }
+
+    private static String key(DocumentType type, Object id) {
+        return type.name().toLowerCase(Locale.ROOT) + ":" + id;
+    }
+
+    private static String join(String first, String second) {
+        return Stream.of(first, second)
+            .filter(value -> value != null && !value.isBlank())
+            .collect(Collectors.joining(" "));
+    }
+}
@@ -0,0 +1,66 @@
+package com.constructpro.service;
+
+import com.constructpro.entity.Task;
+import com.constructpro.entity.TaskUpdate;
+import com.constructpro.entity.User;
+import com.constructpro.event.TaskChangedEvent;
+import com.constructpro.event.TaskSnapshot;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Persists large sets of new tasks using JDBC batching.
+ * Tasks must be ordered so that every in-batch dependency comes before its dependents.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TaskBatchService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final NotificationService notificationService;
+    private final TaskDependencyIndex dependencyIndex;
+    private final SearchIndexService searchIndexService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    public List<Task> saveNewTasks(List<Task> tasks, User createdBy, String initialUpdateMessage) {
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            entityManager.persist(task);
+            entityManager.persist(new TaskUpdate(task, createdBy, TaskUpdate.UpdateType.STATUS_CHANGE, initialUpdateMessage));
+            searchIndexService.indexTask(task);
+            eventPublisher.publishEvent(new TaskChangedEvent(null, TaskSnapshot.of(task)));
+
+            // Flush each full batch and keep the persistence context small
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        notificationService.createBulkTaskAssignedNotifications(tasks);
+
+        for (Task task : tasks) {
+            dependencyIndex.register(task.getId(), task.getDependencies());
+        }
+
+        log.info("Batch-created {} tasks by user {}", tasks.size(), createdBy.getEmail());
+        return tasks;
+    }
+}
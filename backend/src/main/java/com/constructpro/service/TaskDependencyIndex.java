@@ -0,0 +1,163 @@
+package com.constructpro.service;
+
+import com.constructpro.entity.Task;
+import com.constructpro.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reverse-dependency index over open task dependencies.
+ * For every blocking task it keeps the dependents still waiting on it, and for every
+ * dependent the blockers that have not been approved or cancelled yet. A dependent whose
+ * blocker set becomes empty is ready to start.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskDependencyIndex {
+
+    private final TaskRepository taskRepository;
+
+    // Blocker task id -> dependents still waiting on it
+    private final Map<Long, Set<Long>> dependentsByBlocker = new ConcurrentHashMap<>();
+
+    // Dependent task id -> blockers not yet approved
+    private final Map<Long, Set<Long>> blockersByDependent = new ConcurrentHashMap<>();
+
+    /**
+     * Load every open dependency edge once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        dependentsByBlocker.clear();
+        blockersByDependent.clear();
+
+        List<Object[]> edges = taskRepository.findOpenDependencyEdges();
+        for (Object[] edge : edges) {
+            addEdge((Long) edge[0], (Long) edge[1]);
+        }
+
+        log.info("Task dependency index built with {} open edges across {} blocked tasks",
+            edges.size(), blockersByDependent.size());
+    }
+
+    /**
+     * Whether a blocker in this status no longer holds up its dependents
+     */
+    public static boolean releasesDependents(Task.TaskStatus status) {
+        return status == Task.TaskStatus.APPROVED || status == Task.TaskStatus.CANCELLED;
+    }
+
+    /**
+     * Record the dependencies of a newly created task. Approved and cancelled dependencies do not block.
+     */
+    public synchronized void register(Long taskId, Collection<Task> dependencies) {
+        if (dependencies == null || dependencies.isEmpty()) {
+            return;
+        }
+
+        for (Task dependency : dependencies) {
+            if (!releasesDependents(dependency.getStatus())) {
+                addEdge(taskId, dependency.getId());
+            }
+        }
+
+        TransactionCallbacks.afterRollback(() -> remove(taskId));
+    }
+
+    /**
+     * Release a blocker that was approved, cancelled or deleted and return the dependents that
+     * have no blockers left. Reverted if the current transaction rolls back.
+     */
+    public synchronized List<Long> resolve(Long blockerId) {
+        Set<Long> dependents = dependentsByBlocker.remove(blockerId);
+        if (dependents == null) {
+            return Collections.emptyList();
+        }
+
+        List<Long> ready = new ArrayList<>();
+        for (Long dependentId : dependents) {
+            Set<Long> blockers = blockersByDependent.get(dependentId);
+            if (blockers == null) {
+                continue;
+            }
+
+            blockers.remove(blockerId);
+            if (blockers.isEmpty()) {
+                blockersByDependent.remove(dependentId);
+                ready.add(dependentId);
+            }
+        }
+
+        Set<Long> resolvedDependents = new HashSet<>(dependents);
+        TransactionCallbacks.afterRollback(() -> reopen(blockerId, resolvedDependents));
+
+        return ready;
+    }
+
+    /**
+     * Re-block dependents of a task that is no longer approved or cancelled; call once that change commits
+     */
+    public synchronized void reopen(Long blockerId, Collection<Long> dependentIds) {
+        for (Long dependentId : dependentIds) {
+            addEdge(dependentId, blockerId);
+        }
+    }
+
+    /**
+     * Drop a deleted task both as a dependent and as a blocker; call once the delete commits
+     */
+    public synchronized void remove(Long taskId) {
+        Set<Long> blockers = blockersByDependent.remove(taskId);
+        if (blockers != null) {
+            for (Long blockerId : blockers) {
+                Set<Long> dependents = dependentsByBlocker.get(blockerId);
+                if (dependents != null) {
+                    dependents.remove(taskId);
+                    if (dependents.isEmpty()) {
+                        dependentsByBlocker.remove(blockerId);
+                    }
+                }
+            }
+        }
+
+        Set<Long> dependents = dependentsByBlocker.remove(taskId);
+        if (dependents != null) {
+            for (Long dependentId : dependents) {
+                Set<Long> remaining = blockersByDependent.get(dependentId);
+                if (remaining != null) {
+                    remaining.remove(taskId);
+                    if (remaining.isEmpty()) {
+                        blockersByDependent.remove(dependentId);
+                    }
+                }
+            }
+        }
+    }
+
+    public boolean isReady(Long taskId) {
+        return !blockersByDependent.containsKey(taskId);
+    }
+
+    public int getRemainingBlockerCount(Long taskId) {
+        Set<Long> blockers = blockersByDependent.get(taskId);
+        return blockers != null ? blockers.size() : 0;
+    }
+
+    private void addEdge(Long dependentId, Long blockerId) {
+        blockersByDependent.computeIfAbsent(dependentId, id -> ConcurrentHashMap.newKeySet()).add(blockerId);
+        dependentsByBlocker.computeIfAbsent(blockerId, id -> ConcurrentHashMap.newKeySet()).add(dependentId);
+    }
+}
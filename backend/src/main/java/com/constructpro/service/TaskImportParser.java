@@ -0,0 +1,193 @@
+package com.constructpro.service;
+
+import com.constructpro.dto.request.TaskImportRow;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Reads task import rows from a request body one record at a time.
+ * Accepts CSV with a header row, a JSON array, or newline-delimited JSON.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskImportParser {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.tasks.import.max-rows:10000}")
+    private int maxRows;
+
+    public List<TaskImportRow> parse(InputStream input, String contentType) throws IOException {
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv")) {
+            return parseCsv(input);
+        }
+        return parseJson(input);
+    }
+
+    public List<TaskImportRow> parseJson(InputStream input) throws IOException {
+        List<TaskImportRow> rows = new ArrayList<>();
+
+        try (MappingIterator<TaskImportRow> iterator = objectMapper.readerFor(TaskImportRow.class).readValues(input)) {
+            while (iterator.hasNextValue()) {
+                rows.add(iterator.nextValue());
+                checkRowLimit(rows.size());
+            }
+        }
+
+        return rows;
+    }
+
+    public List<TaskImportRow> parseCsv(InputStream input) throws IOException {
+        List<TaskImportRow> rows = new ArrayList<>();
+
+        try (Reader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = readRecord(reader);
+            if (header == null) {
+                return rows;
+            }
+
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+
+            List<String> record;
+            while ((record = readRecord(reader)) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                rows.add(toRow(record, columns, rows.size() + 1));
+                checkRowLimit(rows.size());
+            }
+        }
+
+        return rows;
+    }
+
+    private TaskImportRow toRow(List<String> record, Map<String, Integer> columns, int rowNumber) {
+        TaskImportRow row = new TaskImportRow();
+        try {
+            row.setRef(column(record, columns, "ref"));
+            row.setName(column(record, columns, "name"));
+            row.setDescription(column(record, columns, "description"));
+            row.setType(column(record, columns, "type"));
+            row.setPriority(column(record, columns, "priority"));
+
+            String duration = column(record, columns, "estimateddurationdays");
+            row.setEstimatedDurationDays(duration != null ? Integer.valueOf(duration) : null);
+
+            String cost = column(record, columns, "estimatedcost");
+            row.setEstimatedCost(cost != null ? new BigDecimal(cost) : null);
+
+            String startDate = column(record, columns, "startdate");
+            row.setStartDate(startDate != null ? LocalDate.parse(startDate) : null);
+
+            String deadline = column(record, columns, "deadline");
+            row.setDeadline(deadline != null ? LocalDate.parse(deadline) : null);
+
+            String buildingId = column(record, columns, "buildingid");
+            row.setBuildingId(buildingId != null ? Long.valueOf(buildingId) : null);
+
+            String contractorId = column(record, columns, "contractorid");
+            row.setContractorId(contractorId != null ? Long.valueOf(contractorId) : null);
+
+            String dependsOn = column(record, columns, "dependson");
+            if (dependsOn != null) {
+                row.setDependsOn(Arrays.stream(dependsOn.split(";"))
+                    .map(String::trim)
+                    .filter(value -> !value.isEmpty())
+                    .collect(Collectors.toList()));
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid value in CSV row " + rowNumber + ": " + e.getMessage());
+        }
+        return row;
+    }
+
+    private String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Read one RFC 4180 record; quoted fields may contain commas, doubled quotes and line breaks
+     */
+    private List<String> readRecord(Reader reader) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean sawAny = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            sawAny = true;
+            char ch = (char) c;
+
+            if (inQuotes) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                inQuotes = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+        }
+
+        if (inQuotes) {
+            throw new IllegalArgumentException("Unterminated quoted field in CSV input");
+        }
+        if (!sawAny) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void checkRowLimit(int rowCount) {
+        if (rowCount > maxRows) {
+            throw new IllegalArgumentException("Import is limited to " + maxRows + " rows");
+        }
+    }
+}
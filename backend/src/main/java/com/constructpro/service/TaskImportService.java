@@ -0,0 +1,261 @@
+package com.constructpro.service;
+
+import com.constructpro.dto.request.TaskImportRow;
+import com.constructpro.dto.response.TaskImportResponse;
+import com.constructpro.entity.Building;
+import com.constructpro.entity.Task;
+import com.constructpro.entity.User;
+import com.constructpro.repository.BuildingRepository;
+import com.constructpro.repository.TaskRepository;
+import com.constructpro.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TaskImportService {
+
+    private final TaskRepository taskRepository;
+    private final BuildingRepository buildingRepository;
+    private final UserRepository userRepository;
+    private final TaskBatchService taskBatchService;
+    private final ProjectAccessIndex projectAccessIndex;
+
+    /**
+     * Validate and import all rows in one transaction. Nothing is written if any row is invalid.
+     */
+    public TaskImportResponse importTasks(List<TaskImportRow> rows, User createdBy) {
+        log.info("Importing {} tasks by user: {}", rows.size(), createdBy.getEmail());
+
+        if (createdBy.getRole() != User.Role.BUILDER) {
+            throw new IllegalArgumentException("Only builders can create tasks");
+        }
+
+        TaskImportResponse response = new TaskImportResponse();
+        if (rows.isEmpty()) {
+            return response;
+        }
+
+        // Index rows by ref so dependencies inside the file can be resolved
+        Map<String, Integer> rowIndexByRef = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            String ref = rows.get(i).getRef();
+            if (ref != null && rowIndexByRef.putIfAbsent(ref, i) != null) {
+                response.addError(i + 1, ref, "Duplicate ref: " + ref);
+            }
+        }
+
+        // Set-based lookups for every referenced building, contractor and existing task
+        Set<Long> buildingIds = rows.stream().map(TaskImportRow::getBuildingId)
+            .filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> contractorIds = rows.stream().map(TaskImportRow::getContractorId)
+            .filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> existingDependencyIds = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            for (String dependency : rows.get(i).getDependsOn()) {
+                if (!rowIndexByRef.containsKey(dependency)) {
+                    try {
+                        existingDependencyIds.add(Long.valueOf(dependency));
+                    } catch (NumberFormatException e) {
+                        response.addError(i + 1, rows.get(i).getRef(), "Unknown dependency: " + dependency);
+                    }
+                }
+            }
+        }
+
+        Map<Long, Building> buildings = buildingRepository.findAllById(buildingIds).stream()
+            .collect(Collectors.toMap(Building::getId, Function.identity()));
+        Map<Long, User> contractors = userRepository.findAllById(contractorIds).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Task> existingDependencies = taskRepository.findAllById(existingDependencyIds).stream()
+            .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        // Validate each row and build its task
+        List<Task> tasks = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            TaskImportRow row = rows.get(i);
+            String error = validateRow(row, buildings, contractors, existingDependencies, rowIndexByRef, createdBy);
+            if (error != null) {
+                response.addError(i + 1, row.getRef(), error);
+            }
+            tasks.add(error == null ? toTask(row, buildings, contractors, createdBy) : null);
+        }
+
+        List<Integer> order = topologicalOrder(rows, rowIndexByRef, response);
+
+        if (!response.getErrors().isEmpty()) {
+            log.info("Task import rejected with {} errors", response.getErrors().size());
+            return response;
+        }
+
+        // Wire dependencies now that every row has a task
+        List<Task> orderedTasks = new ArrayList<>(rows.size());
+        for (int index : order) {
+            Task task = tasks.get(index);
+            for (String dependency : rows.get(index).getDependsOn()) {
+                Integer dependencyIndex = rowIndexByRef.get(dependency);
+                task.getDependencies().add(dependencyIndex != null
+                    ? tasks.get(dependencyIndex)
+                    : existingDependencies.get(Long.valueOf(dependency)));
+            }
+            orderedTasks.add(task);
+        }
+
+        taskBatchService.saveNewTasks(orderedTasks, createdBy, "Task created by bulk import and assigned to contractor");
+
+        for (int i = 0; i < rows.size(); i++) {
+            Long taskId = tasks.get(i).getId();
+            response.getTaskIds().add(taskId);
+            if (rows.get(i).getRef() != null) {
+                response.getTaskIdsByRef().put(rows.get(i).getRef(), taskId);
+            }
+        }
+        response.setImported(orderedTasks.size());
+
+        log.info("Imported {} tasks by user {}", orderedTasks.size(), createdBy.getEmail());
+        return response;
+    }
+
+    private String validateRow(TaskImportRow row, Map<Long, Building> buildings, Map<Long, User> contractors,
+                               Map<Long, Task> existingDependencies, Map<String, Integer> rowIndexByRef,
+                               User createdBy) {
+        if (row.getName() == null || row.getName().isBlank()) {
+            return "Task name is required";
+        }
+        if (row.getType() == null || parseEnum(Task.TaskType.class, row.getType()) == null) {
+            return "Invalid task type: " + row.getType();
+        }
+        if (row.getPriority() == null || parseEnum(Task.Priority.class, row.getPriority()) == null) {
+            return "Invalid priority: " + row.getPriority();
+        }
+        if (row.getStartDate() == null) {
+            return "Start date is required";
+        }
+        if (row.getDeadline() == null) {
+            return "Deadline is required";
+        }
+        if (row.getEstimatedDurationDays() != null && row.getEstimatedDurationDays() <= 0) {
+            return "Estimated duration must be positive";
+        }
+
+        Building building = row.getBuildingId() != null ? buildings.get(row.getBuildingId()) : null;
+        if (building == null) {
+            return "Building not found";
+        }
+        if (!projectAccessIndex.isBuildingOwner(createdBy, building.getId())) {
+            return "You can only create tasks for buildings you created";
+        }
+
+        User contractor = row.getContractorId() != null ? contractors.get(row.getContractorId()) : null;
+        if (contractor == null) {
+            return "Contractor not found";
+        }
+        if (contractor.getRole() != User.Role.CONTRACTOR) {
+            return "Assigned user must be a contractor";
+        }
+
+        for (String dependency : row.getDependsOn()) {
+            if (dependency.equals(row.getRef())) {
+                return "Task cannot depend on itself";
+            }
+            if (!rowIndexByRef.containsKey(dependency)) {
+                try {
+                    if (!existingDependencies.containsKey(Long.valueOf(dependency))) {
+                        return "Dependency task not found: " + dependency;
+                    }
+                } catch (NumberFormatException e) {
+                    // Already reported as an unknown dependency
+                }
+            }
+        }
+        return null;
+    }
+
+    private Task toTask(TaskImportRow row, Map<Long, Building> buildings, Map<Long, User> contractors, User createdBy) {
+        Task task = new Task();
+        task.setName(row.getName());
+        task.setDescription(row.getDescription());
+        task.setBuilding(buildings.get(row.getBuildingId()));
+        task.setAssignedContractor(contractors.get(row.getContractorId()));
+        task.setCreatedBy(createdBy);
+        task.setType(parseEnum(Task.TaskType.class, row.getType()));
+        task.setPriority(parseEnum(Task.Priority.class, row.getPriority()));
+        task.setEstimatedDurationDays(row.getEstimatedDurationDays());
+        task.setEstimatedCost(row.getEstimatedCost());
+        task.setStartDate(row.getStartDate());
+        task.setDeadline(row.getDeadline());
+        task.setStatus(Task.TaskStatus.ASSIGNED);
+        task.setProgressPercentage(0);
+        return task;
+    }
+
+    /**
+     * Order rows so that in-file dependencies are persisted first; reports rows caught in a cycle
+     */
+    private List<Integer> topologicalOrder(List<TaskImportRow> rows, Map<String, Integer> rowIndexByRef,
+                                           TaskImportResponse response) {
+        int[] pendingDependencies = new int[rows.size()];
+        Map<Integer, List<Integer>> dependents = new HashMap<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            for (String dependency : rows.get(i).getDependsOn()) {
+                Integer dependencyIndex = rowIndexByRef.get(dependency);
+                if (dependencyIndex != null && dependencyIndex != i) {
+                    pendingDependencies[i]++;
+                    dependents.computeIfAbsent(dependencyIndex, key -> new ArrayList<>()).add(i);
+                }
+            }
+        }
+
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (pendingDependencies[i] == 0) {
+                queue.add(i);
+            }
+        }
+
+        List<Integer> order = new ArrayList<>(rows.size());
+        while (!queue.isEmpty()) {
+            int index = queue.poll();
+            order.add(index);
+            for (int dependent : dependents.getOrDefault(index, List.of())) {
+                if (--pendingDependencies[dependent] == 0) {
+                    queue.add(dependent);
+                }
+            }
+        }
+
+        if (order.size() < rows.size()) {
+            for (int i = 0; i < rows.size(); i++) {
+                if (pendingDependencies[i] > 0) {
+                    response.addError(i + 1, rows.get(i).getRef(), "Circular dependency between imported tasks");
+                }
+            }
+        }
+        return order;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -2,17 +2,28 @@ package com.constructpro.service;
 
 import com.constructpro.dto.request.TaskCreateRequest;
 import com.constructpro.entity.Building;
+import com.constructpro.entity.BuildingLocation;
 import com.constructpro.entity.Task;
 import com.constructpro.entity.TaskUpdate;
 import com.constructpro.entity.User;
+import com.constructpro.event.TaskChangedEvent;
+import com.constructpro.event.TaskSnapshot;
+import com.constructpro.exception.TaskConflictException;
+import com.constructpro.repository.BuildingLocationRepository;
 import com.constructpro.repository.BuildingRepository;
 import com.constructpro.repository.TaskRepository;
 import com.constructpro.repository.TaskUpdateRepository;
 import com.constructpro.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -28,9 +39,20 @@ public class TaskService {
     
     private final TaskRepository taskRepository;
     private final BuildingRepository buildingRepository;
+    private final BuildingLocationRepository buildingLocationRepository;
     private final UserRepository userRepository;
     private final TaskUpdateRepository taskUpdateRepository;
     private final NotificationService notificationService;
+    private final TaskDependencyIndex dependencyIndex;
+    private final ProgressUpdateBuffer progressUpdateBuffer;
+    private final SearchIndexService searchIndexService;
+    private final ProjectAccessIndex projectAccessIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.tasks.progress.max-attempts:3}")
+    private int progressMaxAttempts;
     
     public Task createTask(TaskCreateRequest request, User createdBy) {
         log.info("Creating new task: {} by user: {}", request.getName(), createdBy.getEmail());
@@ -45,7 +67,7 @@ public class TaskService {
             .orElseThrow(() -> new RuntimeException("Building not found"));
         
         // Validate building ownership
-        if (!building.getCreatedBy().getId().equals(createdBy.getId())) {
+        if (!projectAccessIndex.isBuildingOwner(createdBy, building.getId())) {
             throw new IllegalArgumentException("You can only create tasks for buildings you created");
         }
         
@@ -62,6 +84,13 @@ public class TaskService {
         task.setName(request.getName());
         task.setDescription(request.getDescription());
         task.setBuilding(building);
+        
+        if (request.getLocationId() != null) {
+            BuildingLocation location = buildingLocationRepository.findById(request.getLocationId())
+                .filter(candidate -> candidate.getBuilding().getId().equals(building.getId()))
+                .orElseThrow(() -> new IllegalArgumentException("Location not found in this building"));
+            task.setLocation(location);
+        }
         task.setAssignedContractor(contractor);
         task.setCreatedBy(createdBy);
         
@@ -97,6 +126,9 @@ public class TaskService {
         }
         
         Task savedTask = taskRepository.save(task);
+        dependencyIndex.register(savedTask.getId(), savedTask.getDependencies());
+        searchIndexService.indexTask(savedTask);
+        eventPublisher.publishEvent(new TaskChangedEvent(null, TaskSnapshot.of(savedTask)));
         
         // Create task assignment notification
         notificationService.createTaskAssignedNotification(savedTask);
@@ -124,6 +156,13 @@ public class TaskService {
         return taskRepository.findActiveTasksByContractor(contractor);
     }
     
+    @Transactional(readOnly = true)
+    public List<Task> getReadyTasksByContractor(User contractor) {
+        return taskRepository.findActiveTasksByContractor(contractor).stream()
+            .filter(task -> dependencyIndex.isReady(task.getId()))
+            .collect(Collectors.toList());
+    }
+    
     @Transactional(readOnly = true)
     public List<Task> getTasksByBuilding(Building building) {
         return taskRepository.findTasksByBuildingOrderByStartDate(building);
@@ -154,9 +193,35 @@ public class TaskService {
         return taskRepository.findTasksPendingApprovalByContractor(contractor);
     }
     
+    /**
+     * Progress updates only overwrite the percentage, so a version conflict is retried
+     * against a fresh copy of the task, each attempt in its own transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Task updateTaskProgress(Long taskId, int progressPercentage, String notes, User updatedBy) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Task task = transactionTemplate.execute(status ->
+                    applyProgressUpdate(taskId, progressPercentage, notes, updatedBy));
+                if (attempt > 1) {
+                    recordConflict("progress", "resolved");
+                }
+                return task;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= progressMaxAttempts) {
+                    recordConflict("progress", "exhausted");
+                    throw new TaskConflictException("Task was updated concurrently, please retry", e);
+                }
+                recordConflict("progress", "retried");
+                log.debug("Progress update on task {} conflicted, retrying (attempt {})", taskId, attempt);
+            }
+        }
+    }
+    
+    private Task applyProgressUpdate(Long taskId, int progressPercentage, String notes, User updatedBy) {
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new RuntimeException("Task not found"));
+        TaskSnapshot before = TaskSnapshot.of(task);
         
         // Validate user role
         if (updatedBy.getRole() != User.Role.CONTRACTOR) {
@@ -177,11 +242,26 @@ public class TaskService {
         task.setProgressPercentage(progressPercentage);
         
         // Update status based on progress
-        if (progressPercentage > 0 && task.getStatus() == Task.TaskStatus.ASSIGNED) {
+        boolean startsWork = progressPercentage > 0 && task.getStatus() == Task.TaskStatus.ASSIGNED;
+        if (startsWork) {
             task.setStatus(Task.TaskStatus.IN_PROGRESS);
         }
         
-        Task savedTask = taskRepository.save(task);
+        // Plain progress moves are merged into one timeline entry; a status change is written on its own
+        boolean coalesce = progressUpdateBuffer.isEnabled() && !startsWork;
+        if (!coalesce) {
+            progressUpdateBuffer.flushTask(taskId);
+        }
+        
+        Task savedTask = taskRepository.saveAndFlush(task);
+        publishChange(before, savedTask);
+        
+        if (coalesce) {
+            TransactionCallbacks.afterCommit(() ->
+                progressUpdateBuffer.record(taskId, updatedBy.getId(), oldProgress, progressPercentage, notes));
+            log.debug("Task {} progress updated to {}% by user {}", taskId, progressPercentage, updatedBy.getEmail());
+            return savedTask;
+        }
         
         // Create progress update
         TaskUpdate progressUpdate = new TaskUpdate(
@@ -200,6 +280,7 @@ public class TaskService {
     public Task markTaskAsCompleted(Long taskId, String completionNotes, User contractor) {
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new RuntimeException("Task not found"));
+        TaskSnapshot before = TaskSnapshot.of(task);
         
         // Validate user role
         if (contractor.getRole() != User.Role.CONTRACTOR) {
@@ -216,6 +297,9 @@ public class TaskService {
             throw new IllegalStateException("Task must be in progress to mark as completed");
         }
         
+        // Keep buffered progress entries ahead of this one in the timeline
+        progressUpdateBuffer.flushTask(taskId);
+        
         // Update task
         task.setStatus(Task.TaskStatus.COMPLETED);
         task.setProgressPercentage(100);
@@ -228,7 +312,9 @@ public class TaskService {
             task.setActualDurationDays((int) actualDuration);
         }
         
-        Task savedTask = taskRepository.save(task);
+        Task savedTask = saveOrConflict(task, "complete");
+        searchIndexService.indexTask(savedTask);
+        publishChange(before, savedTask);
         
         // Create completion update
         TaskUpdate completionUpdate = new TaskUpdate(
@@ -249,6 +335,7 @@ public class TaskService {
     public Task approveTask(Long taskId, User admin) {
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new RuntimeException("Task not found"));
+        TaskSnapshot before = TaskSnapshot.of(task);
         
         // Validate user role
         if (admin.getRole() != User.Role.BUILDER) {
@@ -256,7 +343,7 @@ public class TaskService {
         }
         
         // Verify building ownership
-        if (!task.getBuilding().getCreatedBy().getId().equals(admin.getId())) {
+        if (!projectAccessIndex.isTaskBuildingOwner(admin, task)) {
             throw new IllegalArgumentException("You can only approve tasks for buildings you created");
         }
         
@@ -265,12 +352,16 @@ public class TaskService {
             throw new IllegalStateException("Task must be completed to approve");
         }
         
+        // Keep buffered progress entries ahead of this one in the timeline
+        progressUpdateBuffer.flushTask(taskId);
+        
         // Update task
         task.setStatus(Task.TaskStatus.APPROVED);
         task.setApprovedBy(admin);
         task.setApprovalDate(LocalDate.now());
         
-        Task savedTask = taskRepository.save(task);
+        Task savedTask = saveOrConflict(task, "approve");
+        publishChange(before, savedTask);
         
         // Create approval update
         TaskUpdate approvalUpdate = new TaskUpdate(
@@ -284,6 +375,9 @@ public class TaskService {
         // Create notification for contractor
         notificationService.createTaskApprovedNotification(savedTask);
         
+        // Unblock dependents waiting on this task
+        notifyUnblockedTasks(dependencyIndex.resolve(taskId));
+        
         log.info("Task {} approved by admin {}", taskId, admin.getEmail());
         return savedTask;
     }
@@ -291,6 +385,7 @@ public class TaskService {
     public Task rejectTask(Long taskId, String rejectionReason, User admin) {
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new RuntimeException("Task not found"));
+        TaskSnapshot before = TaskSnapshot.of(task);
         
         // Validate user role
         if (admin.getRole() != User.Role.BUILDER) {
@@ -298,7 +393,7 @@ public class TaskService {
         }
         
         // Verify building ownership
-        if (!task.getBuilding().getCreatedBy().getId().equals(admin.getId())) {
+        if (!projectAccessIndex.isTaskBuildingOwner(admin, task)) {
             throw new IllegalArgumentException("You can only reject tasks for buildings you created");
         }
         
@@ -311,6 +406,9 @@ public class TaskService {
             throw new IllegalArgumentException("Rejection reason is required");
         }
         
+        // Keep buffered progress entries ahead of this one in the timeline
+        progressUpdateBuffer.flushTask(taskId);
+        
         // Update task
         task.setStatus(Task.TaskStatus.REJECTED);
         task.setApprovedBy(admin);
@@ -318,7 +416,8 @@ public class TaskService {
         task.setApprovalDate(LocalDate.now());
         task.setProgressPercentage(90); // Reset progress slightly to indicate rework needed
         
-        Task savedTask = taskRepository.save(task);
+        Task savedTask = saveOrConflict(task, "reject");
+        publishChange(before, savedTask);
         
         // Create rejection update
         TaskUpdate rejectionUpdate = new TaskUpdate(
@@ -339,6 +438,7 @@ public class TaskService {
     public Task updateTaskStatus(Long taskId, Task.TaskStatus status, User updatedBy) {
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new RuntimeException("Task not found"));
+        TaskSnapshot before = TaskSnapshot.of(task);
         
         // Validate user role
         if (updatedBy.getRole() != User.Role.CONTRACTOR) {
@@ -350,6 +450,9 @@ public class TaskService {
             throw new IllegalArgumentException("You can only update your own tasks");
         }
         
+        // Keep buffered progress entries ahead of this one in the timeline
+        progressUpdateBuffer.flushTask(taskId);
+        
         Task.TaskStatus oldStatus = task.getStatus();
         task.setStatus(status);
         
@@ -357,7 +460,21 @@ public class TaskService {
             task.setProgressPercentage(10);
         }
         
-        Task savedTask = taskRepository.save(task);
+        Task savedTask = saveOrConflict(task, "status");
+        publishChange(before, savedTask);
+        
+        // Keep the dependency index in step with approvals and cancellations
+        boolean wasReleasing = TaskDependencyIndex.releasesDependents(oldStatus);
+        boolean releasing = TaskDependencyIndex.releasesDependents(status);
+        if (!wasReleasing && releasing) {
+            notifyUnblockedTasks(dependencyIndex.resolve(taskId));
+        } else if (wasReleasing && !releasing) {
+            List<Long> reblocked = taskRepository.findTasksByDependency(taskId).stream()
+                .filter(dependent -> !TaskDependencyIndex.releasesDependents(dependent.getStatus()))
+                .map(Task::getId)
+                .collect(Collectors.toList());
+            TransactionCallbacks.afterCommit(() -> dependencyIndex.reopen(taskId, reblocked));
+        }
         
         // Create status update
         TaskUpdate statusUpdate = new TaskUpdate(
@@ -387,13 +504,16 @@ public class TaskService {
             }
         } else if (updatedBy.getRole() == User.Role.BUILDER) {
             // Builders can only update tasks for buildings they created
-            if (!task.getBuilding().getCreatedBy().getId().equals(updatedBy.getId())) {
+            if (!projectAccessIndex.isTaskBuildingOwner(updatedBy, task)) {
                 throw new IllegalArgumentException("You can only add updates to tasks for buildings you created");
             }
         } else {
             throw new IllegalArgumentException("Only builders and contractors can add task updates");
         }
         
+        // Keep buffered progress entries ahead of this one in the timeline
+        progressUpdateBuffer.flushTask(taskId);
+        
         TaskUpdate taskUpdate = new TaskUpdate(task, updatedBy, updateType, message);
         
         if (imageUrls != null && !imageUrls.isEmpty()) {
@@ -419,13 +539,14 @@ public class TaskService {
             }
         } else if (requestingUser.getRole() == User.Role.BUILDER) {
             // Builders can only view updates for tasks in buildings they created
-            if (!task.getBuilding().getCreatedBy().getId().equals(requestingUser.getId())) {
+            if (!projectAccessIndex.isTaskBuildingOwner(requestingUser, task)) {
                 throw new IllegalArgumentException("You can only view updates for tasks in buildings you created");
             }
         } else if (requestingUser.getRole() != User.Role.ADMIN) {
             throw new IllegalArgumentException("Access denied");
         }
         
+        progressUpdateBuffer.flushTask(taskId);
         return taskUpdateRepository.findTaskUpdatesOrderByCreatedAtDesc(task);
     }
     
@@ -442,6 +563,7 @@ public class TaskService {
     public void deleteTask(Long taskId, User deletedBy) {
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new RuntimeException("Task not found"));
+        TaskSnapshot before = TaskSnapshot.of(task);
         
         // Validate user role
         if (deletedBy.getRole() != User.Role.BUILDER) {
@@ -449,7 +571,7 @@ public class TaskService {
         }
         
         // Verify building ownership
-        if (!task.getBuilding().getCreatedBy().getId().equals(deletedBy.getId())) {
+        if (!projectAccessIndex.isTaskBuildingOwner(deletedBy, task)) {
             throw new IllegalArgumentException("You can only delete tasks for buildings you created");
         }
         
@@ -457,8 +579,57 @@ public class TaskService {
             throw new IllegalStateException("Cannot delete task that is in progress or completed");
         }
         
+        // Dependents waiting on this task are released rather than left blocked on a task that no longer exists
+        List<Long> unblocked = dependencyIndex.resolve(taskId);
+        taskRepository.deleteDependencyEdgesTo(taskId);
         taskRepository.delete(task);
+        TransactionCallbacks.afterCommit(() -> dependencyIndex.remove(taskId));
+        notifyUnblockedTasks(unblocked);
+        TransactionCallbacks.afterCommit(() -> progressUpdateBuffer.discardTask(taskId));
+        searchIndexService.remove(SearchIndexService.DocumentType.TASK, taskId);
+        eventPublisher.publishEvent(new TaskChangedEvent(before, null));
         
         log.info("Task {} deleted by user {}", taskId, deletedBy.getEmail());
     }
+    
+    private void notifyUnblockedTasks(List<Long> readyTaskIds) {
+        if (readyTaskIds.isEmpty()) {
+            return;
+        }
+        
+        List<Task> readyTasks = taskRepository.findAllWithContractorAndBuildingByIdIn(readyTaskIds).stream()
+            .filter(task -> task.getStatus() != Task.TaskStatus.COMPLETED && 
+                            task.getStatus() != Task.TaskStatus.APPROVED && 
+                            task.getStatus() != Task.TaskStatus.CANCELLED)
+            .collect(Collectors.toList());
+        
+        if (!readyTasks.isEmpty()) {
+            notificationService.createTaskUnblockedNotifications(readyTasks);
+            log.info("Tasks {} are unblocked and ready to start", readyTaskIds);
+        }
+    }
+    
+    /**
+     * Write a state change immediately so a concurrent change is reported as a conflict
+     * instead of being overwritten
+     */
+    private Task saveOrConflict(Task task, String operation) {
+        try {
+            return taskRepository.saveAndFlush(task);
+        } catch (OptimisticLockingFailureException e) {
+            recordConflict(operation, "rejected");
+            throw new TaskConflictException("Task was modified by another user, please reload and try again", e);
+        }
+    }
+    
+    private void publishChange(TaskSnapshot before, Task task) {
+        TaskSnapshot after = TaskSnapshot.of(task);
+        if (!after.equals(before)) {
+            eventPublisher.publishEvent(new TaskChangedEvent(before, after));
+        }
+    }
+    
+    private void recordConflict(String operation, String outcome) {
+        meterRegistry.counter("task.update.conflicts", "operation", operation, "outcome", outcome).increment();
+    }
 }
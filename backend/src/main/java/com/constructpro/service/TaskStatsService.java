@@ -0,0 +1,143 @@
+package com.constructpro.service;
+
+import com.constructpro.dto.response.TaskStatsResponse;
+import com.constructpro.entity.Task;
+import com.constructpro.entity.User;
+import com.constructpro.event.TaskChangedEvent;
+import com.constructpro.event.TaskSnapshot;
+import com.constructpro.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Task counts by status, priority and type from a single grouped query per scope.
+ * Results are cached per scope (global, builder or contractor) and evicted when a task in
+ * that scope changes, when the day rolls over, or after the configured time to live. Task
+ * changes only evict on the node that committed them, so the time to live is kept to a few
+ * seconds: it is what bounds how stale another node's statistics can be, while still absorbing
+ * a burst of dashboard loads with one query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class TaskStatsService {
+
+    private static final String GLOBAL_SCOPE = "ALL";
+
+    private final TaskRepository taskRepository;
+
+    private final Map<String, CachedStats> cache = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction so a query that raced with a task change is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${app.tasks.stats.cache-ttl-seconds:5}")
+    private long cacheTtlSeconds;
+
+    /**
+     * Statistics scoped to what the user can see: everything for admins, the tasks of a
+     * builder's buildings, or a contractor's own tasks
+     */
+    public TaskStatsResponse getStats(User user) {
+        return switch (user.getRole()) {
+            case ADMIN -> getGlobalStats();
+            case BUILDER -> cached(scopeKey(User.Role.BUILDER, user.getId()),
+                today -> taskRepository.countTasksGroupedByBuilder(user, today));
+            case CONTRACTOR -> cached(scopeKey(User.Role.CONTRACTOR, user.getId()),
+                today -> taskRepository.countTasksGroupedByContractor(user, today));
+        };
+    }
+
+    public TaskStatsResponse getGlobalStats() {
+        return cached(GLOBAL_SCOPE, taskRepository::countTasksGrouped);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        generation.incrementAndGet();
+        cache.remove(GLOBAL_SCOPE);
+        evict(event.before());
+        evict(event.after());
+    }
+
+    private void evict(TaskSnapshot snapshot) {
+        if (snapshot != null) {
+            cache.remove(scopeKey(User.Role.BUILDER, snapshot.buildingOwnerId()));
+            cache.remove(scopeKey(User.Role.CONTRACTOR, snapshot.contractorId()));
+        }
+    }
+
+    private TaskStatsResponse cached(String scope, GroupedQuery query) {
+        LocalDate today = LocalDate.now();
+        CachedStats entry = cache.get(scope);
+        if (entry != null && entry.day().equals(today)
+                && entry.stats().getGeneratedAt().plusSeconds(cacheTtlSeconds).isAfter(LocalDateTime.now())) {
+            return entry.stats();
+        }
+
+        long startGeneration = generation.get();
+        TaskStatsResponse stats = aggregate(scope, query.run(today));
+        if (generation.get() == startGeneration) {
+            cache.put(scope, new CachedStats(today, stats));
+        }
+        return stats;
+    }
+
+    private TaskStatsResponse aggregate(String scope, List<Object[]> rows) {
+        TaskStatsResponse stats = new TaskStatsResponse();
+        stats.setScope(scope);
+
+        // Report every status, priority and type, including those with no tasks
+        for (Task.TaskStatus status : Task.TaskStatus.values()) {
+            stats.getByStatus().put(status.name(), 0L);
+        }
+        for (Task.Priority priority : Task.Priority.values()) {
+            stats.getByPriority().put(priority.name(), 0L);
+        }
+        for (Task.TaskType type : Task.TaskType.values()) {
+            stats.getByType().put(type.name(), 0L);
+        }
+
+        for (Object[] row : rows) {
+            String status = ((Task.TaskStatus) row[0]).name();
+            String priority = ((Task.Priority) row[1]).name();
+            String type = ((Task.TaskType) row[2]).name();
+            long count = ((Number) row[3]).longValue();
+            long overdue = row[4] != null ? ((Number) row[4]).longValue() : 0L;
+
+            stats.getGroups().add(new TaskStatsResponse.Group(status, priority, type, count, overdue));
+            stats.getByStatus().merge(status, count, Long::sum);
+            stats.getByPriority().merge(priority, count, Long::sum);
+            stats.getByType().merge(type, count, Long::sum);
+            stats.setTotal(stats.getTotal() + count);
+            stats.setOverdue(stats.getOverdue() + overdue);
+        }
+
+        stats.setGeneratedAt(LocalDateTime.now());
+        return stats;
+    }
+
+    private static String scopeKey(User.Role role, Long userId) {
+        return role.name() + ":" + userId;
+    }
+
+    @FunctionalInterface
+    private interface GroupedQuery {
+        List<Object[]> run(LocalDate today);
+    }
+
+    private record CachedStats(LocalDate day, TaskStatsResponse stats) {
+    }
+}
@@ -0,0 +1,315 @@
+package com.constructpro.service;
+
+import com.constructpro.dto.request.TaskTemplateRequest;
+import com.constructpro.dto.request.TemplateExpansionRequest;
+import com.constructpro.dto.response.TemplateExpansionResponse;
+import com.constructpro.entity.Building;
+import com.constructpro.entity.BuildingLocation;
+import com.constructpro.entity.Task;
+import com.constructpro.entity.TaskTemplate;
+import com.constructpro.entity.TaskTemplateItem;
+import com.constructpro.entity.User;
+import com.constructpro.repository.BuildingRepository;
+import com.constructpro.repository.TaskTemplateRepository;
+import com.constructpro.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TaskTemplateService {
+
+    private static final String FLOOR_PLACEHOLDER = "{floor}";
+
+    private final TaskTemplateRepository taskTemplateRepository;
+    private final BuildingRepository buildingRepository;
+    private final UserRepository userRepository;
+    private final TaskBatchService taskBatchService;
+    private final ProjectAccessIndex projectAccessIndex;
+    private final BuildingLocationService buildingLocationService;
+
+    @Value("${app.tasks.import.max-rows:10000}")
+    private int maxTasks;
+
+    public TaskTemplate createTemplate(TaskTemplateRequest request, User createdBy) {
+        log.info("Creating task template: {} by user: {}", request.getName(), createdBy.getEmail());
+
+        if (createdBy.getRole() != User.Role.BUILDER) {
+            throw new IllegalArgumentException("Only builders can create task templates");
+        }
+
+        TaskTemplate template = new TaskTemplate();
+        template.setName(request.getName());
+        template.setDescription(request.getDescription());
+        template.setCreatedBy(createdBy);
+
+        // Store items in dependency order so expansion can persist them as listed
+        List<TaskTemplateRequest.Item> items = orderItems(request.getItems());
+        for (int i = 0; i < items.size(); i++) {
+            TaskTemplateRequest.Item source = items.get(i);
+
+            TaskTemplateItem item = new TaskTemplateItem();
+            item.setTemplate(template);
+            item.setKey(source.getKey());
+            item.setName(source.getName());
+            item.setDescription(source.getDescription());
+            item.setType(parseEnum(Task.TaskType.class, source.getType(), "task type"));
+            item.setPriority(source.getPriority() != null
+                ? parseEnum(Task.Priority.class, source.getPriority(), "priority")
+                : Task.Priority.MEDIUM);
+            item.setStartOffsetDays(source.getStartOffsetDays());
+            item.setDurationDays(source.getDurationDays());
+            item.setEstimatedCost(source.getEstimatedCost());
+            item.setPosition(i);
+            item.setDependsOn(new ArrayList<>(source.getDependsOn()));
+            template.getItems().add(item);
+        }
+
+        TaskTemplate savedTemplate = taskTemplateRepository.save(template);
+        log.info("Task template created with ID: {}", savedTemplate.getId());
+
+        return savedTemplate;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskTemplate> getTemplatesByUser(User user) {
+        return taskTemplateRepository.findByCreatedByWithItems(user);
+    }
+
+    @Transactional(readOnly = true)
+    public TaskTemplate getTemplate(Long templateId, User user) {
+        TaskTemplate template = taskTemplateRepository.findByIdWithItems(templateId)
+            .orElseThrow(() -> new RuntimeException("Task template not found"));
+
+        if (!template.getCreatedBy().getId().equals(user.getId())) {
+            throw new RuntimeException("You can only access your own task templates");
+        }
+        return template;
+    }
+
+    public void deleteTemplate(Long templateId, User user) {
+        TaskTemplate template = getTemplate(templateId, user);
+        taskTemplateRepository.delete(template);
+        log.info("Task template {} deleted by user {}", templateId, user.getEmail());
+    }
+
+    /**
+     * Expand a template across the floors or units of a building. Every task is built in
+     * memory first and then written through batched inserts in this single transaction.
+     */
+    public TemplateExpansionResponse expandTemplate(Long templateId, TemplateExpansionRequest request, User user) {
+        TaskTemplate template = getTemplate(templateId, user);
+
+        Building building = buildingRepository.findById(request.getBuildingId())
+            .orElseThrow(() -> new RuntimeException("Building not found"));
+
+        if (!projectAccessIndex.isBuildingOwner(user, building.getId())) {
+            throw new RuntimeException("You can only create tasks for buildings you created");
+        }
+
+        List<String> locations = resolveLocations(request, building);
+        List<TaskTemplateItem> items = template.getItems();
+
+        if ((long) locations.size() * items.size() > maxTasks) {
+            throw new IllegalArgumentException("Template expansion is limited to " + maxTasks + " tasks");
+        }
+
+        Map<Task.TaskType, User> contractorsByType = resolveContractors(request, items);
+        int floorOffsetDays = request.getFloorOffsetDays() != null ? request.getFloorOffsetDays() : 0;
+
+        // Floor tasks are filed under the building's floor locations where those exist
+        Map<Integer, BuildingLocation> floors = request.getUnits() == null
+            ? buildingLocationService.floorsByNumber(building.getId())
+            : Map.of();
+
+        List<Task> tasks = new ArrayList<>(locations.size() * items.size());
+        Map<String, Task> previousLocation = new HashMap<>();
+
+        for (int index = 0; index < locations.size(); index++) {
+            String location = locations.get(index);
+            LocalDate locationStart = request.getStartDate().plusDays((long) index * floorOffsetDays);
+            Map<String, Task> currentLocation = new HashMap<>();
+            BuildingLocation floor = request.getUnits() == null ? floors.get(Integer.valueOf(location)) : null;
+
+            for (TaskTemplateItem item : items) {
+                Task task = new Task();
+                task.setName(locationName(item.getName(), location, request.getUnits() != null));
+                task.setDescription(item.getDescription());
+                task.setBuilding(building);
+                task.setLocation(floor);
+                task.setAssignedContractor(contractorsByType.get(item.getType()));
+                task.setCreatedBy(user);
+                task.setType(item.getType());
+                task.setPriority(item.getPriority());
+                task.setEstimatedDurationDays(item.getDurationDays());
+                task.setEstimatedCost(item.getEstimatedCost());
+                task.setStartDate(locationStart.plusDays(item.getStartOffsetDays()));
+                task.setDeadline(task.getStartDate().plusDays(item.getDurationDays() - 1));
+                task.setStatus(Task.TaskStatus.ASSIGNED);
+                task.setProgressPercentage(0);
+
+                // Items are stored in dependency order, so every dependency is already built
+                for (String dependency : item.getDependsOn()) {
+                    task.getDependencies().add(currentLocation.get(dependency));
+                }
+                if (request.isChainFloors() && previousLocation.containsKey(item.getKey())) {
+                    task.getDependencies().add(previousLocation.get(item.getKey()));
+                }
+
+                currentLocation.put(item.getKey(), task);
+                tasks.add(task);
+            }
+            previousLocation = currentLocation;
+        }
+
+        taskBatchService.saveNewTasks(tasks, user,
+            "Task generated from template '" + template.getName() + "' and assigned to contractor");
+
+        List<Long> taskIds = tasks.stream().map(Task::getId).collect(Collectors.toList());
+        log.info("Expanded template {} into {} tasks across {} locations of building {}",
+            templateId, tasks.size(), locations.size(), building.getId());
+
+        return new TemplateExpansionResponse(templateId, building.getId(), locations.size(), tasks.size(), taskIds);
+    }
+
+    private List<String> resolveLocations(TemplateExpansionRequest request, Building building) {
+        if (request.getUnits() != null) {
+            if (request.getUnits().isEmpty()) {
+                throw new IllegalArgumentException("At least one unit is required");
+            }
+            if (new HashSet<>(request.getUnits()).size() != request.getUnits().size()) {
+                throw new IllegalArgumentException("Unit labels must be unique");
+            }
+            return request.getUnits();
+        }
+
+        int fromFloor = request.getFromFloor() != null ? request.getFromFloor() : 1;
+        Integer toFloor = request.getToFloor() != null ? request.getToFloor() : building.getTotalFloors();
+        if (toFloor == null) {
+            throw new IllegalArgumentException("Building has no floor count; specify the floor range or units");
+        }
+        if (fromFloor > toFloor) {
+            throw new IllegalArgumentException("From floor must not be after to floor");
+        }
+
+        return IntStream.rangeClosed(fromFloor, toFloor)
+            .mapToObj(String::valueOf)
+            .collect(Collectors.toList());
+    }
+
+    private Map<Task.TaskType, User> resolveContractors(TemplateExpansionRequest request, List<TaskTemplateItem> items) {
+        Map<Task.TaskType, Long> contractorIdsByType = new HashMap<>();
+        request.getContractorsByType().forEach((type, contractorId) ->
+            contractorIdsByType.put(parseEnum(Task.TaskType.class, type, "task type"), contractorId));
+
+        Map<Task.TaskType, Long> assignments = new HashMap<>();
+        for (TaskTemplateItem item : items) {
+            Long contractorId = contractorIdsByType.getOrDefault(item.getType(), request.getContractorId());
+            if (contractorId == null) {
+                throw new IllegalArgumentException("No contractor specified for task type " + item.getType());
+            }
+            assignments.put(item.getType(), contractorId);
+        }
+
+        Map<Long, User> contractors = userRepository.findAllById(new HashSet<>(assignments.values())).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        Map<Task.TaskType, User> contractorsByType = new HashMap<>();
+        assignments.forEach((type, contractorId) -> {
+            User contractor = contractors.get(contractorId);
+            if (contractor == null) {
+                throw new RuntimeException("Contractor not found: " + contractorId);
+            }
+            if (contractor.getRole() != User.Role.CONTRACTOR) {
+                throw new IllegalArgumentException("Assigned user must be a contractor: " + contractorId);
+            }
+            contractorsByType.put(type, contractor);
+        });
+        return contractorsByType;
+    }
+
+    private String locationName(String pattern, String location, boolean units) {
+        if (pattern.contains(FLOOR_PLACEHOLDER)) {
+            return pattern.replace(FLOOR_PLACEHOLDER, location);
+        }
+        return pattern + (units ? " - " + location : " - Floor " + location);
+    }
+
+    /**
+     * Validate item keys and dependencies, and order items so each comes after its dependencies
+     */
+    private List<TaskTemplateRequest.Item> orderItems(List<TaskTemplateRequest.Item> items) {
+        Map<String, TaskTemplateRequest.Item> itemsByKey = new HashMap<>();
+        for (TaskTemplateRequest.Item item : items) {
+            if (itemsByKey.putIfAbsent(item.getKey(), item) != null) {
+                throw new IllegalArgumentException("Duplicate item key: " + item.getKey());
+            }
+        }
+
+        Map<String, Integer> pendingDependencies = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (TaskTemplateRequest.Item item : items) {
+            Set<String> dependencies = new HashSet<>(item.getDependsOn());
+            for (String dependency : dependencies) {
+                if (dependency.equals(item.getKey())) {
+                    throw new IllegalArgumentException("Item cannot depend on itself: " + item.getKey());
+                }
+                if (!itemsByKey.containsKey(dependency)) {
+                    throw new IllegalArgumentException("Unknown dependency '" + dependency + "' in item " + item.getKey());
+                }
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(item.getKey());
+            }
+            item.setDependsOn(new ArrayList<>(dependencies));
+            pendingDependencies.put(item.getKey(), dependencies.size());
+        }
+
+        Deque<String> queue = new ArrayDeque<>();
+        for (TaskTemplateRequest.Item item : items) {
+            if (pendingDependencies.get(item.getKey()) == 0) {
+                queue.add(item.getKey());
+            }
+        }
+
+        List<TaskTemplateRequest.Item> ordered = new ArrayList<>(items.size());
+        while (!queue.isEmpty()) {
+            String key = queue.poll();
+            ordered.add(itemsByKey.get(key));
+            for (String dependent : dependents.getOrDefault(key, List.of())) {
+                if (pendingDependencies.merge(dependent, -1, Integer::sum) == 0) {
+                    queue.add(dependent);
+                }
+            }
+        }
+
+        if (ordered.size() < items.size()) {
+            throw new IllegalArgumentException("Circular dependency between template items");
+        }
+        return ordered;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String label) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + label + ": " + value);
+        }
+    }
+}
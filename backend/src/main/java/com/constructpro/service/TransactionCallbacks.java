@@ -0,0 +1,84 @@
+package com.constructpro.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Helpers for tying in-memory side effects to the outcome of the current transaction
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    /**
+     * Run the action once the current transaction commits, or immediately when no transaction is active
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Run the action only if the current transaction rolls back
+     */
+    public static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * State gathered across the current transaction and passed to the flush action just before it
+     * commits, so the flush writes commit or roll back with the rest of the transaction. Every call
+     * with the same key in one transaction returns the same state. Outside a transaction a fresh
+     * state is returned and nothing is registered; the caller applies it itself.
+     */
+    public static <T> T collectUntilCommit(Object key, Supplier<T> factory, Consumer<T> flush) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return factory.get();
+        }
+
+        @SuppressWarnings("unchecked")
+        T state = (T) TransactionSynchronizationManager.getResource(key);
+        if (state != null) {
+            return state;
+        }
+
+        T created = factory.get();
+        TransactionSynchronizationManager.bindResource(key, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                flush.accept(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(key);
+            }
+        });
+        return created;
+    }
+}
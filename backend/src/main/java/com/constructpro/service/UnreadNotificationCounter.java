@@ -0,0 +1,150 @@
+package com.constructpro.service;
+
+import com.constructpro.entity.Notification;
+import com.constructpro.entity.User;
+import com.constructpro.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-user unread notification counts held in memory so the polled count endpoint does not query
+ * the database. A user's count is loaded on first request and then adjusted after each commit
+ * that creates, reads or deletes their notifications. Changes made on other nodes, or that race
+ * with a load, are picked up by the periodic reconcile, which also drops users who have not asked
+ * for their count in a while so the map keeps room for active ones.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadNotificationCounter {
+
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    private final NotificationRepository notificationRepository;
+
+    private final Map<Long, Count> counts = new ConcurrentHashMap<>();
+
+    @Value("${app.notifications.unread.max-users:100000}")
+    private int maxUsers;
+
+    @Value("${app.notifications.unread.idle-ms:1800000}")
+    private long idleMs;
+
+    public long get(User user) {
+        Count count = counts.get(user.getId());
+        if (count == null) {
+            if (counts.size() >= maxUsers) {
+                // Past the cap, count from the database rather than grow the map
+                return notificationRepository.countUnreadNotificationsByUser(user);
+            }
+            Count loaded = new Count(notificationRepository.countUnreadNotificationsByUser(user));
+            count = counts.putIfAbsent(user.getId(), loaded);
+            if (count == null) {
+                count = loaded;
+            }
+        }
+        count.lastUsed = System.currentTimeMillis();
+        return Math.max(0L, count.unread.sum());
+    }
+
+    /**
+     * Count new notifications for their recipients once the current transaction commits
+     */
+    public void added(Collection<Notification> notifications) {
+        Map<Long, Long> perUser = new HashMap<>();
+        for (Notification notification : notifications) {
+            perUser.merge(notification.getUser().getId(), 1L, Long::sum);
+        }
+        TransactionCallbacks.afterCommit(() -> perUser.forEach(this::adjust));
+    }
+
+    // One of the user's unread notifications was read or deleted
+    public void removed(Long userId) {
+        TransactionCallbacks.afterCommit(() -> adjust(userId, -1L));
+    }
+
+    // Notifications newer than the watermark can commit around it, so reload rather than assume zero
+    public void allRead(Long userId) {
+        TransactionCallbacks.afterCommit(() -> counts.remove(userId));
+    }
+
+    // Drop the counts so they are reloaded on next use, for example after a bulk delete
+    public void invalidate(Collection<Long> userIds) {
+        TransactionCallbacks.afterCommit(() -> userIds.forEach(counts::remove));
+    }
+
+    /**
+     * Drop idle users' counts, then replace every remaining count that differs from the database's,
+     * a batch of users per query
+     */
+    @Scheduled(initialDelayString = "${app.notifications.unread.reconcile-interval-ms:60000}",
+               fixedDelayString = "${app.notifications.unread.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        long idleSince = System.currentTimeMillis() - idleMs;
+        int evicted = 0;
+        for (Map.Entry<Long, Count> entry : counts.entrySet()) {
+            if (entry.getValue().lastUsed < idleSince && counts.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+
+        List<Long> userIds = new ArrayList<>(counts.keySet());
+        int corrected = 0;
+
+        for (int from = 0; from < userIds.size(); from += RECONCILE_BATCH_SIZE) {
+            List<Long> batch = userIds.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, userIds.size()));
+            Map<Long, Long> actual = new HashMap<>();
+            for (Object[] row : notificationRepository.countUnreadByUserIds(batch)) {
+                actual.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+
+            for (Long userId : batch) {
+                Count count = counts.get(userId);
+                long expected = actual.getOrDefault(userId, 0L);
+                // Swapped rather than adjusted in place, so an adjust racing with the correction is not lost
+                if (count != null && count.unread.sum() != expected
+                        && counts.replace(userId, count, new Count(expected, count.lastUsed))) {
+                    corrected++;
+                }
+            }
+        }
+
+        if (corrected > 0 || evicted > 0) {
+            log.info("Corrected unread notification counts for {} of {} users and dropped {} idle users",
+                corrected, userIds.size(), evicted);
+        }
+    }
+
+    // Atomic with the swap in reconcile, so the delta lands on whichever count is current
+    private void adjust(Long userId, long delta) {
+        counts.computeIfPresent(userId, (id, count) -> {
+            count.unread.add(delta);
+            return count;
+        });
+    }
+
+    private static final class Count {
+        private final LongAdder unread = new LongAdder();
+        private volatile long lastUsed;
+
+        private Count(long unread) {
+            this(unread, System.currentTimeMillis());
+        }
+
+        private Count(long unread, long lastUsed) {
+            this.unread.add(unread);
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.constructpro.service;
+
+import com.constructpro.entity.BuildingLocation;
+import com.constructpro.entity.Task;
+import com.constructpro.entity.TaskRollup;
+import com.constructpro.event.TaskChangedEvent;
+import com.constructpro.event.TaskSnapshot;
+import com.constructpro.repository.BuildingLocationRepository;
+import com.constructpro.repository.BuildingRepository;
+import com.constructpro.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rollup deltas over floor 1 (/1/) holding unit 2 (/1/2/), and floor 3 (/3/)
+ */
+@ExtendWith(MockitoExtension.class)
+class BuildingLocationServiceTest {
+
+    @Mock
+    private BuildingLocationRepository locationRepository;
+    @Mock
+    private BuildingRepository buildingRepository;
+    @Mock
+    private TaskRepository taskRepository;
+
+    private BuildingLocationService service;
+    private final LocalDate today = LocalDate.now();
+    private final Map<Long, BuildingLocation> locations = new TreeMap<>();
+    private final List<List<Long>> lockedIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        service = new BuildingLocationService(locationRepository, buildingRepository, taskRepository,
+            mock(ProjectAccessIndex.class), new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            mock(JobLeaseService.class));
+
+        location(1L, "/1/");
+        location(2L, "/1/2/");
+        location(3L, "/3/");
+
+        lenient().when(locationRepository.findPaths(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> new Object[] {id, locations.get(id).getPath()}).toList();
+        });
+        lenient().when(locationRepository.findAllByIdsForUpdate(anyCollection())).thenAnswer(invocation -> {
+            List<Long> ids = new ArrayList<>(invocation.<Collection<Long>>getArgument(0));
+            lockedIds.add(ids);
+            return ids.stream().map(locations::get).toList();
+        });
+    }
+
+    @Test
+    void newTaskIsAddedToItsLocationAndEveryAncestor() {
+        service.onTaskChanged(new TaskChangedEvent(null, snapshot(2L, Task.TaskStatus.IN_PROGRESS, 40, "100")));
+
+        for (Long id : List.of(1L, 2L)) {
+            assertEquals(1, rollup(id).getTotalTasks());
+            assertEquals(40, rollup(id).getProgressPoints());
+            assertEquals(new BigDecimal("100"), rollup(id).getEstimatedCost());
+        }
+        assertEquals(0, rollup(3L).getTotalTasks());
+    }
+
+    @Test
+    void movedTaskLeavesTheOldPathAndJoinsTheNewOneWithRowsLockedInIdOrder() {
+        service.onTaskChanged(new TaskChangedEvent(null, snapshot(2L, Task.TaskStatus.ASSIGNED, 0, "50")));
+
+        service.onTaskChanged(new TaskChangedEvent(snapshot(2L, Task.TaskStatus.ASSIGNED, 0, "50"),
+            snapshot(3L, Task.TaskStatus.ASSIGNED, 0, "50")));
+
+        assertEquals(0, rollup(1L).getTotalTasks());
+        assertEquals(0, rollup(2L).getTotalTasks());
+        assertEquals(0, BigDecimal.ZERO.compareTo(rollup(1L).getEstimatedCost()));
+        assertEquals(1, rollup(3L).getTotalTasks());
+        assertEquals(new BigDecimal("50"), rollup(3L).getEstimatedCost());
+        assertEquals(List.of(1L, 2L, 3L), lockedIds.get(1));
+    }
+
+    @Test
+    void completionCountsTheTaskAsFinishedWithFullProgress() {
+        service.onTaskChanged(new TaskChangedEvent(null, snapshot(2L, Task.TaskStatus.IN_PROGRESS, 70, "20")));
+
+        service.onTaskChanged(new TaskChangedEvent(snapshot(2L, Task.TaskStatus.IN_PROGRESS, 70, "20"),
+            snapshot(2L, Task.TaskStatus.COMPLETED, 100, "20")));
+
+        assertEquals(1, rollup(1L).getTotalTasks());
+        assertEquals(1, rollup(1L).getFinishedTasks());
+        assertEquals(100, rollup(1L).getProgressPoints());
+        assertEquals(100, rollup(1L).getCompletionPercentage());
+    }
+
+    @Test
+    void overdueCountFromAnEarlierDayIsRecountedUnderTheLocationsPath() {
+        locations.get(1L).setOverdueAsOf(today.minusDays(1));
+        locations.get(1L).getRollup().setOverdueTasks(9);
+        when(taskRepository.countOverdueTasksUnderPath("/1/%", today)).thenReturn(4L);
+
+        service.onTaskChanged(new TaskChangedEvent(null, snapshot(2L, Task.TaskStatus.ASSIGNED, 0, null)));
+
+        assertEquals(4, rollup(1L).getOverdueTasks());
+        assertEquals(today, locations.get(1L).getOverdueAsOf());
+        assertEquals(1, rollup(2L).getTotalTasks());
+    }
+
+    @Test
+    void taskWithoutALocationTouchesNoRollups() {
+        service.onTaskChanged(new TaskChangedEvent(null, snapshot(null, Task.TaskStatus.ASSIGNED, 0, "10")));
+
+        verifyNoInteractions(locationRepository);
+    }
+
+    private TaskRollup rollup(Long locationId) {
+        return locations.get(locationId).getRollup();
+    }
+
+    private void location(Long id, String path) {
+        BuildingLocation location = new BuildingLocation();
+        location.setId(id);
+        location.setPath(path);
+        location.setOverdueAsOf(today);
+        locations.put(id, location);
+    }
+
+    private TaskSnapshot snapshot(Long locationId, Task.TaskStatus status, int progress, String estimatedCost) {
+        return new TaskSnapshot(1L, 5L, 2L, locationId, 3L, status, Task.Priority.MEDIUM, Task.TaskType.CIVIL_WORK,
+            today.plusDays(5), progress, estimatedCost != null ? new BigDecimal(estimatedCost) : null, null);
+    }
+}
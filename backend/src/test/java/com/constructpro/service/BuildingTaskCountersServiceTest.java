@@ -0,0 +1,161 @@
+package com.constructpro.service;
+
+import com.constructpro.entity.BuildingTaskCounters;
+import com.constructpro.entity.Task;
+import com.constructpro.event.TaskChangedEvent;
+import com.constructpro.event.TaskSnapshot;
+import com.constructpro.repository.BuildingRepository;
+import com.constructpro.repository.BuildingTaskCountersRepository;
+import com.constructpro.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counter row updates from task change events, for building 5
+ */
+@ExtendWith(MockitoExtension.class)
+class BuildingTaskCountersServiceTest {
+
+    private static final Long BUILDING = 5L;
+
+    @Mock
+    private BuildingTaskCountersRepository countersRepository;
+    @Mock
+    private BuildingRepository buildingRepository;
+    @Mock
+    private TaskRepository taskRepository;
+
+    private BuildingTaskCountersService service;
+    private final LocalDate today = LocalDate.now();
+    private BuildingTaskCounters row;
+
+    @BeforeEach
+    void setUp() {
+        service = new BuildingTaskCountersService(countersRepository, buildingRepository, taskRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(JobLeaseService.class));
+
+        row = new BuildingTaskCounters(BUILDING);
+        row.adjustCount(Task.TaskStatus.ASSIGNED, 2);
+        row.setOverdueAsOf(today);
+        lenient().when(countersRepository.findByIdForUpdate(BUILDING)).thenAnswer(invocation -> Optional.ofNullable(row));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    @Test
+    void newTaskIsCountedWithItsProgressAndCost() {
+        service.onTaskChanged(new TaskChangedEvent(null, snapshot(Task.TaskStatus.IN_PROGRESS, 40, "100", today.plusDays(3))));
+
+        assertEquals(3, row.getTotalTasks());
+        assertEquals(1, row.getInProgressTasks());
+        assertEquals(40, row.getProgressPoints());
+        assertEquals(new BigDecimal("100"), row.getEstimatedCost());
+    }
+
+    @Test
+    void statusChangeMovesTheTaskBetweenCountsAndFinishedTasksCountInFull() {
+        TaskSnapshot before = snapshot(Task.TaskStatus.ASSIGNED, 60, "100", today.minusDays(1));
+        row.setOverdueTasks(1);
+        row.setProgressPoints(60);
+        row.setEstimatedCost(new BigDecimal("100"));
+
+        service.onTaskChanged(new TaskChangedEvent(before, snapshot(Task.TaskStatus.COMPLETED, 60, "100", today.minusDays(1))));
+
+        assertEquals(2, row.getTotalTasks());
+        assertEquals(1, row.getAssignedTasks());
+        assertEquals(1, row.getCompletedTasks());
+        assertEquals(0, row.getOverdueTasks());
+        assertEquals(100, row.getProgressPoints());
+        assertEquals(new BigDecimal("100"), row.getEstimatedCost());
+    }
+
+    @Test
+    void cancelledTaskDropsItsCost() {
+        TaskSnapshot before = snapshot(Task.TaskStatus.ASSIGNED, 0, "250", today.plusDays(1));
+        row.setEstimatedCost(new BigDecimal("250"));
+
+        service.onTaskChanged(new TaskChangedEvent(before, snapshot(Task.TaskStatus.CANCELLED, 0, "250", today.plusDays(1))));
+
+        assertEquals(1, row.getCancelledTasks());
+        assertEquals(0, BigDecimal.ZERO.compareTo(row.getEstimatedCost()));
+    }
+
+    @Test
+    void changesInOneTransactionAreSummedAndAppliedOnceBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.onTaskChanged(new TaskChangedEvent(null, snapshot(Task.TaskStatus.ASSIGNED, 0, "10", today.plusDays(2))));
+        service.onTaskChanged(new TaskChangedEvent(null, snapshot(Task.TaskStatus.ASSIGNED, 0, "15", today.plusDays(2))));
+        verify(countersRepository, never()).findByIdForUpdate(any());
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+        verify(countersRepository, times(1)).findByIdForUpdate(BUILDING);
+        assertEquals(4, row.getAssignedTasks());
+        assertEquals(new BigDecimal("25"), row.getEstimatedCost());
+    }
+
+    @Test
+    void overdueCountFromAnEarlierDayIsRecountedInsteadOfAdjusted() {
+        row.setOverdueAsOf(today.minusDays(1));
+        row.setOverdueTasks(7);
+        when(taskRepository.countOverdueTasksByBuilding(BUILDING, today)).thenReturn(2L);
+
+        service.onTaskChanged(new TaskChangedEvent(null, snapshot(Task.TaskStatus.ASSIGNED, 0, null, today.minusDays(3))));
+
+        assertEquals(2, row.getOverdueTasks());
+        assertEquals(today, row.getOverdueAsOf());
+    }
+
+    @Test
+    void missingRowIsRebuiltFromTheTasksTable() {
+        row = null;
+        BuildingTaskCounters created = new BuildingTaskCounters(BUILDING);
+        when(countersRepository.findAllByIdsForUpdate(List.of(BUILDING))).thenReturn(List.of(created));
+        when(taskRepository.countTasksGroupedByBuilding(List.of(BUILDING), today)).thenReturn(List.<Object[]>of(
+            new Object[] {BUILDING, Task.TaskStatus.IN_PROGRESS, 3L, 90L, new BigDecimal("30"), null, 1L}));
+
+        service.onTaskChanged(new TaskChangedEvent(null, snapshot(Task.TaskStatus.IN_PROGRESS, 30, "10", today.plusDays(1))));
+
+        verify(countersRepository).insertMissing(eq(List.of(BUILDING)), eq(today), any());
+        verify(countersRepository).saveAll(anyCollection());
+        assertEquals(3, created.getInProgressTasks());
+        assertEquals(1, created.getOverdueTasks());
+        assertEquals(90, created.getProgressPoints());
+        assertEquals(new BigDecimal("30"), created.getEstimatedCost());
+    }
+
+    private static TaskSnapshot snapshot(Task.TaskStatus status, int progress, String estimatedCost, LocalDate deadline) {
+        return new TaskSnapshot(1L, BUILDING, 2L, null, 3L, status, Task.Priority.MEDIUM, Task.TaskType.CIVIL_WORK,
+            deadline, progress, estimatedCost != null ? new BigDecimal(estimatedCost) : null, null);
+    }
+}
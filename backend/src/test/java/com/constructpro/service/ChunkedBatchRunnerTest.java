@@ -0,0 +1,149 @@
+package com.constructpro.service;
+
+import com.constructpro.entity.BatchJobRun;
+import com.constructpro.repository.BatchJobRunRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The runner against an in-memory run table and a list of item keys 1..10
+ */
+@ExtendWith(MockitoExtension.class)
+class ChunkedBatchRunnerTest {
+
+    private static final String JOB = "test-job";
+
+    @Mock
+    private BatchJobRunRepository runRepository;
+
+    private final Map<Long, BatchJobRun> runs = new HashMap<>();
+    private final List<Long> readsAfter = new ArrayList<>();
+    private final List<Long> items = LongStream.rangeClosed(1, 10).boxed().collect(Collectors.toList());
+    private ChunkedBatchRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        runner = new ChunkedBatchRunner(runRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(runner, "maxChunkAttempts", 2);
+
+        lenient().when(runRepository.save(any(BatchJobRun.class))).thenAnswer(invocation -> {
+            BatchJobRun run = invocation.getArgument(0);
+            run.setId((long) runs.size() + 100);
+            runs.put(run.getId(), run);
+            return run;
+        });
+        lenient().when(runRepository.findById(anyLong()))
+            .thenAnswer(invocation -> Optional.ofNullable(runs.get((Long) invocation.getArgument(0))));
+        when(runRepository.findFirstByJobNameOrderByIdDesc(JOB)).thenAnswer(invocation -> runs.values().stream()
+            .max((a, b) -> Long.compare(a.getId(), b.getId())));
+    }
+
+    @Test
+    void completesInChunksAndAdvancesTheCheckpoint() {
+        BatchJobRun run = runner.run(JOB, 4, this::read, Long::longValue, List::size);
+
+        assertEquals(BatchJobRun.RunStatus.COMPLETED, run.getStatus());
+        assertEquals(10, run.getCheckpoint());
+        assertEquals(10, run.getItemsWritten());
+        assertEquals(List.of(0L, 4L, 8L), readsAfter);
+    }
+
+    @Test
+    void failedRunFromTodayResumesAfterItsCheckpoint() {
+        BatchJobRun previous = existingRun(BatchJobRun.RunStatus.FAILED, LocalDateTime.now(), 6);
+
+        BatchJobRun run = runner.run(JOB, 4, this::read, Long::longValue, List::size);
+
+        assertEquals(previous.getId(), run.getId());
+        assertEquals(2, run.getAttempts());
+        assertEquals(BatchJobRun.RunStatus.COMPLETED, run.getStatus());
+        assertEquals(6L, readsAfter.get(0));
+        assertEquals(4, run.getItemsWritten());
+    }
+
+    @Test
+    void unfinishedRunFromAnEarlierDayIsAbandonedAndTheJobStartsOver() {
+        BatchJobRun stale = existingRun(BatchJobRun.RunStatus.RUNNING, LocalDateTime.now().minusDays(1), 6);
+
+        BatchJobRun run = runner.run(JOB, 4, this::read, Long::longValue, List::size);
+
+        assertNotEquals(stale.getId(), run.getId());
+        assertEquals(BatchJobRun.RunStatus.ABANDONED, stale.getStatus());
+        assertEquals(0L, readsAfter.get(0));
+        assertEquals(10, run.getItemsWritten());
+    }
+
+    @Test
+    void failureKeepsTheCheckpointOfTheLastCommittedChunk() {
+        BatchJobRun run = runner.run(JOB, 4, this::read, Long::longValue, chunk -> {
+            if (chunk.contains(7L)) {
+                throw new IllegalStateException("bad item");
+            }
+            return chunk.size();
+        });
+
+        assertEquals(BatchJobRun.RunStatus.FAILED, run.getStatus());
+        assertEquals(4, run.getCheckpoint());
+        assertEquals(1, run.getFailuresAtCheckpoint());
+    }
+
+    @Test
+    void itemThatKeepsFailingIsSkippedOnceTheAttemptLimitIsReached() {
+        ChunkedBatchRunner.ChunkWriter<Long> writer = chunk -> {
+            if (chunk.contains(7L)) {
+                throw new IllegalStateException("bad item");
+            }
+            return chunk.size();
+        };
+        runner.run(JOB, 4, this::read, Long::longValue, writer);
+        runner.run(JOB, 4, this::read, Long::longValue, writer);
+        BatchJobRun run = runner.run(JOB, 4, this::read, Long::longValue, writer);
+
+        assertEquals(BatchJobRun.RunStatus.COMPLETED, run.getStatus());
+        assertEquals(1, run.getItemsSkipped());
+        assertEquals(9, run.getItemsWritten());
+        assertEquals(10, run.getCheckpoint());
+    }
+
+    private List<Long> read(long afterKey, int limit) {
+        readsAfter.add(afterKey);
+        return items.stream().filter(key -> key > afterKey).limit(limit).collect(Collectors.toList());
+    }
+
+    private BatchJobRun existingRun(BatchJobRun.RunStatus status, LocalDateTime startedAt, long checkpoint) {
+        BatchJobRun run = new BatchJobRun();
+        run.setId(1L);
+        run.setJobName(JOB);
+        run.setStatus(status);
+        run.setAttempts(1);
+        run.setCheckpoint(checkpoint);
+        run.setStartedAt(startedAt);
+        runs.put(run.getId(), run);
+        return run;
+    }
+}
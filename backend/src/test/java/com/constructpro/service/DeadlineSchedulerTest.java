@@ -0,0 +1,184 @@
+package com.constructpro.service;
+
+import com.constructpro.entity.Task;
+import com.constructpro.entity.TaskDeadlineEvent.Transition;
+import com.constructpro.entity.User;
+import com.constructpro.event.TaskChangedEvent;
+import com.constructpro.event.TaskSnapshot;
+import com.constructpro.event.UserChangedEvent;
+import com.constructpro.repository.TaskDeadlineEventRepository;
+import com.constructpro.repository.TaskRepository;
+import com.constructpro.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The in-memory queue and ledger claims for task 1, assigned to contractor 3 in the server's zone,
+ * whose deadline was two days ago so only its overdue notice is due
+ */
+@ExtendWith(MockitoExtension.class)
+class DeadlineSchedulerTest {
+
+    private static final Long TASK = 1L;
+    private static final Long CONTRACTOR = 3L;
+
+    @Mock
+    private TaskRepository taskRepository;
+    @Mock
+    private TaskDeadlineEventRepository deadlineEventRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private NotificationService notificationService;
+
+    private DeadlineScheduler scheduler;
+    private final LocalDate deadline = LocalDate.now().minusDays(2);
+    private final Task task = new Task();
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new DeadlineScheduler(taskRepository, deadlineEventRepository, userRepository, notificationService,
+            mock(ChunkedBatchRunner.class), mock(JobLeaseService.class),
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), Runnable::run);
+        ReflectionTestUtils.setField(scheduler, "chunkSize", 100);
+
+        User contractor = new User();
+        contractor.setId(CONTRACTOR);
+        contractor.setRole(User.Role.CONTRACTOR);
+        task.setId(TASK);
+        task.setDeadline(deadline);
+        task.setStatus(Task.TaskStatus.IN_PROGRESS);
+        task.setAssignedContractor(contractor);
+
+        lenient().when(taskRepository.findAllWithContractorAndBuildingByIdIn(any())).thenReturn(List.of(task));
+        lenient().when(deadlineEventRepository.claim(anyLong(), anyString(), any(), any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    @Test
+    void dueTransitionIsClaimedInTheLedgerAndSentOnce() {
+        rebuildWith(null);
+
+        scheduler.fireDue();
+        scheduler.fireDue();
+
+        verify(deadlineEventRepository).claim(eq(TASK), eq(Transition.OVERDUE.name()), eq(deadline), any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationService.DeadlineNotice>> notices = ArgumentCaptor.forClass(List.class);
+        verify(notificationService).createDeadlineNotifications(notices.capture());
+        assertEquals(1, notices.getValue().size());
+        assertSame(task, notices.getValue().get(0).task());
+        assertEquals(Transition.OVERDUE, notices.getValue().get(0).transition());
+    }
+
+    @Test
+    void transitionClaimedByAnotherNodeIsNotSent() {
+        when(deadlineEventRepository.claim(anyLong(), anyString(), any(), any())).thenReturn(0);
+        rebuildWith(null);
+
+        scheduler.fireDue();
+
+        verify(notificationService, never()).createDeadlineNotifications(any());
+    }
+
+    @Test
+    void transitionAlreadyInTheLedgerIsNotArmed() {
+        rebuildWith(Transition.OVERDUE);
+
+        scheduler.fireDue();
+
+        verify(deadlineEventRepository, never()).claim(anyLong(), anyString(), any(), any());
+    }
+
+    @Test
+    void movedDeadlineReplacesTheQueuedTransitions() {
+        rebuildWith(null);
+        LocalDate moved = LocalDate.now().plusDays(10);
+        when(deadlineEventRepository.findFiredTransitions(TASK, moved)).thenReturn(List.of());
+
+        scheduler.onTaskChanged(new TaskChangedEvent(snapshot(Task.TaskStatus.IN_PROGRESS, deadline),
+            snapshot(Task.TaskStatus.IN_PROGRESS, moved)));
+        scheduler.fireDue();
+
+        // The old overdue entry belongs to an earlier arming and the new ones are not due yet
+        verify(deadlineEventRepository, never()).claim(anyLong(), anyString(), any(), any());
+    }
+
+    @Test
+    void closedTaskIsDisarmed() {
+        rebuildWith(null);
+
+        scheduler.onTaskChanged(new TaskChangedEvent(snapshot(Task.TaskStatus.IN_PROGRESS, deadline),
+            snapshot(Task.TaskStatus.COMPLETED, deadline)));
+        scheduler.fireDue();
+
+        verify(deadlineEventRepository, never()).claim(anyLong(), anyString(), any(), any());
+    }
+
+    @Test
+    void contractorZoneChangeIsRearmedOnlyAfterCommit() {
+        rebuildWith(null);
+        User contractor = new User();
+        contractor.setId(CONTRACTOR);
+        contractor.setRole(User.Role.CONTRACTOR);
+        contractor.setTimezone(otherZone().getId());
+
+        TransactionSynchronizationManager.initSynchronization();
+        scheduler.onUserChanged(new UserChangedEvent(contractor));
+        verify(deadlineEventRepository, never()).findByTaskIdIn(anyCollection());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        verify(deadlineEventRepository).findByTaskIdIn(eq(Set.of(TASK)));
+    }
+
+    private void rebuildWith(Transition fired) {
+        when(deadlineEventRepository.streamOpenDeadlinesWithFiredTransitions())
+            .thenReturn(Stream.<Object[]>of(new Object[] {TASK, deadline, fired, CONTRACTOR, null}));
+        scheduler.rebuild();
+    }
+
+    private static TaskSnapshot snapshot(Task.TaskStatus status, LocalDate deadline) {
+        return new TaskSnapshot(TASK, 5L, 2L, null, CONTRACTOR, status, Task.Priority.MEDIUM, Task.TaskType.CIVIL_WORK,
+            deadline, 0, null, null);
+    }
+
+    private static ZoneId otherZone() {
+        ZoneId kiritimati = ZoneId.of("Pacific/Kiritimati");
+        return kiritimati.equals(ZoneId.systemDefault()) ? ZoneId.of("Pacific/Pago_Pago") : kiritimati;
+    }
+}
@@ -0,0 +1,115 @@
+package com.constructpro.service;
+
+import com.constructpro.entity.TaskUpdate;
+import com.constructpro.repository.TaskRepository;
+import com.constructpro.repository.TaskUpdateRepository;
+import com.constructpro.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProgressUpdateBufferTest {
+
+    private static final Long TASK_ID = 11L;
+    private static final Long USER_ID = 5L;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TaskUpdateRepository taskUpdateRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProgressUpdateBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        buffer = new ProgressUpdateBuffer(taskRepository, userRepository, taskUpdateRepository,
+            transactionManager, meterRegistry);
+        // Every entry is due on the next tick
+        ReflectionTestUtils.setField(buffer, "windowSeconds", 0L);
+        ReflectionTestUtils.setField(buffer, "maxFlushAttempts", 3);
+    }
+
+    @Test
+    void failedWriteIsRetriedOnALaterTick() {
+        when(taskUpdateRepository.save(any(TaskUpdate.class)))
+            .thenThrow(new QueryTimeoutException("timeout"))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+
+        buffer.record(TASK_ID, USER_ID, 10, 40, null);
+        buffer.flushExpired();
+        buffer.flushExpired();
+
+        ArgumentCaptor<TaskUpdate> written = ArgumentCaptor.forClass(TaskUpdate.class);
+        verify(taskUpdateRepository, times(2)).save(written.capture());
+        assertEquals(10, written.getValue().getPreviousProgressPercentage());
+        assertEquals(40, written.getValue().getProgressPercentage());
+        assertEquals(1.0, meterRegistry.counter("tasks.progress.flush.retried").count());
+    }
+
+    @Test
+    void progressRecordedAfterAFailureIsMergedIntoTheRetry() {
+        when(taskUpdateRepository.save(any(TaskUpdate.class)))
+            .thenThrow(new QueryTimeoutException("timeout"))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+
+        buffer.record(TASK_ID, USER_ID, 10, 40, "framing");
+        buffer.flushExpired();
+        buffer.record(TASK_ID, USER_ID, 40, 60, "drywall");
+        buffer.flushExpired();
+
+        ArgumentCaptor<TaskUpdate> written = ArgumentCaptor.forClass(TaskUpdate.class);
+        verify(taskUpdateRepository, times(2)).save(written.capture());
+        TaskUpdate update = written.getValue();
+        assertEquals(10, update.getPreviousProgressPercentage());
+        assertEquals(60, update.getProgressPercentage());
+        assertEquals(2, update.getCoalescedUpdates());
+        assertEquals("framing\ndrywall", update.getMessage());
+    }
+
+    @Test
+    void entryIsDroppedAfterTheRetryLimit() {
+        when(taskUpdateRepository.save(any(TaskUpdate.class))).thenThrow(new QueryTimeoutException("timeout"));
+
+        buffer.record(TASK_ID, USER_ID, 10, 40, null);
+        for (int tick = 0; tick < 5; tick++) {
+            buffer.flushExpired();
+        }
+
+        verify(taskUpdateRepository, times(3)).save(any(TaskUpdate.class));
+        assertEquals(2.0, meterRegistry.counter("tasks.progress.flush.retried").count());
+        assertEquals(1.0, meterRegistry.counter("tasks.progress.flush.dropped").count());
+    }
+
+    @Test
+    void discardedTaskIsNotWritten() {
+        buffer.record(TASK_ID, USER_ID, 10, 40, null);
+        buffer.discardTask(TASK_ID);
+        buffer.flushExpired();
+
+        verify(taskUpdateRepository, never()).save(any(TaskUpdate.class));
+    }
+}
@@ -0,0 +1,123 @@
+package com.constructpro.service;
+
+import com.constructpro.entity.User;
+import com.constructpro.repository.BuildingContractorRepository;
+import com.constructpro.repository.BuildingRepository;
+import com.constructpro.repository.TaskRepository;
+import com.constructpro.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two index instances over the same repositories stand in for two application nodes
+ */
+@ExtendWith(MockitoExtension.class)
+class ProjectAccessIndexTest {
+
+    private static final Long CONTRACTOR_ID = 7L;
+    private static final Long BUILDING_ID = 42L;
+
+    @Mock
+    private BuildingRepository buildingRepository;
+
+    @Mock
+    private BuildingContractorRepository buildingContractorRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ProjectAccessIndex nodeA;
+    private ProjectAccessIndex nodeB;
+    private User contractor;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new ProjectAccessIndex(buildingRepository, buildingContractorRepository, taskRepository,
+            userRepository, transactionTemplate);
+        nodeB = new ProjectAccessIndex(buildingRepository, buildingContractorRepository, taskRepository,
+            userRepository, transactionTemplate);
+
+        contractor = new User("contractor@example.com", "secret", "Casey", "Builder", User.Role.CONTRACTOR);
+        contractor.setId(CONTRACTOR_ID);
+
+        when(buildingRepository.findIdsByProjectManagerId(CONTRACTOR_ID)).thenReturn(List.of());
+        when(taskRepository.findBuildingIdsByContractorId(CONTRACTOR_ID)).thenReturn(List.of());
+    }
+
+    @Test
+    void cachedAccessIsReusedWhileTheVersionIsUnchanged() {
+        when(buildingContractorRepository.findActiveBuildingIdsByContractorId(CONTRACTOR_ID))
+            .thenReturn(List.of(BUILDING_ID));
+
+        assertTrue(nodeB.isAssignedToBuilding(contractor, BUILDING_ID));
+        assertTrue(nodeB.isAssignedToBuilding(contractor, BUILDING_ID));
+
+        verify(buildingContractorRepository, times(1)).findActiveBuildingIdsByContractorId(CONTRACTOR_ID);
+    }
+
+    @Test
+    void assignmentRemovedOnOneNodeIsRevokedOnAnother() {
+        when(buildingContractorRepository.findActiveBuildingIdsByContractorId(CONTRACTOR_ID))
+            .thenReturn(List.of(BUILDING_ID))
+            .thenReturn(List.of(BUILDING_ID))
+            .thenReturn(List.of());
+        runTransactionCallbacks();
+
+        assertTrue(nodeA.isAssignedToBuilding(contractor, BUILDING_ID));
+        assertTrue(nodeB.isAssignedToBuilding(contractor, BUILDING_ID));
+
+        // Node A removes the assignment and bumps the version; the next request on node B loads the bumped user
+        nodeA.invalidate(CONTRACTOR_ID);
+        verify(userRepository).incrementAccessVersions(List.of(CONTRACTOR_ID));
+        contractor.setAccessVersion(1L);
+
+        assertFalse(nodeB.isAssignedToBuilding(contractor, BUILDING_ID));
+    }
+
+    @Test
+    void requestWithAnOlderUserKeepsTheNewerEntry() {
+        when(buildingContractorRepository.findActiveBuildingIdsByContractorId(CONTRACTOR_ID))
+            .thenReturn(List.of());
+        contractor.setAccessVersion(3L);
+        assertFalse(nodeB.isAssignedToBuilding(contractor, BUILDING_ID));
+
+        // A request that loaded the user before the last bump must not bring back the old assignment
+        User stale = mock(User.class);
+        when(stale.getId()).thenReturn(CONTRACTOR_ID);
+        when(stale.getAccessVersion()).thenReturn(2L);
+        assertFalse(nodeB.isAssignedToBuilding(stale, BUILDING_ID));
+
+        verify(buildingContractorRepository, times(1)).findActiveBuildingIdsByContractorId(CONTRACTOR_ID);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionCallbacks() {
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+}
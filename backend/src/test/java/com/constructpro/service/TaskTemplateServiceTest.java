@@ -0,0 +1,234 @@
+package com.constructpro.service;
+
+import com.constructpro.dto.request.TaskTemplateRequest;
+import com.constructpro.dto.request.TemplateExpansionRequest;
+import com.constructpro.entity.Building;
+import com.constructpro.entity.BuildingLocation;
+import com.constructpro.entity.Task;
+import com.constructpro.entity.TaskTemplate;
+import com.constructpro.entity.TaskTemplateItem;
+import com.constructpro.entity.User;
+import com.constructpro.repository.BuildingRepository;
+import com.constructpro.repository.TaskTemplateRepository;
+import com.constructpro.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Template expansion over a three-floor building with a two-item template, civil work followed
+ * by tiling two days later
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskTemplateServiceTest {
+
+    @Mock
+    private TaskTemplateRepository taskTemplateRepository;
+    @Mock
+    private BuildingRepository buildingRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private TaskBatchService taskBatchService;
+    @Mock
+    private ProjectAccessIndex projectAccessIndex;
+    @Mock
+    private BuildingLocationService buildingLocationService;
+
+    private TaskTemplateService service;
+    private final User builder = user(1L, User.Role.BUILDER);
+    private final User mason = user(10L, User.Role.CONTRACTOR);
+    private final User tiler = user(11L, User.Role.CONTRACTOR);
+    private final Building building = new Building();
+    private final TaskTemplate template = new TaskTemplate();
+
+    @BeforeEach
+    void setUp() {
+        service = new TaskTemplateService(taskTemplateRepository, buildingRepository, userRepository,
+            taskBatchService, projectAccessIndex, buildingLocationService);
+        ReflectionTestUtils.setField(service, "maxTasks", 100);
+
+        building.setId(5L);
+        building.setTotalFloors(3);
+
+        template.setId(7L);
+        template.setName("Floor finish");
+        template.setCreatedBy(builder);
+        template.getItems().add(item("civil", "Slab {floor}", Task.TaskType.CIVIL_WORK, 0, 3));
+        TaskTemplateItem tiling = item("tiling", "Tiling", Task.TaskType.TILING, 2, 2);
+        tiling.getDependsOn().add("civil");
+        template.getItems().add(tiling);
+
+        lenient().when(taskTemplateRepository.findByIdWithItems(7L)).thenReturn(Optional.of(template));
+        lenient().when(buildingRepository.findById(5L)).thenReturn(Optional.of(building));
+        lenient().when(projectAccessIndex.isBuildingOwner(builder, 5L)).thenReturn(true);
+        lenient().when(buildingLocationService.floorsByNumber(5L)).thenReturn(Map.of());
+        lenient().when(userRepository.findAllById(any())).thenReturn(List.of(mason, tiler));
+    }
+
+    @Test
+    void expandsEveryItemAcrossTheFloorsWithOffsetsAndChainedDependencies() {
+        TemplateExpansionRequest request = request();
+        request.setFloorOffsetDays(5);
+        request.setChainFloors(true);
+        request.setContractorsByType(Map.of("tiling", 11L));
+
+        service.expandTemplate(7L, request, builder);
+        List<Task> tasks = savedTasks();
+
+        assertEquals(6, tasks.size());
+        Task firstSlab = tasks.get(0);
+        Task secondTiling = tasks.get(3);
+        assertEquals("Slab 1", firstSlab.getName());
+        assertEquals("Tiling - Floor 2", secondTiling.getName());
+
+        assertEquals(LocalDate.of(2026, 3, 1), firstSlab.getStartDate());
+        assertEquals(LocalDate.of(2026, 3, 3), firstSlab.getDeadline());
+        assertEquals(LocalDate.of(2026, 3, 8), secondTiling.getStartDate());
+
+        assertSame(mason, firstSlab.getAssignedContractor());
+        assertSame(tiler, secondTiling.getAssignedContractor());
+
+        // Floor 2 tiling waits for floor 2 civil work and for floor 1 tiling
+        assertEquals(2, secondTiling.getDependencies().size());
+        assertSame(tasks.get(2), secondTiling.getDependencies().get(0));
+        assertSame(tasks.get(1), secondTiling.getDependencies().get(1));
+        assertTrue(tasks.get(1).getDependencies().contains(firstSlab));
+    }
+
+    @Test
+    void floorTasksAreFiledUnderTheBuildingsFloorLocations() {
+        BuildingLocation secondFloor = new BuildingLocation();
+        when(buildingLocationService.floorsByNumber(5L)).thenReturn(Map.of(2, secondFloor));
+
+        service.expandTemplate(7L, request(), builder);
+        List<Task> tasks = savedTasks();
+
+        assertNull(tasks.get(0).getLocation());
+        assertSame(secondFloor, tasks.get(2).getLocation());
+    }
+
+    @Test
+    void unitsReplaceTheFloorRange() {
+        TemplateExpansionRequest request = request();
+        request.setUnits(List.of("A", "B"));
+
+        service.expandTemplate(7L, request, builder);
+        List<Task> tasks = savedTasks();
+
+        assertEquals(4, tasks.size());
+        assertEquals("Slab A", tasks.get(0).getName());
+        assertEquals("Tiling - B", tasks.get(3).getName());
+    }
+
+    @Test
+    void nullContractorsByTypeFallsBackToTheDefaultContractor() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        TemplateExpansionRequest request = mapper.readValue(
+            "{\"buildingId\":5,\"startDate\":\"2026-03-01\",\"contractorId\":10,\"contractorsByType\":null}",
+            TemplateExpansionRequest.class);
+
+        service.expandTemplate(7L, request, builder);
+
+        assertTrue(savedTasks().stream().allMatch(task -> task.getAssignedContractor() == mason));
+    }
+
+    @Test
+    void expansionBeyondTheTaskLimitIsRejected() {
+        ReflectionTestUtils.setField(service, "maxTasks", 5);
+
+        assertThrows(IllegalArgumentException.class, () -> service.expandTemplate(7L, request(), builder));
+    }
+
+    @Test
+    void templateItemsAreStoredInDependencyOrder() {
+        when(taskTemplateRepository.save(any(TaskTemplate.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        TaskTemplateRequest request = new TaskTemplateRequest();
+        request.setName("Finish");
+        request.getItems().add(requestItem("paint", "ceiling"));
+        request.getItems().add(requestItem("ceiling", "wiring"));
+        request.getItems().add(requestItem("wiring"));
+
+        TaskTemplate saved = service.createTemplate(request, builder);
+
+        assertEquals(List.of("wiring", "ceiling", "paint"),
+            saved.getItems().stream().map(TaskTemplateItem::getKey).toList());
+        assertEquals(List.of(0, 1, 2), saved.getItems().stream().map(TaskTemplateItem::getPosition).toList());
+    }
+
+    @Test
+    void circularDependenciesAreRejected() {
+        TaskTemplateRequest request = new TaskTemplateRequest();
+        request.setName("Loop");
+        request.getItems().add(requestItem("a", "b"));
+        request.getItems().add(requestItem("b", "a"));
+
+        assertThrows(IllegalArgumentException.class, () -> service.createTemplate(request, builder));
+    }
+
+    private List<Task> savedTasks() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Task>> tasks = ArgumentCaptor.forClass(List.class);
+        verify(taskBatchService).saveNewTasks(tasks.capture(), eq(builder), anyString());
+        return tasks.getValue();
+    }
+
+    private static TemplateExpansionRequest request() {
+        TemplateExpansionRequest request = new TemplateExpansionRequest();
+        request.setBuildingId(5L);
+        request.setStartDate(LocalDate.of(2026, 3, 1));
+        request.setContractorId(10L);
+        return request;
+    }
+
+    private static TaskTemplateItem item(String key, String name, Task.TaskType type, int startOffsetDays, int durationDays) {
+        TaskTemplateItem item = new TaskTemplateItem();
+        item.setKey(key);
+        item.setName(name);
+        item.setType(type);
+        item.setStartOffsetDays(startOffsetDays);
+        item.setDurationDays(durationDays);
+        return item;
+    }
+
+    private static TaskTemplateRequest.Item requestItem(String key, String... dependsOn) {
+        TaskTemplateRequest.Item item = new TaskTemplateRequest.Item();
+        item.setKey(key);
+        item.setName(key);
+        item.setType("CIVIL_WORK");
+        item.setStartOffsetDays(0);
+        item.setDurationDays(1);
+        item.setDependsOn(List.of(dependsOn));
+        return item;
+    }
+
+    private static User user(Long id, User.Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setRole(role);
+        return user;
+    }
+}
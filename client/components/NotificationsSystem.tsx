@@ -335,6 +335,8 @@ const getNotificationIcon = (type: string) => {
       return "❌";
     case "TASK_OVERDUE":
       return "🚨";
+    case "TASK_UNBLOCKED":
+      return "🚦";
     case "DEADLINE_REMINDER":
       return "⏰";
     case "NEW_BUILDING_CREATED":
@@ -436,7 +438,12 @@ export default function NotificationsSystem({
 
   const handleMarkAllAsRead = async () => {
     try {
-      await apiService.markAllNotificationsAsRead();
+      const readUpTo = notifications.reduce<string | undefined>(
+        (latest, notification) =>
+          !latest || notification.createdAt > latest ? notification.createdAt : latest,
+        undefined,
+      );
+      await apiService.markAllNotificationsAsRead(readUpTo);
 
       setNotifications((prev) =>
         prev.map((notification) => ({
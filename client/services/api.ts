@@ -17,6 +17,7 @@ export interface SignupRequest {
   specialization?: string;
   yearsOfExperience?: number;
   certificationDetails?: string;
+  timezone?: string;
 }
 
 export interface BuildingCreateRequest {
@@ -27,6 +28,8 @@ export interface BuildingCreateRequest {
   state?: string;
   postalCode?: string;
   country?: string;
+  latitude?: number;
+  longitude?: number;
   type: string;
   totalFloors?: number;
   totalArea?: number;
@@ -47,6 +50,7 @@ export interface TaskCreateRequest {
   deadline: string;
   buildingId: number;
   contractorId: number;
+  locationId?: number;
   dependencyTaskIds?: string[];
 }
 
@@ -79,6 +83,7 @@ export interface User {
   specialization?: string;
   yearsOfExperience?: number;
   certificationDetails?: string;
+  timezone?: string;
 }
 
 export interface Building {
@@ -90,6 +95,8 @@ export interface Building {
   state?: string;
   postalCode?: string;
   country?: string;
+  latitude?: number;
+  longitude?: number;
   type:
     | "RESIDENTIAL"
     | "COMMERCIAL"
@@ -108,6 +115,13 @@ export interface Building {
   projectManager?: User;
   createdAt: string;
   updatedAt: string;
+  totalTasks?: number;
+  completedTasks?: number;
+  overdueTasks?: number;
+  completionPercentage?: number;
+  taskCountsByStatus?: Record<string, number>;
+  taskEstimatedCost?: number;
+  taskActualCost?: number;
 }
 
 export interface Task {
@@ -150,6 +164,7 @@ export interface Task {
   rejectionReason?: string;
   completionNotes?: string;
   building: Building;
+  locationId?: number;
   assignedContractor: User;
   createdBy: User;
   approvedBy?: User;
@@ -170,10 +185,110 @@ export interface TaskUpdate {
     | "APPROVAL"
     | "REJECTION";
   imageUrls?: string[];
+  progressPercentage?: number;
+  previousProgressPercentage?: number;
+  coalescedUpdates?: number;
   createdBy: User;
   createdAt: string;
 }
 
+export interface ContractorSuggestion {
+  id: number;
+  firstName: string;
+  lastName: string;
+  email: string;
+  specialization?: string;
+  activeTaskCount: number;
+}
+
+export interface BuildingDashboardSummary {
+  id: number;
+  name: string;
+  status: Building["status"];
+  expectedCompletionDate?: string;
+  overdue: boolean;
+  totalTasks: number;
+  overdueTasks: number;
+  completionPercentage: number;
+  taskCountsByStatus: Record<string, number>;
+  mediaCount: number;
+  unreadNotifications: number;
+  latestActivityAt?: string;
+  estimatedBudget?: number;
+  actualCost?: number;
+  taskEstimatedCost: number;
+  taskActualCost: number;
+}
+
+export interface BuildingDashboard {
+  totalBuildings: number;
+  totalTasks: number;
+  overdueTasks: number;
+  unreadNotifications: number;
+  buildings: BuildingDashboardSummary[];
+  generatedAt: string;
+}
+
+export interface DailyDigest {
+  digestDate: string;
+  // OWN covers the buildings the user created or manages; ALL_BUILDINGS is the admins' rollup
+  scope: "OWN" | "ALL_BUILDINGS";
+  buildings: number;
+  openTasks: number;
+  overdueTasks: number;
+  dueThisWeek: number;
+  pendingApprovals: number;
+  stalledTasks: number;
+  overBudgetTasks: number;
+  estimatedCost: number;
+  actualCost: number;
+  budgetDrift: number;
+  generatedAt: string;
+}
+
+export interface ScheduledJobStatus {
+  jobName: string;
+  leaseOwner?: string;
+  leaseAcquiredAt?: string;
+  leaseExpiresAt: string;
+  running: boolean;
+  lastRunNode?: string;
+  lastStartedAt?: string;
+  lastFinishedAt?: string;
+  lastDurationMs?: number;
+  lastOutcome?: "SUCCEEDED" | "FAILED";
+  runCount: number;
+}
+
+export interface NearbyBuilding {
+  building: Building;
+  distanceKm: number;
+}
+
+export interface LocationProgress {
+  id: number;
+  parentId?: number;
+  type: "FLOOR" | "ZONE" | "UNIT";
+  name: string;
+  floorNumber?: number;
+  depth: number;
+  totalTasks: number;
+  finishedTasks: number;
+  cancelledTasks: number;
+  overdueTasks: number;
+  completionPercentage: number;
+  estimatedCost: number;
+  actualCost: number;
+  children: LocationProgress[];
+}
+
+export interface BuildingLocationRequest {
+  parentId?: number;
+  type: string;
+  name: string;
+  floorNumber?: number;
+}
+
 export interface BuildingContractor {
   id: number;
   building: Building;
@@ -193,6 +308,21 @@ export interface BuildingContractorAssignRequest {
   notes?: string;
 }
 
+export interface BuildingContractorBatchResult {
+  index: number;
+  buildingId?: number;
+  contractorId?: number;
+  success: boolean;
+  assignmentId?: number;
+  message?: string;
+}
+
+export interface BuildingContractorBatchResponse {
+  assigned: number;
+  failed: number;
+  results: BuildingContractorBatchResult[];
+}
+
 export interface Notification {
   id: number;
   user: User;
@@ -202,12 +332,15 @@ export interface Notification {
     | "TASK_APPROVED"
     | "TASK_REJECTED"
     | "TASK_OVERDUE"
+    | "TASK_UNBLOCKED"
     | "DEADLINE_REMINDER"
     | "NEW_BUILDING_CREATED"
     | "CONTRACTOR_ASSIGNED"
     | "SYSTEM_UPDATE"
     | "APPROVAL_REQUEST"
-    | "PROGRESS_UPDATE";
+    | "PROGRESS_UPDATE"
+    | "DAILY_DIGEST"
+    | "BUILDING_ANNOUNCEMENT";
   title: string;
   message: string;
   isRead: boolean;
@@ -220,6 +353,35 @@ export interface Notification {
   expiresAt?: string;
 }
 
+// Server-sent event payloads from /api/stream
+export interface StreamNotification {
+  id: number;
+  type: Notification["type"];
+  title: string;
+  message: string;
+  actionUrl?: string;
+  relatedTaskId?: number;
+  relatedBuildingId?: number;
+  createdAt: string;
+}
+
+export interface StreamTaskChange {
+  taskId: number;
+  buildingId: number;
+  previousStatus?: string;
+  status?: string;
+  progressPercentage?: number;
+  deleted: boolean;
+}
+
+export interface EventStreamHandlers {
+  onNotification?: (notification: StreamNotification) => void;
+  onUnreadCount?: (count: number) => void;
+  onTaskChange?: (change: StreamTaskChange) => void;
+  // Called after every (re)connect so callers can refetch what they may have missed
+  onOpen?: () => void;
+}
+
 export interface MediaUploadResponse {
   id: string;
   url: string;
@@ -430,6 +592,12 @@ class ApiService {
     return this.makeRequest<JwtResponse>("/api/auth/me");
   }
 
+  async updateTimezone(timezone: string): Promise<MessageResponse> {
+    return this.makeRequest<MessageResponse>("/api/auth/me/timezone", "PUT", {
+      timezone,
+    });
+  }
+
   // Admin APIs
   async getAllBuilders(): Promise<User[]> {
     return this.makeRequest<User[]>("/api/admin/builders");
@@ -481,6 +649,20 @@ class ApiService {
     return this.makeRequest<User[]>("/api/admin/contractors/available");
   }
 
+  async suggestContractors(
+    prefix: string,
+    specialization?: string,
+    limit = 10,
+  ): Promise<ContractorSuggestion[]> {
+    const params = new URLSearchParams({ prefix, limit: String(limit) });
+    if (specialization) {
+      params.set("specialization", specialization);
+    }
+    return this.makeRequest<ContractorSuggestion[]>(
+      `/api/contractors/suggest?${params.toString()}`,
+    );
+  }
+
   async getUserCounts(): Promise<{
     builders: number;
     contractors: number;
@@ -493,6 +675,10 @@ class ApiService {
     }>("/api/admin/stats/user-counts");
   }
 
+  async getScheduledJobs(): Promise<ScheduledJobStatus[]> {
+    return this.makeRequest<ScheduledJobStatus[]>("/api/admin/jobs");
+  }
+
   // Building APIs
   async createBuilding(buildingData: BuildingCreateRequest): Promise<Building> {
     return this.makeRequest<Building>("/api/buildings", "POST", buildingData);
@@ -524,6 +710,87 @@ class ApiService {
     return this.makeRequest<MessageResponse>(`/api/buildings/${id}`, "DELETE");
   }
 
+  async getBuildingDashboard(): Promise<BuildingDashboard> {
+    return this.makeRequest<BuildingDashboard>("/api/buildings/dashboard");
+  }
+
+  async announceToBuilding(
+    buildingId: number,
+    title: string,
+    message: string,
+  ): Promise<MessageResponse> {
+    return this.makeRequest<MessageResponse>(
+      `/api/buildings/${buildingId}/announce`,
+      "POST",
+      { title, message },
+    );
+  }
+
+  async getDailyDigest(scope?: DailyDigest["scope"]): Promise<DailyDigest> {
+    const query = scope ? `?scope=${scope}` : "";
+    return this.makeRequest<DailyDigest>(`/api/buildings/dashboard/digest${query}`);
+  }
+
+  async getNearbyBuildings(
+    lat: number,
+    lng: number,
+    radiusKm = 25,
+    limit = 20,
+  ): Promise<NearbyBuilding[]> {
+    return this.makeRequest<NearbyBuilding[]>(
+      `/api/buildings/nearby?lat=${lat}&lng=${lng}&radiusKm=${radiusKm}&limit=${limit}`,
+    );
+  }
+
+  async getBuildingLocations(buildingId: number): Promise<LocationProgress[]> {
+    return this.makeRequest<LocationProgress[]>(
+      `/api/buildings/${buildingId}/locations`,
+    );
+  }
+
+  async createBuildingLocation(
+    buildingId: number,
+    location: BuildingLocationRequest,
+  ): Promise<LocationProgress> {
+    return this.makeRequest<LocationProgress>(
+      `/api/buildings/${buildingId}/locations`,
+      "POST",
+      location,
+    );
+  }
+
+  async generateBuildingFloors(buildingId: number): Promise<LocationProgress[]> {
+    return this.makeRequest<LocationProgress[]>(
+      `/api/buildings/${buildingId}/locations/floors`,
+      "POST",
+    );
+  }
+
+  async deleteBuildingLocation(
+    buildingId: number,
+    locationId: number,
+  ): Promise<MessageResponse> {
+    return this.makeRequest<MessageResponse>(
+      `/api/buildings/${buildingId}/locations/${locationId}`,
+      "DELETE",
+    );
+  }
+
+  async getBuildingFloors(buildingId: number): Promise<LocationProgress[]> {
+    return this.makeRequest<LocationProgress[]>(
+      `/api/buildings/${buildingId}/floors`,
+    );
+  }
+
+  async getFloorProgress(
+    buildingId: number,
+    floorNumber: number,
+  ): Promise<LocationProgress> {
+    return this.makeRequest<LocationProgress>(
+      `/api/buildings/${buildingId}/floors/${floorNumber}/progress`,
+    );
+  }
+
   async getMyBuildings(): Promise<Building[]> {
     return this.makeRequest<Building[]>("/api/buildings/my-buildings");
   }
@@ -662,9 +929,11 @@ class ApiService {
     return this.makeRequest<Notification>(`/api/notifications/${id}/read`, "PATCH");
   }
 
-  async markAllNotificationsAsRead(): Promise<MessageResponse> {
+  // readUpTo is the createdAt of the newest notification shown, so later arrivals stay unread
+  async markAllNotificationsAsRead(readUpTo?: string): Promise<MessageResponse> {
+    const query = readUpTo ? `?readUpTo=${encodeURIComponent(readUpTo)}` : "";
     return this.makeRequest<MessageResponse>(
-      "/api/notifications/mark-all-read",
+      `/api/notifications/mark-all-read${query}`,
       "PATCH",
     );
   }
@@ -673,6 +942,111 @@ class ApiService {
     return this.makeRequest<MessageResponse>(`/api/notifications/${id}`, "DELETE");
   }
 
+  /**
+   * Open the server-sent event stream. Uses fetch rather than EventSource so the bearer token can
+   * be sent. Reconnects with exponential back-off and jitter, starting from the server's retry
+   * delay. Returns a function that closes the stream.
+   */
+  openEventStream(handlers: EventStreamHandlers): () => void {
+    const maxDelay = 60000;
+    let retryDelay = 5000;
+    let failures = 0;
+    let closed = false;
+    let controller: AbortController | null = null;
+    let timer: ReturnType<typeof setTimeout> | null = null;
+
+    const dispatch = (event: string, data: string) => {
+      if (!data) {
+        return;
+      }
+      const payload = JSON.parse(data);
+      if (event === "notification") {
+        handlers.onNotification?.(payload as StreamNotification);
+      } else if (event === "unread-count") {
+        handlers.onUnreadCount?.(payload.count as number);
+      } else if (event === "task") {
+        handlers.onTaskChange?.(payload as StreamTaskChange);
+      }
+    };
+
+    const connect = async () => {
+      controller = new AbortController();
+      try {
+        const response = await fetch(`${this.coreApiBase}/api/stream`, {
+          headers: { ...this.getHeaders(), Accept: "text/event-stream" },
+          credentials: "include",
+          signal: controller.signal,
+        });
+        if (!response.ok || !response.body) {
+          throw new Error(`HTTP error! status: ${response.status}`);
+        }
+
+        failures = 0;
+        handlers.onOpen?.();
+
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = "";
+        let event = "message";
+        let data: string[] = [];
+
+        while (true) {
+          const { done, value } = await reader.read();
+          if (done) {
+            break;
+          }
+          buffer += decoder.decode(value, { stream: true });
+
+          let newline: number;
+          while ((newline = buffer.indexOf("\n")) >= 0) {
+            const line = buffer.slice(0, newline).replace(/\r$/, "");
+            buffer = buffer.slice(newline + 1);
+
+            if (line === "") {
+              dispatch(event, data.join("\n"));
+              event = "message";
+              data = [];
+            } else if (line.startsWith(":")) {
+              // Heartbeat comment
+            } else {
+              const colon = line.indexOf(":");
+              const field = colon >= 0 ? line.slice(0, colon) : line;
+              const fieldValue = colon >= 0 ? line.slice(colon + 1).replace(/^ /, "") : "";
+              if (field === "event") {
+                event = fieldValue;
+              } else if (field === "data") {
+                data.push(fieldValue);
+              } else if (field === "retry" && /^\d+$/.test(fieldValue)) {
+                retryDelay = parseInt(fieldValue, 10);
+              }
+            }
+          }
+        }
+      } catch (error) {
+        if (closed) {
+          return;
+        }
+        failures++;
+        console.warn("Event stream disconnected", error);
+      }
+
+      if (!closed) {
+        const backoff = Math.min(maxDelay, retryDelay * 2 ** failures);
+        timer = setTimeout(connect, backoff / 2 + Math.random() * (backoff / 2));
+      }
+    };
+
+    connect();
+
+    return () => {
+      closed = true;
+      if (timer) {
+        clearTimeout(timer);
+      }
+      controller?.abort();
+    };
+  }
+
   // Test APIs
   async testPing(): Promise<any> {
     return this.makeRequest<any>("/api/test/ping");
@@ -860,6 +1234,16 @@ class ApiService {
     );
   }
 
+  async assignContractorsBatch(
+    assignments: BuildingContractorAssignRequest[],
+  ): Promise<BuildingContractorBatchResponse> {
+    return this.makeRequest<BuildingContractorBatchResponse>(
+      "/api/building-contractors/assign-batch",
+      "POST",
+      { assignments },
+    );
+  }
+
   async unassignContractorFromBuilding(
     buildingId: number,
     contractorId: number,
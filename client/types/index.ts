@@ -13,6 +13,7 @@ export interface User {
   specialization?: string;
   yearsOfExperience?: number;
   certificationDetails?: string;
+  timezone?: string;
 }
 
 export interface Building {
@@ -24,6 +25,8 @@ export interface Building {
   state?: string;
   postalCode?: string;
   country?: string;
+  latitude?: number;
+  longitude?: number;
   type:
     | "RESIDENTIAL"
     | "COMMERCIAL"
@@ -42,6 +45,13 @@ export interface Building {
   projectManager?: User;
   createdAt: string;
   updatedAt: string;
+  totalTasks?: number;
+  completedTasks?: number;
+  overdueTasks?: number;
+  completionPercentage?: number;
+  taskCountsByStatus?: Record<string, number>;
+  taskEstimatedCost?: number;
+  taskActualCost?: number;
 }
 
 export interface Task {
@@ -84,6 +94,7 @@ export interface Task {
   rejectionReason?: string;
   completionNotes?: string;
   building: Building;
+  locationId?: number;
   assignedContractor: User;
   createdBy: User;
   approvedBy?: User;
@@ -104,6 +115,9 @@ export interface TaskUpdate {
     | "APPROVAL"
     | "REJECTION";
   imageUrls?: string[];
+  progressPercentage?: number;
+  previousProgressPercentage?: number;
+  coalescedUpdates?: number;
   createdBy: User;
   createdAt: string;
 }
@@ -117,12 +131,15 @@ export interface Notification {
     | "TASK_APPROVED"
     | "TASK_REJECTED"
     | "TASK_OVERDUE"
+    | "TASK_UNBLOCKED"
     | "DEADLINE_REMINDER"
     | "NEW_BUILDING_CREATED"
     | "CONTRACTOR_ASSIGNED"
     | "SYSTEM_UPDATE"
     | "APPROVAL_REQUEST"
-    | "PROGRESS_UPDATE";
+    | "PROGRESS_UPDATE"
+    | "DAILY_DIGEST"
+    | "BUILDING_ANNOUNCEMENT";
   title: string;
   message: string;
   isRead: boolean;
@@ -151,6 +168,7 @@ export interface SignupRequest {
   specialization?: string;
   yearsOfExperience?: number;
   certificationDetails?: string;
+  timezone?: string;
 }
 
 export interface BuildingCreateRequest {
@@ -161,6 +179,8 @@ export interface BuildingCreateRequest {
   state?: string;
   postalCode?: string;
   country?: string;
+  latitude?: number;
+  longitude?: number;
   type: string;
   totalFloors?: number;
   totalArea?: number;